@@ -0,0 +1,71 @@
+package com.diegocarvajal.comiccollectorsystem.benchmarks;
+
+import com.diegocarvajal.comiccollectorsystem.models.Comic;
+import com.diegocarvajal.comiccollectorsystem.models.IndiceTrigramas;
+import com.diegocarvajal.comiccollectorsystem.utils.BusquedaParalela;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+
+/**
+ * Mide las búsquedas del índice de trigramas que recorren muchos candidatos (consultas de uno o dos caracteres)
+ * con pools de fork-join de distinto paralelismo, y calcula la aceleración respecto de un solo hilo.
+ * Uso: BenchmarkBusquedaParalela [cantidadDeComics] [repeticiones]
+ */
+public class BenchmarkBusquedaParalela {
+
+    public static void main(String[] args) {
+        int cantidad = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int repeticiones = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        List<Comic> comics = new ArrayList<>(cantidad);
+        for (int i = 1; i <= cantidad; i++) {
+            comics.add(new Comic(String.valueOf(i), DatosSinteticos.titulo(i), DatosSinteticos.autor(i), true, ""));
+        }
+
+        List<Integer> niveles = new ArrayList<>();
+        for (int hilos = 1; hilos < Runtime.getRuntime().availableProcessors(); hilos *= 2) {
+            niveles.add(hilos);
+        }
+        niveles.add(Runtime.getRuntime().availableProcessors());
+
+        System.out.printf("%d cómics, %d procesadores%n", cantidad, Runtime.getRuntime().availableProcessors());
+        System.out.printf("%-6s %14s %14s%n", "Hilos", "buscar(\"99\")", "buscar(\"zz\")");
+        double[] base = null;
+        for (int hilos : niveles) {
+            ForkJoinPool pool = new ForkJoinPool(hilos);
+            IndiceTrigramas indice = new IndiceTrigramas(new BusquedaParalela(pool, BusquedaParalela.UMBRAL_PARALELO));
+            for (Comic comic : comics) {
+                indice.agregar(comic, comic.getClaveTitulo());
+            }
+            double[] tiempos = {
+                    medir(repeticiones, () -> indice.buscar("99")),
+                    // Sin coincidencias: verifica todo el catálogo y no hay nada que ordenar
+                    medir(repeticiones, () -> indice.buscar("zz"))
+            };
+            if (base == null) {
+                base = tiempos;
+            }
+            System.out.printf("%-6d %9.2f ms %4.1fx %6.2f ms %4.1fx%n", hilos,
+                    tiempos[0], base[0] / tiempos[0], tiempos[1], base[1] / tiempos[1]);
+            pool.close();
+        }
+    }
+
+    /**
+     * Devuelve el mejor tiempo en milisegundos, después de una ronda de calentamiento.
+     */
+    private static double medir(int repeticiones, Supplier<?> busqueda) {
+        for (int i = 0; i < repeticiones; i++) {
+            busqueda.get();
+        }
+        long mejor = Long.MAX_VALUE;
+        for (int i = 0; i < repeticiones; i++) {
+            long inicio = System.nanoTime();
+            busqueda.get();
+            mejor = Math.min(mejor, System.nanoTime() - inicio);
+        }
+        return mejor / 1e6;
+    }
+}
@@ -0,0 +1,55 @@
+package com.diegocarvajal.comiccollectorsystem.benchmarks;
+
+import com.diegocarvajal.comiccollectorsystem.models.TiendaDeComics;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Compara el tiempo de arranque de la tienda leyendo comics.csv de forma secuencial, con la carga paralela mapeada en memoria
+ * y desde la instantánea binaria.
+ * Uso: BenchmarkCargaComics [cantidadDeComics] [repeticiones]
+ */
+public class BenchmarkCargaComics {
+
+    public static void main(String[] args) throws IOException {
+        int cantidad = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int repeticiones = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        Path directorio = Files.createTempDirectory("benchmark-comics");
+        Path comics = directorio.resolve("comics.csv");
+        Path usuarios = directorio.resolve("usuarios.csv");
+        Path instantanea = directorio.resolve("tienda.bin");
+        DatosSinteticos.generarComics(comics, cantidad);
+        DatosSinteticos.generarUsuarios(usuarios);
+        System.out.printf("Archivo de %d cómics (%d MB)%n", cantidad, Files.size(comics) >> 20);
+
+        // Calentamiento para que todos los caminos estén compilados por el JIT
+        TiendaDeComics.desdeCSV(comics.toString(), usuarios.toString(), false).guardarInstantanea(instantanea.toString());
+        TiendaDeComics.desdeCSV(comics.toString(), usuarios.toString(), true);
+        TiendaDeComics.desdeInstantanea(instantanea.toString(), comics.toString(), usuarios.toString(), false);
+        System.out.printf("Instantánea binaria: %d MB%n", Files.size(instantanea) >> 20);
+
+        long secuencial = Long.MAX_VALUE;
+        long paralelo = Long.MAX_VALUE;
+        long binaria = Long.MAX_VALUE;
+        for (int i = 0; i < repeticiones; i++) {
+            secuencial = Math.min(secuencial, medir(() -> TiendaDeComics.desdeCSV(comics.toString(), usuarios.toString(), false)));
+            paralelo = Math.min(paralelo, medir(() -> TiendaDeComics.desdeCSV(comics.toString(), usuarios.toString(), true)));
+            binaria = Math.min(binaria, medir(() -> TiendaDeComics.desdeInstantanea(instantanea.toString(), comics.toString(), usuarios.toString(), false)));
+        }
+        System.out.printf("Carga secuencial:  %d ms%n", secuencial / 1_000_000);
+        System.out.printf("Carga paralela:    %d ms (%.2fx)%n", paralelo / 1_000_000, (double) secuencial / paralelo);
+        System.out.printf("Carga instantánea: %d ms (%.2fx)%n", binaria / 1_000_000, (double) secuencial / binaria);
+        Files.delete(instantanea);
+        Files.delete(comics);
+        Files.delete(usuarios);
+        Files.delete(directorio);
+    }
+
+    private static long medir(Runnable carga) {
+        long inicio = System.nanoTime();
+        carga.run();
+        return System.nanoTime() - inicio;
+    }
+}
@@ -0,0 +1,111 @@
+package com.diegocarvajal.comiccollectorsystem.benchmarks;
+
+import com.diegocarvajal.comiccollectorsystem.models.AlmacenComicsMapeado;
+import com.diegocarvajal.comiccollectorsystem.models.CatalogoCompacto;
+import com.diegocarvajal.comiccollectorsystem.models.Comic;
+import com.diegocarvajal.comiccollectorsystem.models.TiendaDeComics;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compara la memoria del heap por cómic entre la representación con objetos {@link Comic},
+ * el {@link CatalogoCompacto} y el {@link AlmacenComicsMapeado} (en un directorio temporal), y luego la de una
+ * {@link TiendaDeComics} completa (con sus índices) cargada desde un CSV sintético con cada almacenamiento.
+ * Uso: BenchmarkMemoriaComics [cantidadDeComics]
+ */
+public class BenchmarkMemoriaComics {
+
+    public static void main(String[] args) throws IOException {
+        int cantidad = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+
+        long antes = memoriaUsada();
+        List<Comic> objetos = new ArrayList<>(cantidad);
+        for (int i = 1; i <= cantidad; i++) {
+            objetos.add(crearComic(i));
+        }
+        long bytesObjetos = memoriaUsada() - antes;
+
+        antes = memoriaUsada();
+        CatalogoCompacto compacto = new CatalogoCompacto(cantidad);
+        for (int i = 1; i <= cantidad; i++) {
+            Comic comic = crearComic(i);
+            compacto.agregar(comic.getId(), comic.getTitulo(), comic.getAutor(), comic.getEstado(), comic.getAsignadoA());
+        }
+        long bytesCompacto = memoriaUsada() - antes;
+
+        Path directorio = Files.createTempDirectory("almacen-comics");
+        antes = memoriaUsada();
+        AlmacenComicsMapeado mapeado = new AlmacenComicsMapeado(directorio);
+        for (int i = 1; i <= cantidad; i++) {
+            Comic comic = crearComic(i);
+            mapeado.agregar(comic.getId(), comic.getTitulo(), comic.getAutor(), comic.getEstado(), comic.getAsignadoA());
+        }
+        long bytesMapeado = memoriaUsada() - antes;
+
+        System.out.printf("Cómics: %d%n", cantidad);
+        System.out.printf("Objetos Comic:      %.1f bytes/cómic%n", (double) bytesObjetos / cantidad);
+        System.out.printf("Catálogo compacto:  %.1f bytes/cómic (estimado por el catálogo: %.1f)%n",
+                (double) bytesCompacto / cantidad, (double) compacto.bytesOcupados() / cantidad);
+        System.out.printf("Ahorro:             %.0f%%%n", 100.0 * (bytesObjetos - bytesCompacto) / bytesObjetos);
+        System.out.printf("Almacén mapeado:    %.1f bytes/cómic en el heap (estimado: %.1f), %.1f bytes/cómic fuera del heap%n",
+                (double) bytesMapeado / cantidad, (double) mapeado.bytesEnHeap() / cantidad,
+                (double) (mapeado.bytesOcupados() - mapeado.bytesEnHeap()) / cantidad);
+        // Mantener todas las representaciones vivas hasta después de medir
+        System.out.println(objetos.size() + compacto.cantidad() + mapeado.cantidad() > 0 ? "" : "-");
+
+        mapeado.close();
+        try (var archivos = Files.list(directorio)) {
+            for (Path archivo : archivos.toList()) {
+                Files.delete(archivo);
+            }
+        }
+        Files.delete(directorio);
+
+        medirTiendas(cantidad);
+    }
+
+    /**
+     * Carga la misma tienda con cada almacenamiento y muestra el heap por cómic junto con lo que informa la tienda.
+     */
+    private static void medirTiendas(int cantidad) throws IOException {
+        Path directorio = Files.createTempDirectory("memoria-tienda");
+        Path comics = directorio.resolve("comics.csv");
+        Path usuarios = directorio.resolve("usuarios.csv");
+        DatosSinteticos.generarComics(comics, cantidad);
+        DatosSinteticos.generarUsuarios(usuarios);
+        for (TiendaDeComics.Almacenamiento almacenamiento : TiendaDeComics.Almacenamiento.values()) {
+            long antes = memoriaUsada();
+            TiendaDeComics tienda = TiendaDeComics.desdeCSV(comics.toString(), usuarios.toString(), false, almacenamiento);
+            long bytes = memoriaUsada() - antes;
+            long almacenados = tienda.bytesPorComicAlmacenados();
+            System.out.printf("Tienda con %-9s %.1f bytes/cómic en el heap%s%n", almacenamiento + ":", (double) bytes / cantidad,
+                    almacenados < 0 ? "" : " (el almacenamiento informa " + almacenados + " bytes/cómic)");
+            // Sin cambios no se escribe nada; el almacenamiento mapeado borra sus archivos temporales
+            tienda.cerrar();
+        }
+        Files.delete(comics);
+        Files.delete(usuarios);
+        Files.delete(directorio);
+    }
+
+    /**
+     * Crea un cómic con textos nuevos en cada campo, como quedan al leerlos del CSV.
+     */
+    private static Comic crearComic(int i) {
+        boolean disponible = i % 5 != 0;
+        return new Comic(String.valueOf(i), DatosSinteticos.titulo(i), new String(DatosSinteticos.autor(i)), disponible,
+                disponible ? "" : new String(DatosSinteticos.email(i % DatosSinteticos.USUARIOS)));
+    }
+
+    private static long memoriaUsada() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
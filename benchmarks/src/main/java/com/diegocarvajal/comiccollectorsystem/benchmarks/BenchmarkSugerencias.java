@@ -0,0 +1,123 @@
+package com.diegocarvajal.comiccollectorsystem.benchmarks;
+
+import com.diegocarvajal.comiccollectorsystem.models.IndiceDifuso;
+import com.diegocarvajal.comiccollectorsystem.utils.Normalizacion;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Mide las sugerencias por similitud sobre títulos distintos: cada consulta es un título existente, o una sola
+ * de sus palabras, con un error de tipeo (una letra cambiada, borrada o dos letras intercambiadas).
+ * Informa la latencia (p50 y p99) y en cuántas consultas se acertó: con el título completo, si el título original
+ * quedó entre las sugerencias; con una palabra, si alguna sugerencia contiene esa palabra bien escrita.
+ * Se prueba con títulos variados y con los títulos sintéticos de {@link DatosSinteticos}, que solo se diferencian
+ * por el número (el peor caso: casi todos los trigramas son comunes a todo el catálogo).
+ * Uso: BenchmarkSugerencias [cantidadDeTitulos] [consultas]
+ */
+public class BenchmarkSugerencias {
+    // Cantidad de sugerencias pedidas por consulta
+    private static final int SUGERENCIAS = 5;
+    private static final String[] SILABAS = {"ca", "pi", "tan", "ma", "fal", "da", "spi", "der", "bat", "man", "su", "per",
+            "lu", "na", "sol", "ros", "ver", "de", "mon", "te", "ra", "go", "ne", "ri", "ti", "xo", "bel", "an", "cho", "lla"};
+
+    public static void main(String[] args) {
+        int cantidad = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int consultas = args.length > 1 ? Integer.parseInt(args[1]) : 2000;
+        Random azar = new Random(42);
+        String[] variados = new String[cantidad];
+        String[] sinteticos = new String[cantidad];
+        for (int i = 0; i < cantidad; i++) {
+            variados[i] = tituloVariado(azar) + " " + (i % 100);
+            sinteticos[i] = DatosSinteticos.titulo(i + 1);
+        }
+        medir(indexar("Títulos variados", variados), variados, consultas, azar);
+        medir(indexar("Títulos sintéticos", sinteticos), sinteticos, consultas, azar);
+    }
+
+    private static IndiceDifuso<Integer> indexar(String nombre, String[] titulos) {
+        long inicio = System.nanoTime();
+        IndiceDifuso<Integer> indice = new IndiceDifuso<>();
+        for (int i = 0; i < titulos.length; i++) {
+            indice.agregar(Normalizacion.clave(titulos[i]), i);
+        }
+        System.out.printf("%s: %d títulos indexados en %d ms%n", nombre, titulos.length, (System.nanoTime() - inicio) / 1_000_000);
+        return indice;
+    }
+
+    private static void medir(IndiceDifuso<Integer> indice, String[] titulos, int consultas, Random azar) {
+        // Calentamiento
+        for (int i = 0; i < consultas; i++) {
+            indice.buscar(conError(titulos[azar.nextInt(titulos.length)], azar), SUGERENCIAS);
+        }
+        for (boolean parcial : new boolean[]{false, true}) {
+            long[] latencias = new long[consultas];
+            int aciertos = 0;
+            for (int i = 0; i < consultas; i++) {
+                String titulo = titulos[azar.nextInt(titulos.length)];
+                String buscado = parcial ? palabraMasLarga(titulo) : titulo;
+                String consulta = conError(buscado, azar);
+                long antes = System.nanoTime();
+                List<IndiceDifuso.Coincidencia<Integer>> sugerencias = indice.buscar(consulta, SUGERENCIAS);
+                latencias[i] = System.nanoTime() - antes;
+                String clave = Normalizacion.clave(buscado);
+                for (IndiceDifuso.Coincidencia<Integer> sugerencia : sugerencias) {
+                    if (parcial ? sugerencia.clave().contains(clave) : sugerencia.clave().equals(clave)) {
+                        aciertos++;
+                        break;
+                    }
+                }
+            }
+            Arrays.sort(latencias);
+            System.out.printf("  %-15s p50: %8.1f µs, p99: %8.1f µs, acierto entre las %d sugerencias: %.1f%%%n",
+                    parcial ? "una palabra:" : "título completo:", latencias[consultas / 2] / 1e3,
+                    latencias[consultas * 99 / 100] / 1e3, SUGERENCIAS, 100.0 * aciertos / consultas);
+        }
+    }
+
+    /**
+     * Palabra más larga del título, que es la que un usuario suele recordar ("Batmn" por "Batman: Year One").
+     */
+    private static String palabraMasLarga(String titulo) {
+        String mejor = "";
+        for (String palabra : titulo.split("[ :]+")) {
+            if (palabra.length() > mejor.length()) {
+                mejor = palabra;
+            }
+        }
+        return mejor;
+    }
+
+    private static String tituloVariado(Random azar) {
+        StringBuilder titulo = new StringBuilder();
+        int palabras = 2 + azar.nextInt(3);
+        for (int p = 0; p < palabras; p++) {
+            if (p > 0) titulo.append(' ');
+            int silabas = 2 + azar.nextInt(3);
+            for (int s = 0; s < silabas; s++) {
+                titulo.append(SILABAS[azar.nextInt(SILABAS.length)]);
+            }
+        }
+        titulo.setCharAt(0, Character.toUpperCase(titulo.charAt(0)));
+        return titulo.toString();
+    }
+
+    /**
+     * Aplica un error de tipeo al azar: cambiar una letra, borrarla o intercambiarla con la siguiente.
+     */
+    private static String conError(String titulo, Random azar) {
+        StringBuilder texto = new StringBuilder(titulo);
+        int posicion = azar.nextInt(texto.length() - 1);
+        switch (azar.nextInt(3)) {
+            case 0 -> texto.setCharAt(posicion, (char) ('a' + azar.nextInt(26)));
+            case 1 -> texto.deleteCharAt(posicion);
+            default -> {
+                char letra = texto.charAt(posicion);
+                texto.setCharAt(posicion, texto.charAt(posicion + 1));
+                texto.setCharAt(posicion + 1, letra);
+            }
+        }
+        return texto.toString();
+    }
+}
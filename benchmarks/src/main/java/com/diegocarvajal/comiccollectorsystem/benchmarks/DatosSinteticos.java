@@ -0,0 +1,66 @@
+package com.diegocarvajal.comiccollectorsystem.benchmarks;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Genera archivos CSV sintéticos de cómics y usuarios para los benchmarks y pruebas de estrés.
+ */
+public class DatosSinteticos {
+    // Cantidad de autores distintos; se repiten a lo largo del catálogo
+    public static final int AUTORES = 1000;
+    // Cantidad de usuarios generados; los cómics prestados se asignan a ellos
+    public static final int USUARIOS = 100;
+
+    /**
+     * Genera un CSV de cómics con autores repetidos y un cómic prestado de cada cinco.
+     */
+    public static void generarComics(Path ruta, int cantidad) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(ruta, StandardCharsets.UTF_8)) {
+            writer.write("id|titulo|autor|estado|asignadoA");
+            writer.newLine();
+            for (int i = 1; i <= cantidad; i++) {
+                boolean disponible = i % 5 != 0;
+                writer.write(i + "|" + titulo(i) + "|" + autor(i) + "|" + disponible + "|"
+                        + (disponible ? "" : email(i % USUARIOS)));
+                writer.newLine();
+            }
+        }
+    }
+
+    /**
+     * Genera un CSV con los usuarios a los que se asignan los cómics prestados.
+     */
+    public static void generarUsuarios(Path ruta) throws IOException {
+        generarUsuarios(ruta, USUARIOS);
+    }
+
+    /**
+     * Genera un CSV con la cantidad de usuarios indicada (al menos los usados por los cómics prestados).
+     */
+    public static void generarUsuarios(Path ruta, int cantidad) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(ruta, StandardCharsets.UTF_8)) {
+            writer.write("id|nombre|apellido|email|telefono");
+            writer.newLine();
+            for (int i = 0; i < Math.max(cantidad, USUARIOS); i++) {
+                writer.write((i + 1) + "|Nombre" + i + "|Apellido" + i + "|" + email(i) + "|9" + (10000000 + i));
+                writer.newLine();
+            }
+        }
+    }
+
+    public static String titulo(int i) {
+        return "Comic número " + i;
+    }
+
+    public static String autor(int i) {
+        return "Autor " + (i % AUTORES);
+    }
+
+    public static String email(int i) {
+        return "usuario" + i + "@email.com";
+    }
+}
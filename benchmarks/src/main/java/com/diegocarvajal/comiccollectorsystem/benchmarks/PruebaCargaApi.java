@@ -0,0 +1,141 @@
+package com.diegocarvajal.comiccollectorsystem.benchmarks;
+
+import com.diegocarvajal.comiccollectorsystem.controllers.ServidorApi;
+import com.diegocarvajal.comiccollectorsystem.models.TiendaDeComics;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Prueba de carga local de la API HTTP: levanta {@link ServidorApi} sobre un catálogo sintético y varios clientes
+ * (hilos virtuales) le envían solicitudes durante un tiempo fijo. Informa solicitudes por segundo y latencias.
+ * Mezcla: 50% búsqueda por título, 20% listado paginado, 20% búsqueda por id y 10% préstamos.
+ * Uso: PruebaCargaApi [cantidadDeComics] [clientes] [segundos]
+ */
+public class PruebaCargaApi {
+
+    public static void main(String[] args) throws Exception {
+        int cantidad = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int clientes = args.length > 1 ? Integer.parseInt(args[1]) : 64;
+        int segundos = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+
+        Path directorio = Files.createTempDirectory("carga-api");
+        Path comics = directorio.resolve("comics.csv");
+        Path usuarios = directorio.resolve("usuarios.csv");
+        DatosSinteticos.generarComics(comics, cantidad);
+        DatosSinteticos.generarUsuarios(usuarios);
+        TiendaDeComics tienda = TiendaDeComics.desdeCSV(comics.toString(), usuarios.toString(), false);
+        ServidorApi servidor = new ServidorApi(tienda, 0);
+        servidor.iniciar();
+        String base = "http://localhost:" + servidor.getPuerto();
+        HttpClient cliente = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+        // Calentamiento breve para que el JIT compile el camino de las solicitudes
+        ejecutar(cliente, base, cantidad, clientes, System.nanoTime() + 2_000_000_000L);
+        Resultado resultado = ejecutar(cliente, base, cantidad, clientes, System.nanoTime() + segundos * 1_000_000_000L);
+
+        long[] latencias = resultado.latencias();
+        Arrays.sort(latencias);
+        System.out.printf("%d cómics, %d clientes, %d s%n", cantidad, clientes, segundos);
+        System.out.printf("Solicitudes: %d (%.0f solicitudes/s), errores: %d%n", latencias.length,
+                latencias.length / (resultado.duracion() / 1e9), resultado.errores());
+        System.out.printf("Latencia p50: %.2f ms, p99: %.2f ms, p99.9: %.2f ms, máxima: %.2f ms%n",
+                percentil(latencias, 0.50), percentil(latencias, 0.99), percentil(latencias, 0.999),
+                latencias.length == 0 ? 0 : latencias[latencias.length - 1] / 1e6);
+
+        System.out.println("Métricas de la tienda (lado servidor, incluye el calentamiento):");
+        System.out.print(tienda.getMetricas().resumen());
+
+        servidor.detener();
+        Files.delete(comics);
+        Files.delete(usuarios);
+        Files.delete(directorio);
+    }
+
+    /**
+     * Latencias (ns) de todas las solicitudes respondidas, errores (código 5xx o falla de conexión) y duración total.
+     */
+    private record Resultado(long[] latencias, long errores, long duracion) {}
+
+    private static Resultado ejecutar(HttpClient cliente, String base, int cantidad, int clientes, long fin) throws InterruptedException {
+        List<Thread> hilos = new ArrayList<>(clientes);
+        long[][] latenciasPorCliente = new long[clientes][];
+        int[] respondidas = new int[clientes];
+        AtomicLong errores = new AtomicLong();
+        long inicio = System.nanoTime();
+        for (int c = 0; c < clientes; c++) {
+            int indice = c;
+            hilos.add(Thread.ofVirtual().start(() -> {
+                ThreadLocalRandom azar = ThreadLocalRandom.current();
+                long[] latencias = new long[1024];
+                int n = 0;
+                while (System.nanoTime() < fin) {
+                    HttpRequest solicitud = solicitudAleatoria(base, cantidad, azar);
+                    long antes = System.nanoTime();
+                    try {
+                        HttpResponse<String> respuesta = cliente.send(solicitud, HttpResponse.BodyHandlers.ofString());
+                        if (respuesta.statusCode() >= 500) errores.incrementAndGet();
+                    } catch (Exception e) {
+                        errores.incrementAndGet();
+                        continue;
+                    }
+                    if (n == latencias.length) latencias = Arrays.copyOf(latencias, n * 2);
+                    latencias[n++] = System.nanoTime() - antes;
+                }
+                latenciasPorCliente[indice] = latencias;
+                respondidas[indice] = n;
+            }));
+        }
+        for (Thread hilo : hilos) {
+            hilo.join();
+        }
+        long duracion = System.nanoTime() - inicio;
+        int total = 0;
+        for (int n : respondidas) total += n;
+        long[] todas = new long[total];
+        int posicion = 0;
+        for (int c = 0; c < clientes; c++) {
+            System.arraycopy(latenciasPorCliente[c], 0, todas, posicion, respondidas[c]);
+            posicion += respondidas[c];
+        }
+        return new Resultado(todas, errores.get(), duracion);
+    }
+
+    private static HttpRequest solicitudAleatoria(String base, int cantidad, ThreadLocalRandom azar) {
+        int i = 1 + azar.nextInt(cantidad);
+        int tipo = azar.nextInt(10);
+        if (tipo < 5) {
+            return get(base + "/comics/buscar?titulo=" + URLEncoder.encode(DatosSinteticos.titulo(i), StandardCharsets.UTF_8));
+        } else if (tipo < 7) {
+            return get(base + "/comics?orden=autor&tamano=20");
+        } else if (tipo < 9) {
+            return get(base + "/comics/buscar?id=" + i);
+        }
+        String cuerpo = "{\"idComic\":\"" + i + "\",\"email\":\"" + DatosSinteticos.email(azar.nextInt(DatosSinteticos.USUARIOS)) + "\"}";
+        return HttpRequest.newBuilder(URI.create(base + "/prestamos"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(cuerpo))
+                .build();
+    }
+
+    private static HttpRequest get(String url) {
+        return HttpRequest.newBuilder(URI.create(url)).GET().build();
+    }
+
+    private static double percentil(long[] ordenadas, double p) {
+        if (ordenadas.length == 0) return 0;
+        int indice = (int) Math.min(ordenadas.length - 1, Math.ceil(p * ordenadas.length) - 1);
+        return ordenadas[Math.max(0, indice)] / 1e6;
+    }
+}
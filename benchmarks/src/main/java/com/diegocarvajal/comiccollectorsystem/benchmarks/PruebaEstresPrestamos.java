@@ -0,0 +1,163 @@
+package com.diegocarvajal.comiccollectorsystem.benchmarks;
+
+import com.diegocarvajal.comiccollectorsystem.exceptions.ComicNoEncontradoException;
+import com.diegocarvajal.comiccollectorsystem.exceptions.ComicYaPrestadoException;
+import com.diegocarvajal.comiccollectorsystem.models.Comic;
+import com.diegocarvajal.comiccollectorsystem.models.TiendaDeComics;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Prueba de estrés de préstamos concurrentes: varios hilos intentan prestar los mismos cómics a la vez, por título
+ * y por id, y al final se verifica que ningún cómic se prestó más de una vez, que los conteos de prestados y disponibles
+ * cuadran y que el índice de préstamos por usuario coincide con el asignadoA de cada cómic.
+ * Termina con código 1 si alguna verificación falla.
+ * Uso: PruebaEstresPrestamos [cantidadDeComics] [hilos] [intentosPorHilo]
+ */
+public class PruebaEstresPrestamos {
+
+    public static void main(String[] args) throws Exception {
+        int cantidad = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int hilos = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors() * 2;
+        int intentos = args.length > 2 ? Integer.parseInt(args[2]) : 50_000;
+
+        Path directorio = Files.createTempDirectory("estres-prestamos");
+        Path comics = directorio.resolve("comics.csv");
+        Path usuarios = directorio.resolve("usuarios.csv");
+        DatosSinteticos.generarComics(comics, cantidad);
+        DatosSinteticos.generarUsuarios(usuarios);
+        TiendaDeComics tienda = TiendaDeComics.desdeCSV(comics.toString(), usuarios.toString(), false);
+
+        List<Comic> catalogo = tienda.getComics();
+        int prestadosAntes = tienda.cantidadPrestados();
+
+        // Cada hilo presta con su propio email, así sus préstamos se pueden comparar con el índice por usuario
+        AtomicLongArray exitosPorHilo = new AtomicLongArray(hilos);
+        AtomicLong rechazados = new AtomicLong();
+        List<Thread> trabajadores = new ArrayList<>();
+        long inicio = System.nanoTime();
+        for (int h = 0; h < hilos; h++) {
+            int hilo = h;
+            String email = emailDeHilo(h);
+            trabajadores.add(Thread.ofPlatform().start(() -> {
+                ThreadLocalRandom azar = ThreadLocalRandom.current();
+                for (int i = 0; i < intentos; i++) {
+                    Comic comic = catalogo.get(azar.nextInt(cantidad));
+                    try {
+                        if (azar.nextBoolean()) {
+                            tienda.prestarComic(comic.getTitulo(), email);
+                        } else {
+                            tienda.prestarComicPorId(comic.getId(), email);
+                        }
+                        exitosPorHilo.incrementAndGet(hilo);
+                    } catch (ComicYaPrestadoException e) {
+                        rechazados.incrementAndGet();
+                    } catch (ComicNoEncontradoException e) {
+                        throw new IllegalStateException(e);
+                    }
+                }
+            }));
+        }
+        for (Thread trabajador : trabajadores) {
+            trabajador.join();
+        }
+        long duracion = System.nanoTime() - inicio;
+
+        long exitos = 0;
+        for (int h = 0; h < hilos; h++) {
+            exitos += exitosPorHilo.get(h);
+        }
+        System.out.printf("%d hilos, %d intentos en %d ms (%.0f préstamos/s)%n", hilos, (long) hilos * intentos,
+                duracion / 1_000_000, (double) hilos * intentos / (duracion / 1e9));
+        System.out.printf("Préstamos exitosos: %d, rechazados: %d%n", exitos, rechazados.get());
+
+        List<String> errores = verificar(tienda, hilos, exitosPorHilo, exitos, prestadosAntes);
+        for (String error : errores) {
+            System.out.println("ERROR: " + error);
+        }
+        if (errores.isEmpty()) {
+            System.out.println("OK: no hubo préstamos dobles y los índices coinciden con los cómics");
+        }
+
+        Files.delete(comics);
+        Files.delete(usuarios);
+        Files.delete(directorio);
+        if (!errores.isEmpty()) System.exit(1);
+    }
+
+    private static String emailDeHilo(int hilo) {
+        return "cliente" + hilo + "@email.com";
+    }
+
+    /**
+     * Revisa los invariantes de la tienda después de los préstamos y devuelve las violaciones encontradas.
+     */
+    private static List<String> verificar(TiendaDeComics tienda, int hilos, AtomicLongArray exitosPorHilo,
+                                          long exitos, int prestadosAntes) {
+        List<String> errores = new ArrayList<>();
+        List<Comic> catalogo = tienda.getComics();
+
+        // Conteos: prestados y disponibles suman el catálogo, y los nuevos prestados son exactamente los préstamos exitosos
+        int prestados = tienda.cantidadPrestados();
+        int disponibles = tienda.cantidadDisponibles();
+        if (prestados + disponibles != catalogo.size()) {
+            errores.add(String.format("prestados (%d) + disponibles (%d) != cómics (%d)", prestados, disponibles, catalogo.size()));
+        }
+        if (prestados - prestadosAntes != exitos) {
+            errores.add(String.format("%d préstamos exitosos pero %d cómics nuevos prestados", exitos, prestados - prestadosAntes));
+        }
+        if (tienda.comicsPrestados().size() != prestados) {
+            errores.add(String.format("el listado de prestados tiene %d cómics y el conteo %d", tienda.comicsPrestados().size(), prestados));
+        }
+
+        // Cada cómic: prestado si y solo si tiene a quién está asignado, y asignado a lo sumo a un hilo
+        Map<String, Integer> asignadosPorEmail = new HashMap<>();
+        int inconsistentes = 0;
+        for (Comic comic : catalogo) {
+            String asignadoA = comic.getAsignadoA();
+            boolean asignado = asignadoA != null && !asignadoA.isEmpty();
+            if (comic.getEstado() == asignado) {
+                inconsistentes++;
+            }
+            if (asignado) {
+                asignadosPorEmail.merge(asignadoA, 1, Integer::sum);
+            }
+        }
+        if (inconsistentes > 0) {
+            errores.add(inconsistentes + " cómics con estado y asignadoA que no coinciden");
+        }
+
+        // Índice por usuario: cada hilo tiene tantos préstamos como éxitos tuvo, todos asignados a él y sin repetir cómics
+        Set<Comic> vistos = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (int h = 0; h < hilos; h++) {
+            String email = emailDeHilo(h);
+            List<Comic> delUsuario = tienda.comicsPrestadosA(email);
+            if (delUsuario.size() != exitosPorHilo.get(h)) {
+                errores.add(String.format("%s tuvo %d préstamos exitosos pero el índice tiene %d", email, exitosPorHilo.get(h), delUsuario.size()));
+            }
+            if (delUsuario.size() != asignadosPorEmail.getOrDefault(email, 0)) {
+                errores.add(String.format("el índice de %s tiene %d cómics pero %d están asignados a él", email,
+                        delUsuario.size(), asignadosPorEmail.getOrDefault(email, 0)));
+            }
+            for (Comic comic : delUsuario) {
+                if (!vistos.add(comic)) {
+                    errores.add("cómic " + comic.getId() + " prestado a más de un usuario");
+                } else if (comic.getEstado() || !email.equals(comic.getAsignadoA())) {
+                    errores.add("cómic " + comic.getId() + " está en el índice de " + email + " pero asignado a " + comic.getAsignadoA());
+                }
+            }
+        }
+        return errores;
+    }
+}
@@ -0,0 +1,163 @@
+package com.diegocarvajal.comiccollectorsystem.benchmarks;
+
+import com.diegocarvajal.comiccollectorsystem.controllers.ServidorParticion;
+import com.diegocarvajal.comiccollectorsystem.models.Comic;
+import com.diegocarvajal.comiccollectorsystem.models.Particion;
+import com.diegocarvajal.comiccollectorsystem.models.TiendaParticionada;
+import com.diegocarvajal.comiccollectorsystem.models.Usuario;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Stream;
+
+/**
+ * Prueba de la tienda particionada: registra un catálogo sintético repartido en varias particiones
+ * y mide búsquedas por id, búsquedas por título, listados paginados y préstamos a través del enrutador.
+ * Con --procesos cada partición corre en su propio proceso ({@link ServidorParticion}) y se usa por sockets locales.
+ * Uso: PruebaParticiones [cantidadDeComics] [particiones] [--procesos]
+ */
+public class PruebaParticiones {
+    // Cantidad de cómics que se registran por lote
+    private static final int LOTE = 1000;
+    // Cantidad de operaciones medidas de cada tipo
+    private static final int OPERACIONES = 2000;
+
+    public static void main(String[] args) throws Exception {
+        int cantidad = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int cantidadParticiones = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        boolean procesos = List.of(args).contains("--procesos");
+
+        Path directorio = Files.createTempDirectory("particiones");
+        List<Process> servidores = new ArrayList<>();
+        TiendaParticionada tienda;
+        if (procesos) {
+            List<InetSocketAddress> direcciones = new ArrayList<>();
+            for (int k = 0; k < cantidadParticiones; k++) {
+                Process servidor = iniciarServidor(directorio.resolve("particion-" + k));
+                servidores.add(servidor);
+                direcciones.add(new InetSocketAddress("localhost", leerPuerto(servidor)));
+            }
+            tienda = TiendaParticionada.remota(direcciones);
+        } else {
+            tienda = TiendaParticionada.local(directorio.toString(), cantidadParticiones, false);
+        }
+
+        long inicio = System.nanoTime();
+        List<Usuario> usuarios = new ArrayList<>();
+        for (int i = 0; i < DatosSinteticos.USUARIOS; i++) {
+            usuarios.add(new Usuario("", "Nombre" + i, "Apellido" + i, DatosSinteticos.email(i), "900000000"));
+        }
+        tienda.registrarUsuarios(usuarios);
+        for (int desde = 1; desde <= cantidad; desde += LOTE) {
+            List<Comic> lote = new ArrayList<>(LOTE);
+            for (int i = desde; i < Math.min(desde + LOTE, cantidad + 1); i++) {
+                lote.add(new Comic(DatosSinteticos.titulo(i), DatosSinteticos.autor(i), true, ""));
+            }
+            tienda.registrarComics(lote);
+        }
+        System.out.printf("%d cómics en %d particiones (%s): registro en %.0f ms%n", cantidad, cantidadParticiones,
+                procesos ? "procesos" : "mismo proceso", (System.nanoTime() - inicio) / 1e6);
+
+        ThreadLocalRandom azar = ThreadLocalRandom.current();
+        medir("Búsqueda por id", () -> tienda.buscarComicPorId(String.valueOf(1 + azar.nextInt(cantidad))));
+        medir("Búsqueda por título", () -> tienda.buscarComicsPorTituloParcial(DatosSinteticos.titulo(1 + azar.nextInt(cantidad))));
+        medir("Página por autor", () -> tienda.paginaComics("autor", null, 20));
+        medir("Préstamo", () -> {
+            try {
+                tienda.prestarComicPorId(String.valueOf(1 + azar.nextInt(cantidad)), DatosSinteticos.email(azar.nextInt(DatosSinteticos.USUARIOS)));
+            } catch (Exception e) {
+                // Cómic ya prestado: cuenta igual como operación
+            }
+        });
+
+        // Recorre el listado completo por páginas para verificar que la mezcla no pierde ni repite cómics
+        int recorridos = 0;
+        String cursor = null;
+        do {
+            TiendaParticionada.Pagina pagina = tienda.paginaComics("id", cursor, 500);
+            recorridos += pagina.comics().size();
+            cursor = pagina.siguiente();
+        } while (cursor != null);
+        Particion.Resumen resumen = tienda.resumen();
+        System.out.printf("Listado completo: %d cómics (resumen: %d cómics, %d disponibles, %d usuarios)%n",
+                recorridos, resumen.comics(), resumen.disponibles(), resumen.usuarios());
+
+        tienda.cerrar();
+        for (Process servidor : servidores) {
+            servidor.destroy();
+            servidor.waitFor();
+        }
+        borrar(directorio);
+    }
+
+    private static void medir(String nombre, ThrowingRunnable operacion) throws Exception {
+        long[] latencias = new long[OPERACIONES];
+        for (int i = 0; i < OPERACIONES; i++) {
+            long antes = System.nanoTime();
+            operacion.run();
+            latencias[i] = System.nanoTime() - antes;
+        }
+        Arrays.sort(latencias);
+        System.out.printf("%-22s p50: %8.1f µs, p99: %8.1f µs%n", nombre,
+                latencias[OPERACIONES / 2] / 1e3, latencias[OPERACIONES * 99 / 100] / 1e3);
+    }
+
+    private interface ThrowingRunnable {
+        void run() throws Exception;
+    }
+
+    /**
+     * Inicia una partición en otro proceso con la misma JVM y classpath que esta prueba.
+     */
+    private static Process iniciarServidor(Path directorio) throws IOException {
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        return new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                ServidorParticion.class.getName(), directorio.toString(), "0")
+                .redirectError(ProcessBuilder.Redirect.INHERIT)
+                .start();
+    }
+
+    /**
+     * Lee el puerto que anuncia el servidor de la partición al iniciar.
+     */
+    private static int leerPuerto(Process servidor) throws IOException {
+        BufferedReader salida = new BufferedReader(new InputStreamReader(servidor.getInputStream(), StandardCharsets.UTF_8));
+        String linea;
+        while ((linea = salida.readLine()) != null) {
+            // Solo la parte ASCII del mensaje, por si la consola del servidor usa otra codificación
+            if (linea.contains("escuchando en el puerto ")) {
+                int puerto = Integer.parseInt(linea.substring(linea.lastIndexOf(' ') + 1));
+                // El resto de la salida del servidor se descarta para que no se bloquee al escribir
+                Thread.ofVirtual().start(() -> {
+                    try {
+                        while (salida.readLine() != null) {
+                            // Descartar
+                        }
+                    } catch (IOException e) {
+                        // El proceso terminó
+                    }
+                });
+                return puerto;
+            }
+        }
+        throw new IOException("La partición terminó sin anunciar su puerto.");
+    }
+
+    private static void borrar(Path directorio) throws IOException {
+        try (Stream<Path> archivos = Files.walk(directorio)) {
+            for (Path archivo : archivos.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(archivo);
+            }
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.diegocarvajal.comiccollectorsystem.benchmarks.jmh;
+
+import com.diegocarvajal.comiccollectorsystem.benchmarks.DatosSinteticos;
+import com.diegocarvajal.comiccollectorsystem.exceptions.ComicNoEncontradoException;
+import com.diegocarvajal.comiccollectorsystem.exceptions.ComicYaPrestadoException;
+import com.diegocarvajal.comiccollectorsystem.models.Comic;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks de las operaciones frecuentes de la tienda: búsquedas, préstamos, registros y listados.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx16g"})
+public class CatalogoBenchmark {
+    // Posición en las claves precalculadas, propia de cada hilo
+    private int cursor;
+
+    private int siguiente() {
+        return cursor++ & (EstadoCatalogo.CLAVES - 1);
+    }
+
+    @Benchmark
+    public Comic buscarComicPorId(EstadoCatalogo estado) throws ComicNoEncontradoException {
+        return estado.tienda.buscarComicPorId(estado.ids[siguiente()]);
+    }
+
+    @Benchmark
+    public Comic buscarComic(EstadoCatalogo estado) throws ComicNoEncontradoException {
+        return estado.tienda.buscarComic(estado.titulos[siguiente()]);
+    }
+
+    @Benchmark
+    public List<Comic> buscarComicsPorAutor(EstadoCatalogo estado) {
+        return estado.tienda.buscarComicsPorAutor(estado.autores[siguiente()]);
+    }
+
+    /**
+     * Presta un cómic disponible y lo deja disponible de nuevo, para medir siempre el camino exitoso.
+     */
+    @Benchmark
+    public Comic prestarComic(EstadoCatalogo estado) throws ComicNoEncontradoException, ComicYaPrestadoException {
+        Comic comic = estado.disponibles[siguiente()];
+        estado.tienda.prestarComic(comic.getTitulo(), DatosSinteticos.email(0));
+        comic.setEstado(true);
+        comic.setAsignadoA("");
+        return comic;
+    }
+
+    @Benchmark
+    public void registrarComic(EstadoCatalogo estado) {
+        estado.tienda.registrarComic("Nuevo cómic", DatosSinteticos.autor(cursor++), "");
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void mostrarComicsPorTitulo(EstadoCatalogo estado) {
+        estado.tienda.mostrarComics("titulo");
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void mostrarComicsPorAutor(EstadoCatalogo estado) {
+        estado.tienda.mostrarComics("autor");
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void mostrarComicsPorId(EstadoCatalogo estado) {
+        estado.tienda.mostrarComics("id");
+    }
+}
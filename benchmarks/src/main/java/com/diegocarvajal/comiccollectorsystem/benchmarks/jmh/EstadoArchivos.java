@@ -0,0 +1,55 @@
+package com.diegocarvajal.comiccollectorsystem.benchmarks.jmh;
+
+import com.diegocarvajal.comiccollectorsystem.benchmarks.DatosSinteticos;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Archivos CSV sintéticos de cómics y usuarios, generados una vez por tamaño en un directorio temporal.
+ */
+@State(Scope.Benchmark)
+public class EstadoArchivos {
+
+    @Param({"1000", "100000", "1000000", "10000000"})
+    public int cantidad;
+
+    public Path directorio;
+    public Path rutaComics;
+    public Path rutaUsuarios;
+
+    private PrintStream salidaOriginal;
+
+    @Setup(Level.Trial)
+    public void generarArchivos() throws IOException {
+        // Los servicios y la tienda informan cada operación por consola; se silencian para no medir la escritura
+        salidaOriginal = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+
+        directorio = Files.createTempDirectory("jmh-comics");
+        rutaComics = directorio.resolve("comics.csv");
+        rutaUsuarios = directorio.resolve("usuarios.csv");
+        DatosSinteticos.generarComics(rutaComics, cantidad);
+        DatosSinteticos.generarUsuarios(rutaUsuarios, cantidad / 10);
+    }
+
+    @TearDown(Level.Trial)
+    public void borrarArchivos() throws IOException {
+        System.setOut(salidaOriginal);
+        try (var archivos = Files.list(directorio)) {
+            for (Path archivo : (Iterable<Path>) archivos::iterator) {
+                Files.delete(archivo);
+            }
+        }
+        Files.delete(directorio);
+    }
+}
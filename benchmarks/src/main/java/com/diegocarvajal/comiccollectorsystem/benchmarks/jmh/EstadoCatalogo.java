@@ -0,0 +1,45 @@
+package com.diegocarvajal.comiccollectorsystem.benchmarks.jmh;
+
+import com.diegocarvajal.comiccollectorsystem.benchmarks.DatosSinteticos;
+import com.diegocarvajal.comiccollectorsystem.models.Comic;
+import com.diegocarvajal.comiccollectorsystem.models.TiendaDeComics;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Tienda cargada desde los CSV sintéticos, con claves de búsqueda aleatorias precalculadas para no medir su construcción.
+ */
+@State(Scope.Benchmark)
+public class EstadoCatalogo extends EstadoArchivos {
+    // Cantidad de claves precalculadas; potencia de 2 para recorrerlas con una máscara
+    static final int CLAVES = 4096;
+
+    public TiendaDeComics tienda;
+    public String[] ids = new String[CLAVES];
+    public String[] titulos = new String[CLAVES];
+    public String[] autores = new String[CLAVES];
+    public Comic[] disponibles = new Comic[CLAVES];
+
+    @Setup(Level.Trial)
+    public void cargarTienda() {
+        tienda = TiendaDeComics.desdeCSV(rutaComics.toString(), rutaUsuarios.toString(), false);
+        Random azar = new Random(42);
+        List<Comic> catalogo = tienda.getComics();
+        for (int i = 0; i < CLAVES; i++) {
+            int numero = 1 + azar.nextInt(cantidad);
+            ids[i] = String.valueOf(numero);
+            titulos[i] = DatosSinteticos.titulo(numero);
+            autores[i] = DatosSinteticos.autor(numero);
+            Comic comic;
+            do {
+                comic = catalogo.get(azar.nextInt(catalogo.size()));
+            } while (!comic.getEstado());
+            disponibles[i] = comic;
+        }
+    }
+}
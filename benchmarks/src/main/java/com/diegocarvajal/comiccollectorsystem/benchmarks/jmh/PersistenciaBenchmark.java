@@ -0,0 +1,78 @@
+package com.diegocarvajal.comiccollectorsystem.benchmarks.jmh;
+
+import com.diegocarvajal.comiccollectorsystem.services.ComicsServicio;
+import com.diegocarvajal.comiccollectorsystem.services.UsuariosServicio;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks de lectura y escritura de los CSV de cómics y usuarios a través de los servicios.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx16g"})
+public class PersistenciaBenchmark {
+    private final ComicsServicio comicsServicio = new ComicsServicio();
+    private final UsuariosServicio usuariosServicio = new UsuariosServicio();
+    private List<String[]> filasComics;
+    private List<String[]> filasUsuarios;
+
+    /**
+     * Prepara en memoria las filas que se escriben, leyéndolas una vez desde los CSV sintéticos.
+     */
+    @Setup(Level.Trial)
+    public void preparar(EstadoArchivos estado) {
+        filasComics = new ArrayList<>();
+        comicsServicio.leerComicCSV(estado.rutaComics.toString(), (campos, cantidad) -> filasComics.add(copiar(campos, cantidad, 5)));
+        filasUsuarios = new ArrayList<>();
+        usuariosServicio.leerUsuariosCSV(estado.rutaUsuarios.toString(), (campos, cantidad) -> filasUsuarios.add(copiar(campos, cantidad, 5)));
+    }
+
+    private static String[] copiar(String[] campos, int cantidad, int columnas) {
+        String[] fila = new String[columnas];
+        for (int i = 0; i < columnas; i++) {
+            fila[i] = i < cantidad ? campos[i] : "";
+        }
+        return fila;
+    }
+
+    @Benchmark
+    public long leerComicsCSV(EstadoArchivos estado) {
+        long[] filas = {0};
+        comicsServicio.leerComicCSV(estado.rutaComics.toString(), (campos, cantidad) -> filas[0]++);
+        return filas[0];
+    }
+
+    @Benchmark
+    public void escribirComicsCSV(EstadoArchivos estado) {
+        comicsServicio.escribirComicsCSV(estado.directorio.resolve("comics-salida.csv").toString(), filasComics);
+    }
+
+    @Benchmark
+    public long leerUsuariosCSV(EstadoArchivos estado) {
+        long[] filas = {0};
+        usuariosServicio.leerUsuariosCSV(estado.rutaUsuarios.toString(), (campos, cantidad) -> filas[0]++);
+        return filas[0];
+    }
+
+    @Benchmark
+    public void escribirUsuariosCSV(EstadoArchivos estado) {
+        usuariosServicio.escribirUsuariosCSV(estado.directorio.resolve("usuarios-salida.csv").toString(), filasUsuarios);
+    }
+}
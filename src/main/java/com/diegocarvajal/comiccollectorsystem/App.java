@@ -1,7 +1,9 @@
 package com.diegocarvajal.comiccollectorsystem;
 
 import com.diegocarvajal.comiccollectorsystem.controllers.MenuController;
+import com.diegocarvajal.comiccollectorsystem.controllers.ServidorApi;
 import com.diegocarvajal.comiccollectorsystem.models.TiendaDeComics;
+import java.io.IOException;
 import java.util.Scanner;
 
 /**
@@ -10,16 +12,76 @@ import java.util.Scanner;
  */
 public class App {
 
+    // Puerto de la API HTTP cuando se usa --api sin indicar uno
+    private static final int PUERTO_API = 8080;
+
     public static void main(String[] args) {
-        // Crea la tienda de cómics (modelo principal de datos)
-        TiendaDeComics tiendaDeComics = new TiendaDeComics();
+        // Crea la tienda de cómics (modelo principal de datos) desde la instantánea binaria, o desde los CSV si no existe;
+        // con --carga-paralela el CSV se lee en paralelo, y con --almacen=compacto o --almacen=mapeado los datos de los cómics
+        // se guardan por columnas en el heap o fuera de él
+        boolean cargaParalela = java.util.Arrays.asList(args).contains("--carga-paralela");
+        TiendaDeComics tiendaDeComics = TiendaDeComics.desdeInstantanea(TiendaDeComics.DIRECTORIO_DATOS + "tienda.bin",
+                TiendaDeComics.DIRECTORIO_DATOS + "comics.csv", TiendaDeComics.DIRECTORIO_DATOS + "usuarios.csv",
+                cargaParalela, almacenamiento(args));
+        // Activa el diario de modificaciones, compactándolo en los CSV cada 5 minutos
+        tiendaDeComics.activarDiario(TiendaDeComics.DIRECTORIO_DATOS + "diario.log", 5);
+        // Escribe las métricas de la tienda en un archivo cada minuto
+        tiendaDeComics.activarVolcadoMetricas(TiendaDeComics.DIRECTORIO_DATOS + "metricas.txt", 60);
+        // Con --api (o --api=PUERTO) la misma tienda se atiende también por HTTP para otras terminales
+        ServidorApi servidorApi = iniciarApi(args, tiendaDeComics);
         // Crea el scanner para leer datos del usuario por consola
         Scanner scanner = new Scanner(System.in);
         // Crea el controlador del menú y le pasa la tienda y el scanner
         MenuController menuController = new MenuController(tiendaDeComics, scanner);
         // Inicia el menú principal de la aplicación
         menuController.mostrarMenuPrincipal();
+        // Detiene la API antes de guardar, para que ninguna modificación quede fuera de los CSV
+        if (servidorApi != null) {
+            servidorApi.detener();
+        }
+        // Guarda los datos (compactando el diario); es el único guardado que se informa por consola
+        if (tiendaDeComics.cerrar()) {
+            System.out.println("Datos guardados.");
+        } else {
+            System.out.println("No se pudieron guardar todos los datos; los cambios quedan en el diario y se aplicarán al volver a iniciar.");
+        }
         // Cierra el scanner al terminar
         scanner.close();
     }
+
+    /**
+     * Almacenamiento de los cómics pedido con --almacen=NOMBRE (por ejemplo --almacen=compacto); objetos si no se indica.
+     */
+    private static TiendaDeComics.Almacenamiento almacenamiento(String[] args) {
+        for (String arg : args) {
+            if (arg.startsWith("--almacen=")) {
+                String nombre = arg.substring("--almacen=".length());
+                try {
+                    return TiendaDeComics.Almacenamiento.valueOf(nombre.toUpperCase());
+                } catch (IllegalArgumentException e) {
+                    System.err.println("Almacenamiento desconocido, se usarán objetos: " + nombre);
+                }
+            }
+        }
+        return TiendaDeComics.Almacenamiento.OBJETOS;
+    }
+
+    /**
+     * Inicia la API HTTP si se pidió con --api o --api=PUERTO. Devuelve null si no se pidió o no se pudo iniciar.
+     */
+    private static ServidorApi iniciarApi(String[] args, TiendaDeComics tiendaDeComics) {
+        for (String arg : args) {
+            if (arg.equals("--api") || arg.startsWith("--api=")) {
+                try {
+                    int puerto = arg.equals("--api") ? PUERTO_API : Integer.parseInt(arg.substring("--api=".length()));
+                    ServidorApi servidor = new ServidorApi(tiendaDeComics, puerto);
+                    servidor.iniciar();
+                    return servidor;
+                } catch (IOException | NumberFormatException e) {
+                    System.err.println("No se pudo iniciar la API HTTP: " + e.getMessage());
+                }
+            }
+        }
+        return null;
+    }
 }
@@ -4,8 +4,11 @@ import com.diegocarvajal.comiccollectorsystem.models.TiendaDeComics;
 import com.diegocarvajal.comiccollectorsystem.models.Comic;
 import com.diegocarvajal.comiccollectorsystem.models.Usuario;
 import com.diegocarvajal.comiccollectorsystem.exceptions.ComicNoEncontradoException;
+import com.diegocarvajal.comiccollectorsystem.exceptions.ComicNoPrestadoException;
 import com.diegocarvajal.comiccollectorsystem.exceptions.ComicYaPrestadoException;
+import com.diegocarvajal.comiccollectorsystem.utils.ImpresorMasivo;
 import com.diegocarvajal.comiccollectorsystem.utils.InputUtils;
+import com.diegocarvajal.comiccollectorsystem.utils.VistaOrdenada;
 import java.util.*;
 
 /**
@@ -14,9 +17,13 @@ import java.util.*;
  * como mostrar, buscar, prestar y registrar cómics y usuarios.
  */
 public class MenuController {
+    // Cantidad de cómics que se muestran por página
+    private static final int TAMANO_PAGINA = 20;
+    // Cantidad de sugerencias que se ofrecen cuando no se encuentra un título
+    private static final int SUGERENCIAS = 5;
+
     private final TiendaDeComics tiendaDeComics;
     private final Scanner scanner;
-    private final String DATA_DIR = "src/main/java/com/diegocarvajal/comiccollectorsystem/data/";
 
     public MenuController(TiendaDeComics tiendaDeComics, Scanner scanner) {
         this.tiendaDeComics = tiendaDeComics;
@@ -33,8 +40,11 @@ public class MenuController {
             System.out.println("3. Buscar comic");
             System.out.println("4. Prestar comic");
             System.out.println("5. Registrar usuario");
+            System.out.println("6. Ver comics prestados a un usuario");
             System.out.println("7. Registrar comic");
-            System.out.println("8. Guardar y salir");
+            System.out.println("8. Devolver comic");
+            System.out.println("9. Ver estadísticas");
+            System.out.println("10. Guardar y salir");
             System.out.print("Seleccione una opción: ");
             try {
                 int opcion = scanner.nextInt();
@@ -45,12 +55,13 @@ public class MenuController {
                     case 3 -> buscarComic(); // Permite buscar cómics por id, título o autor
                     case 4 -> prestarComic(); // Permite prestar un cómic a un usuario
                     case 5 -> registrarUsuario(); // Permite registrar un nuevo usuario
+                    case 6 -> mostrarPrestamosDeUsuario(); // Muestra los cómics que tiene un usuario
                     case 7 -> registrarComic(); // Permite registrar un nuevo cómic
-                    case 8 -> {
-                        // Guarda los datos y sale del programa
-                        tiendaDeComics.guardarComicsEnCSV(DATA_DIR+"comics.csv");
-                        tiendaDeComics.guardarUsuariosEnCSV(DATA_DIR+"usuarios.csv");
-                        System.out.println("Datos guardados. Saliendo...");
+                    case 8 -> devolverComic(); // Permite devolver un cómic prestado
+                    case 9 -> System.out.print(tiendaDeComics.getMetricas().resumen()); // Muestra latencias e indicadores
+                    case 10 -> {
+                        // Sale del menú; quien lo inició guarda los datos (compactando el diario)
+                        System.out.println("Saliendo...");
                         salir = true;
                     }
                     default -> System.out.println("Opción no válida.");
@@ -63,7 +74,7 @@ public class MenuController {
     }
 
     /**
-     * Muestra los cómics ordenados según el criterio elegido por el usuario.
+     * Muestra los cómics ordenados según el criterio elegido por el usuario, de a una página por vez.
      */
     public void mostrarComics() {
         int orden = InputUtils.pedirOpcionOrdenamiento(scanner);
@@ -72,7 +83,21 @@ public class MenuController {
             case 3 -> "id";
             default -> "titulo";
         };
-        tiendaDeComics.mostrarComics(criterio);
+        System.out.println("Disponibles: " + tiendaDeComics.cantidadDisponibles() + ", prestados: " + tiendaDeComics.cantidadPrestados());
+        VistaOrdenada.Cursor cursor = null;
+        do {
+            VistaOrdenada.Pagina<Comic> pagina = tiendaDeComics.paginaComics(criterio, cursor, TAMANO_PAGINA);
+            ImpresorMasivo.imprimir(pagina.elementos());
+            cursor = pagina.siguiente();
+        } while (cursor != null && pedirSiguientePagina());
+    }
+
+    /**
+     * Pregunta si se quiere ver la siguiente página. Enter continúa; cualquier otra respuesta termina.
+     */
+    private boolean pedirSiguientePagina() {
+        System.out.print("-- Enter para ver más, 'q' para terminar: ");
+        return scanner.nextLine().trim().isEmpty();
     }
 
     /**
@@ -86,7 +111,7 @@ public class MenuController {
             case 3 -> buscarPorAutor();
             default -> new ArrayList<>();
         };
-        mostrarResultadosBusqueda(resultados, opcion);
+        mostrarResultadosBusqueda(resultados);
     }
 
     /**
@@ -126,15 +151,17 @@ public class MenuController {
     }
 
     /**
-     * Busca cómics por coincidencia parcial en el título.
+     * Busca cómics por coincidencia parcial en el título; si no hay ninguna, muestra los de título o autor parecido.
      */
     private List<Comic> buscarPorTitulo() {
         System.out.print("Ingrese el título del comic: ");
         String titulo = scanner.nextLine();
-        List<Comic> resultados = new ArrayList<>();
-        for (Comic c : tiendaDeComics.getComics()) {
-            if (c.getTitulo().toLowerCase().contains(titulo.toLowerCase())) {
-                resultados.add(c);
+        List<Comic> resultados = tiendaDeComics.buscarComicsPorTituloParcial(titulo);
+        if (resultados.isEmpty()) {
+            List<Comic> sugerencias = tiendaDeComics.sugerirComics(titulo, SUGERENCIAS);
+            if (!sugerencias.isEmpty()) {
+                System.out.println("Ningún título contiene \"" + titulo + "\". Se muestran los más parecidos.");
+                return sugerencias;
             }
         }
         return resultados;
@@ -146,30 +173,19 @@ public class MenuController {
     private List<Comic> buscarPorAutor() {
         System.out.print("Ingrese el autor del comic: ");
         String autor = scanner.nextLine();
-        List<Comic> resultados = new ArrayList<>();
-        for (Comic c : tiendaDeComics.getComics()) {
-            if (c.getAutor().toLowerCase().contains(autor.toLowerCase())) {
-                resultados.add(c);
-            }
-        }
-        return resultados;
+        return tiendaDeComics.buscarComicsPorAutorParcial(autor);
     }
 
     /**
-     * Muestra los resultados de la búsqueda de cómics, ordenados según el criterio.
+     * Muestra los resultados de la búsqueda de cómics.
+     * Las búsquedas por título y autor ya vienen ordenadas por relevancia desde la tienda.
      */
-    private void mostrarResultadosBusqueda(List<Comic> resultados, int criterio) {
+    private void mostrarResultadosBusqueda(List<Comic> resultados) {
         if (resultados.isEmpty()) {
             System.out.println("No se encontraron cómics con el criterio ingresado.");
         } else {
             System.out.println("Cómics encontrados:");
-            Comparator<Comic> comparador = switch (criterio) {
-                case 1 -> Comparator.comparingInt(c -> Integer.parseInt(c.getId()));
-                case 2 -> Comparator.comparing(Comic::getTitulo);
-                case 3 -> Comparator.comparing(Comic::getAutor).thenComparing(Comic::getTitulo);
-                default -> Comparator.comparing(Comic::getTitulo);
-            };
-            resultados.stream().sorted(comparador).forEach(System.out::println);
+            resultados.forEach(System.out::println);
         }
     }
 
@@ -193,7 +209,8 @@ public class MenuController {
             return;
         }
         try {
-            tiendaDeComics.prestarComic(comic.getTitulo(), emailUsuario);
+            tiendaDeComics.prestarComicPorId(comic.getId(), emailUsuario);
+            System.out.println("Comic prestado con éxito: " + comic.getTitulo() + " a " + emailUsuario);
         } catch (ComicNoEncontradoException | ComicYaPrestadoException e) {
             System.out.println(e.getMessage());
         }
@@ -220,6 +237,9 @@ public class MenuController {
 
     /**
      * Permite seleccionar un cómic para prestar, buscando por id o título.
+     * Al buscar por título se elige una copia disponible si la hay. Si el título no existe, se listan los cómics
+     * disponibles cuyo título contiene el texto ingresado para que el usuario elija uno; si ninguno lo contiene,
+     * se ofrecen los cómics con título o autor parecido.
      */
     private Comic seleccionarComicParaPrestar() {
         System.out.println("¿Cómo desea buscar el cómic a prestar?");
@@ -243,7 +263,18 @@ public class MenuController {
             } else if (criterio == 2) {
                 System.out.print("Ingrese el título del comic a prestar: ");
                 String titulo = scanner.nextLine();
-                return tiendaDeComics.buscarComic(titulo);
+                try {
+                    Comic disponible = tiendaDeComics.siguienteCopiaDisponible(titulo);
+                    return disponible != null ? disponible : tiendaDeComics.buscarComic(titulo);
+                } catch (ComicNoEncontradoException e) {
+                    // Sin título exacto: el usuario elige entre los disponibles que contienen el texto
+                    List<Comic> parciales = disponiblesConTitulo(titulo);
+                    if (!parciales.isEmpty()) {
+                        return elegirComic("No hay un cómic titulado \"" + titulo + "\". Cómics disponibles que lo contienen:", parciales);
+                    }
+                    // Tampoco lo contiene ninguno: puede ser un error de tipeo
+                    return elegirSugerencia(titulo);
+                }
             } else {
                 System.out.println("Opción no válida.");
                 return null;
@@ -254,6 +285,76 @@ public class MenuController {
         }
     }
 
+    /**
+     * Devuelve hasta {@link #SUGERENCIAS} cómics disponibles cuyo título contiene el texto, por relevancia.
+     */
+    private List<Comic> disponiblesConTitulo(String texto) {
+        List<Comic> disponibles = new ArrayList<>();
+        for (Comic comic : tiendaDeComics.buscarComicsPorTituloParcial(texto)) {
+            if (comic.getEstado()) {
+                disponibles.add(comic);
+                if (disponibles.size() == SUGERENCIAS) {
+                    break;
+                }
+            }
+        }
+        return disponibles;
+    }
+
+    /**
+     * Muestra los cómics cuyo título o autor se parece al texto ingresado y permite elegir uno.
+     * Devuelve null si no hay sugerencias o si el usuario no elige ninguna.
+     */
+    private Comic elegirSugerencia(String texto) {
+        List<Comic> sugerencias = tiendaDeComics.sugerirComics(texto, SUGERENCIAS);
+        if (sugerencias.isEmpty()) {
+            System.out.println("Comic no encontrado: " + texto);
+            return null;
+        }
+        return elegirComic("No se encontró \"" + texto + "\". ¿Quiso decir?", sugerencias);
+    }
+
+    /**
+     * Muestra las opciones numeradas y devuelve la que elija el usuario, o null si elige "Ninguno".
+     */
+    private Comic elegirComic(String encabezado, List<Comic> opciones) {
+        System.out.println(encabezado);
+        for (int i = 0; i < opciones.size(); i++) {
+            System.out.println((i + 1) + ". " + opciones.get(i));
+        }
+        System.out.println("0. Ninguno");
+        System.out.print("Seleccione una opción: ");
+        try {
+            int opcion = scanner.nextInt();
+            scanner.nextLine();
+            if (opcion >= 1 && opcion <= opciones.size()) {
+                return opciones.get(opcion - 1);
+            }
+            if (opcion != 0) {
+                System.out.println("Opción no válida.");
+            }
+        } catch (InputMismatchException e) {
+            System.out.println("Error: Debe ingresar un número.");
+            scanner.nextLine();
+        }
+        return null;
+    }
+
+    /**
+     * Permite devolver un cómic prestado indicando su id.
+     */
+    public void devolverComic() {
+        System.out.print("Ingrese el ID del comic a devolver: ");
+        String id = scanner.nextLine().trim();
+        try {
+            Comic comic = tiendaDeComics.buscarComicPorId(id);
+            tiendaDeComics.devolverComic(id);
+            System.out.println("Comic devuelto con éxito: " + comic.getTitulo());
+        } catch (ComicNoEncontradoException | ComicNoPrestadoException e) {
+            System.out.println(e.getMessage());
+        }
+    }
+
     /**
      * Solicita el email del usuario que retira el cómic.
      */
@@ -262,6 +363,25 @@ public class MenuController {
         return scanner.nextLine();
     }
 
+    /**
+     * Muestra los cómics que tiene prestados actualmente un usuario registrado.
+     */
+    public void mostrarPrestamosDeUsuario() {
+        System.out.print("Ingrese el email del usuario: ");
+        String email = scanner.nextLine().trim();
+        if (tiendaDeComics.getUsuarioPorEmail(email) == null) {
+            System.out.println("Error: El email ingresado no corresponde a un usuario registrado.");
+            return;
+        }
+        List<Comic> prestados = tiendaDeComics.comicsPrestadosA(email);
+        if (prestados.isEmpty()) {
+            System.out.println("El usuario no tiene cómics prestados.");
+        } else {
+            System.out.println("Cómics prestados a " + email + ":");
+            prestados.forEach(System.out::println);
+        }
+    }
+
     /**
      * Permite registrar un nuevo usuario validando los datos ingresados.
      */
@@ -271,8 +391,12 @@ public class MenuController {
         String email = InputUtils.pedirEmail(scanner);
         String telefono = InputUtils.pedirTelefono(scanner);
         Usuario usuario = new Usuario("", nombre, apellido, email, telefono);
-        tiendaDeComics.registrarUsuario(usuario);
-        System.out.println("Usuario registrado correctamente.");
+        try {
+            tiendaDeComics.registrarUsuario(usuario);
+            System.out.println("Usuario registrado correctamente.");
+        } catch (IllegalArgumentException e) {
+            System.out.println("Error: " + e.getMessage());
+        }
     }
 
     /**
@@ -287,7 +411,11 @@ public class MenuController {
             System.out.println("Error: El email ingresado no corresponde a un usuario registrado. El comic se registrará como disponible.");
             asignadoA = "";
         }
-        tiendaDeComics.registrarComic(tituloComic, autorComic, asignadoA);
-        System.out.println("Comic registrado correctamente.");
+        try {
+            tiendaDeComics.registrarComic(tituloComic, autorComic, asignadoA);
+            System.out.println("Comic registrado correctamente.");
+        } catch (IllegalArgumentException e) {
+            System.out.println("Error: " + e.getMessage());
+        }
     }
 }
@@ -0,0 +1,307 @@
+package com.diegocarvajal.comiccollectorsystem.controllers;
+
+import com.diegocarvajal.comiccollectorsystem.exceptions.ComicNoEncontradoException;
+import com.diegocarvajal.comiccollectorsystem.exceptions.ComicNoPrestadoException;
+import com.diegocarvajal.comiccollectorsystem.models.Comic;
+import com.diegocarvajal.comiccollectorsystem.models.ResultadoOperacion;
+import com.diegocarvajal.comiccollectorsystem.models.SolicitudPrestamo;
+import com.diegocarvajal.comiccollectorsystem.models.TiendaDeComics;
+import com.diegocarvajal.comiccollectorsystem.models.Usuario;
+import com.diegocarvajal.comiccollectorsystem.utils.Json;
+import com.diegocarvajal.comiccollectorsystem.utils.Validaciones;
+import com.diegocarvajal.comiccollectorsystem.utils.VistaOrdenada;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Servidor HTTP/JSON embebido sobre la tienda, para que varias terminales compartan el mismo catálogo en memoria.
+ * Usa el servidor HTTP del JDK y atiende cada solicitud en su propio hilo virtual.
+ * Rutas:
+ * GET /comics?orden=titulo|autor|id&tamano=20&cursor=... lista paginada (el cursor viene en "siguiente"),
+ * GET /comics/buscar?id=...|titulo=...|autor=... búsqueda,
+ * GET /prestamos?email=... cómics prestados a un usuario,
+ * POST /comics {"titulo","autor","asignadoA"}, POST /usuarios {"nombre","apellido","email","telefono"},
+ * POST /prestamos {"idComic","email"} y POST /devoluciones {"idComic"}.
+ * Los errores se responden como {"error": "..."} con el código HTTP correspondiente.
+ */
+public class ServidorApi {
+    // Tamaño máximo de página que se puede pedir en los listados
+    private static final int TAMANO_MAXIMO_PAGINA = 100;
+
+    private final TiendaDeComics tiendaDeComics;
+    private final HttpServer servidor;
+    private final ExecutorService hilos;
+
+    /**
+     * Crea el servidor en el puerto indicado (0 para elegir uno libre). No empieza a atender hasta llamar a iniciar().
+     */
+    public ServidorApi(TiendaDeComics tiendaDeComics, int puerto) throws IOException {
+        this.tiendaDeComics = tiendaDeComics;
+        this.servidor = HttpServer.create(new InetSocketAddress(puerto), 0);
+        this.hilos = Executors.newVirtualThreadPerTaskExecutor();
+        servidor.setExecutor(hilos);
+        servidor.createContext("/", this::atender);
+    }
+
+    public void iniciar() {
+        servidor.start();
+        System.out.println("API HTTP escuchando en el puerto " + getPuerto());
+    }
+
+    /**
+     * Deja de aceptar conexiones y espera hasta un segundo a que terminen las solicitudes en curso.
+     */
+    public void detener() {
+        servidor.stop(1);
+        hilos.close();
+    }
+
+    public int getPuerto() {
+        return servidor.getAddress().getPort();
+    }
+
+    /**
+     * Atiende una solicitud según su método y ruta.
+     */
+    private void atender(HttpExchange intercambio) throws IOException {
+        try (intercambio) {
+            String metodo = intercambio.getRequestMethod();
+            String ruta = intercambio.getRequestURI().getPath();
+            Map<String, String> parametros = leerParametros(intercambio.getRequestURI().getRawQuery());
+            try {
+                switch (metodo + " " + ruta) {
+                    case "GET /comics" -> listarComics(intercambio, parametros);
+                    case "GET /comics/buscar" -> buscarComics(intercambio, parametros);
+                    case "GET /prestamos" -> listarPrestamos(intercambio, parametros);
+                    case "POST /comics" -> registrarComic(intercambio, leerCuerpo(intercambio));
+                    case "POST /usuarios" -> registrarUsuario(intercambio, leerCuerpo(intercambio));
+                    case "POST /prestamos" -> prestarComic(intercambio, leerCuerpo(intercambio));
+                    case "POST /devoluciones" -> devolverComic(intercambio, leerCuerpo(intercambio));
+                    default -> responderError(intercambio, 404, "Ruta no encontrada: " + metodo + " " + ruta);
+                }
+            } catch (IllegalArgumentException e) {
+                responderError(intercambio, 400, e.getMessage());
+            } catch (RuntimeException e) {
+                System.err.println("Error al atender " + metodo + " " + ruta + ": " + e);
+                responderError(intercambio, 500, "Error interno del servidor.");
+            }
+        }
+    }
+
+    private void listarComics(HttpExchange intercambio, Map<String, String> parametros) throws IOException {
+        String criterio = parametros.getOrDefault("orden", "titulo");
+        int tamano = Math.min(TAMANO_MAXIMO_PAGINA, enteroPositivo(parametros.getOrDefault("tamano", "20"), "tamano"));
+        String cursorTexto = parametros.get("cursor");
+        VistaOrdenada.Cursor cursor = cursorTexto == null ? null : tiendaDeComics.cursorComicsDesdeTexto(criterio, cursorTexto);
+        VistaOrdenada.Pagina<Comic> pagina = tiendaDeComics.paginaComics(criterio, cursor, tamano);
+        StringBuilder json = new StringBuilder(128 * pagina.elementos().size() + 64);
+        json.append("{\"comics\":");
+        comicsJson(json, pagina.elementos());
+        json.append(",\"siguiente\":");
+        Json.texto(json, pagina.hayMas() ? tiendaDeComics.cursorComicsComoTexto(criterio, pagina.siguiente()) : null);
+        responder(intercambio, 200, json.append('}'));
+    }
+
+    private void buscarComics(HttpExchange intercambio, Map<String, String> parametros) throws IOException {
+        List<Comic> resultados;
+        if (parametros.containsKey("id")) {
+            resultados = new ArrayList<>();
+            try {
+                resultados.add(tiendaDeComics.buscarComicPorId(parametros.get("id")));
+            } catch (ComicNoEncontradoException e) {
+                // No encontrado, lista vacía
+            }
+        } else if (parametros.containsKey("titulo")) {
+            resultados = tiendaDeComics.buscarComicsPorTituloParcial(parametros.get("titulo"));
+        } else if (parametros.containsKey("autor")) {
+            resultados = tiendaDeComics.buscarComicsPorAutorParcial(parametros.get("autor"));
+        } else {
+            throw new IllegalArgumentException("Indique id, titulo o autor para buscar.");
+        }
+        StringBuilder json = new StringBuilder(128 * resultados.size() + 16).append("{\"comics\":");
+        comicsJson(json, resultados);
+        responder(intercambio, 200, json.append('}'));
+    }
+
+    private void listarPrestamos(HttpExchange intercambio, Map<String, String> parametros) throws IOException {
+        String email = requerido(parametros, "email");
+        if (tiendaDeComics.getUsuarioPorEmail(email) == null) {
+            responderError(intercambio, 404, "El email no corresponde a un usuario registrado: " + email);
+            return;
+        }
+        List<Comic> prestados = tiendaDeComics.comicsPrestadosA(email);
+        StringBuilder json = new StringBuilder(128 * prestados.size() + 16).append("{\"comics\":");
+        comicsJson(json, prestados);
+        responder(intercambio, 200, json.append('}'));
+    }
+
+    private void registrarComic(HttpExchange intercambio, Map<String, String> cuerpo) throws IOException {
+        String titulo = campoValido(cuerpo, "titulo");
+        String autor = campoValido(cuerpo, "autor");
+        String asignadoA = cuerpo.getOrDefault("asignadoA", "");
+        if (asignadoA == null) asignadoA = "";
+        String error = Validaciones.errorComic(titulo, autor, asignadoA);
+        if (error != null) {
+            throw new IllegalArgumentException(error);
+        }
+        if (!asignadoA.isEmpty() && tiendaDeComics.getUsuarioPorEmail(asignadoA) == null) {
+            responderError(intercambio, 404, "El email no corresponde a un usuario registrado: " + asignadoA);
+            return;
+        }
+        ResultadoOperacion resultado = tiendaDeComics.registrarComics(List.of(new Comic(titulo, autor, asignadoA.isEmpty(), asignadoA))).get(0);
+        responderResultado(intercambio, resultado, 201, 400, "id");
+    }
+
+    private void registrarUsuario(HttpExchange intercambio, Map<String, String> cuerpo) throws IOException {
+        Usuario usuario = new Usuario("", requerido(cuerpo, "nombre"), requerido(cuerpo, "apellido"),
+                requerido(cuerpo, "email"), requerido(cuerpo, "telefono"));
+        String error = Validaciones.errorUsuario(usuario.getNombre(), usuario.getApellido(), usuario.getEmail(), usuario.getTelefono());
+        if (error != null) {
+            throw new IllegalArgumentException(error);
+        }
+        ResultadoOperacion resultado = tiendaDeComics.registrarUsuarios(List.of(usuario)).get(0);
+        responderResultado(intercambio, resultado, 201, 409, "email");
+    }
+
+    private void prestarComic(HttpExchange intercambio, Map<String, String> cuerpo) throws IOException {
+        String idComic = requerido(cuerpo, "idComic");
+        String email = requerido(cuerpo, "email");
+        try {
+            tiendaDeComics.buscarComicPorId(idComic);
+        } catch (ComicNoEncontradoException e) {
+            responderError(intercambio, 404, e.getMessage());
+            return;
+        }
+        if (tiendaDeComics.getUsuarioPorEmail(email) == null) {
+            responderError(intercambio, 404, "El email no corresponde a un usuario registrado: " + email);
+            return;
+        }
+        ResultadoOperacion resultado = tiendaDeComics.prestarComics(List.of(new SolicitudPrestamo(idComic, email))).get(0);
+        responderResultado(intercambio, resultado, 200, 409, "idComic");
+    }
+
+    private void devolverComic(HttpExchange intercambio, Map<String, String> cuerpo) throws IOException {
+        String idComic = requerido(cuerpo, "idComic");
+        try {
+            tiendaDeComics.devolverComic(idComic);
+        } catch (ComicNoEncontradoException e) {
+            responderError(intercambio, 404, e.getMessage());
+            return;
+        } catch (ComicNoPrestadoException e) {
+            responderError(intercambio, 409, e.getMessage());
+            return;
+        }
+        StringBuilder json = new StringBuilder("{\"idComic\":");
+        Json.texto(json, idComic).append(",\"mensaje\":");
+        Json.texto(json, "Comic devuelto.");
+        responder(intercambio, 200, json.append('}'));
+    }
+
+    // Lectura de la solicitud
+
+    private static Map<String, String> leerParametros(String consulta) {
+        Map<String, String> parametros = new HashMap<>();
+        if (consulta == null || consulta.isEmpty()) {
+            return parametros;
+        }
+        for (String par : consulta.split("&")) {
+            int igual = par.indexOf('=');
+            String clave = igual < 0 ? par : par.substring(0, igual);
+            String valor = igual < 0 ? "" : par.substring(igual + 1);
+            parametros.put(URLDecoder.decode(clave, StandardCharsets.UTF_8), URLDecoder.decode(valor, StandardCharsets.UTF_8));
+        }
+        return parametros;
+    }
+
+    private static Map<String, String> leerCuerpo(HttpExchange intercambio) throws IOException {
+        try (InputStream entrada = intercambio.getRequestBody()) {
+            return Json.leerObjeto(new String(entrada.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    private static String requerido(Map<String, String> datos, String campo) {
+        String valor = datos.get(campo);
+        if (valor == null || valor.isBlank()) {
+            throw new IllegalArgumentException("Falta el campo " + campo + ".");
+        }
+        return valor.trim();
+    }
+
+    /**
+     * Campo obligatorio que además no puede contener '|', el separador de los CSV.
+     */
+    private static String campoValido(Map<String, String> datos, String campo) {
+        String valor = requerido(datos, campo);
+        String error = Validaciones.errorSeparador(campo, valor);
+        if (error != null) {
+            throw new IllegalArgumentException(error);
+        }
+        return valor;
+    }
+
+    private static int enteroPositivo(String texto, String campo) {
+        try {
+            int valor = Integer.parseInt(texto);
+            if (valor > 0) return valor;
+        } catch (NumberFormatException e) {
+            // Se informa abajo
+        }
+        throw new IllegalArgumentException("El parámetro " + campo + " debe ser un entero positivo.");
+    }
+
+    // Respuestas
+
+    private static void comicsJson(StringBuilder json, List<Comic> comics) {
+        json.append('[');
+        for (int i = 0; i < comics.size(); i++) {
+            if (i > 0) json.append(',');
+            Comic comic = comics.get(i);
+            json.append("{\"id\":");
+            Json.texto(json, comic.getId()).append(",\"titulo\":");
+            Json.texto(json, comic.getTitulo()).append(",\"autor\":");
+            Json.texto(json, comic.getAutor()).append(",\"disponible\":").append(comic.getEstado()).append(",\"asignadoA\":");
+            Json.texto(json, comic.getAsignadoA() == null ? "" : comic.getAsignadoA()).append('}');
+        }
+        json.append(']');
+    }
+
+    private static void responderResultado(HttpExchange intercambio, ResultadoOperacion resultado, int codigoExito,
+                                           int codigoError, String nombreClave) throws IOException {
+        if (!resultado.exito()) {
+            responderError(intercambio, codigoError, resultado.mensaje());
+            return;
+        }
+        StringBuilder json = new StringBuilder("{\"").append(nombreClave).append("\":");
+        Json.texto(json, resultado.clave()).append(",\"mensaje\":");
+        Json.texto(json, resultado.mensaje());
+        responder(intercambio, codigoExito, json.append('}'));
+    }
+
+    private static void responderError(HttpExchange intercambio, int codigo, String mensaje) throws IOException {
+        StringBuilder json = new StringBuilder("{\"error\":");
+        Json.texto(json, mensaje);
+        responder(intercambio, codigo, json.append('}'));
+    }
+
+    private static void responder(HttpExchange intercambio, int codigo, CharSequence json) throws IOException {
+        byte[] bytes = json.toString().getBytes(StandardCharsets.UTF_8);
+        intercambio.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        intercambio.sendResponseHeaders(codigo, bytes.length);
+        try (OutputStream salida = intercambio.getResponseBody()) {
+            salida.write(bytes);
+        }
+    }
+}
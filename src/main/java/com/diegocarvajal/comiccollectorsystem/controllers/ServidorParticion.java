@@ -0,0 +1,231 @@
+package com.diegocarvajal.comiccollectorsystem.controllers;
+
+import com.diegocarvajal.comiccollectorsystem.exceptions.ComicNoEncontradoException;
+import com.diegocarvajal.comiccollectorsystem.exceptions.ComicNoPrestadoException;
+import com.diegocarvajal.comiccollectorsystem.exceptions.ComicYaPrestadoException;
+import com.diegocarvajal.comiccollectorsystem.models.Comic;
+import com.diegocarvajal.comiccollectorsystem.models.Particion;
+import com.diegocarvajal.comiccollectorsystem.models.ParticionLocal;
+import com.diegocarvajal.comiccollectorsystem.models.ResultadoOperacion;
+import com.diegocarvajal.comiccollectorsystem.models.Usuario;
+import com.diegocarvajal.comiccollectorsystem.services.ProtocoloParticion;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Atiende una partición de la tienda por un socket TCP local, con el formato de {@link ProtocoloParticion}.
+ * Cada conexión se atiende en su propio hilo virtual y puede enviar varias solicitudes seguidas.
+ * Ejecutado como programa levanta una partición guardada en un directorio:
+ * ServidorParticion directorio [puerto] (con puerto 0 o sin indicarlo se elige uno libre).
+ */
+public class ServidorParticion {
+    private final Particion particion;
+    private final ServerSocket servidor;
+    private final ExecutorService hilos = Executors.newVirtualThreadPerTaskExecutor();
+    private final Set<Socket> conexiones = ConcurrentHashMap.newKeySet();
+    private Thread aceptador;
+
+    /**
+     * Crea el servidor en el puerto indicado (0 para elegir uno libre), escuchando solo en la interfaz local.
+     * No empieza a atender hasta llamar a iniciar().
+     */
+    public ServidorParticion(Particion particion, int puerto) throws IOException {
+        this.particion = particion;
+        this.servidor = new ServerSocket(puerto, 0, InetAddress.getLoopbackAddress());
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Uso: ServidorParticion directorio [puerto]");
+            System.exit(1);
+        }
+        int puerto = args.length > 1 ? Integer.parseInt(args[1]) : 0;
+        ParticionLocal particion = ParticionLocal.abrir(args[0], false);
+        ServidorParticion servidor = new ServidorParticion(particion, puerto);
+        // Al terminar el proceso se dejan de atender solicitudes y se guardan los datos de la partición
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            servidor.detener();
+            particion.close();
+        }));
+        servidor.iniciar();
+    }
+
+    public void iniciar() {
+        aceptador = new Thread(this::aceptar, "particion-" + getPuerto());
+        aceptador.start();
+        System.out.println("Partición escuchando en el puerto " + getPuerto());
+    }
+
+    /**
+     * Deja de aceptar conexiones, cierra las abiertas y espera a que terminen las solicitudes en curso.
+     */
+    public void detener() {
+        try {
+            servidor.close();
+        } catch (IOException e) {
+            System.err.println("Error al cerrar el servidor de la partición: " + e.getMessage());
+        }
+        for (Socket conexion : conexiones) {
+            try {
+                conexion.close();
+            } catch (IOException e) {
+                // Ya se estaba cerrando
+            }
+        }
+        hilos.close();
+    }
+
+    public int getPuerto() {
+        return servidor.getLocalPort();
+    }
+
+    private void aceptar() {
+        while (!servidor.isClosed()) {
+            try {
+                Socket conexion = servidor.accept();
+                conexion.setTcpNoDelay(true);
+                conexiones.add(conexion);
+                hilos.execute(() -> atender(conexion));
+            } catch (IOException e) {
+                if (!servidor.isClosed()) {
+                    System.err.println("Error al aceptar una conexión: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Atiende las solicitudes de una conexión hasta que el cliente la cierra.
+     */
+    private void atender(Socket conexion) {
+        try (conexion) {
+            BufferedReader entrada = new BufferedReader(new InputStreamReader(conexion.getInputStream(), StandardCharsets.UTF_8));
+            BufferedWriter salida = new BufferedWriter(new OutputStreamWriter(conexion.getOutputStream(), StandardCharsets.UTF_8));
+            String[] solicitud;
+            while ((solicitud = ProtocoloParticion.leer(entrada)) != null) {
+                responder(solicitud, entrada, salida);
+                salida.flush();
+            }
+        } catch (IOException e) {
+            // El cliente cerró la conexión o se detuvo el servidor
+        } finally {
+            conexiones.remove(conexion);
+        }
+    }
+
+    /**
+     * Aplica una solicitud sobre la partición y escribe la respuesta.
+     */
+    private void responder(String[] solicitud, BufferedReader entrada, Writer salida) throws IOException {
+        try {
+            List<String[]> filas = switch (solicitud[0]) {
+                case ProtocoloParticion.RESUMEN -> {
+                    Particion.Resumen resumen = particion.resumen();
+                    yield List.<String[]>of(new String[]{String.valueOf(resumen.comics()), String.valueOf(resumen.disponibles()),
+                            String.valueOf(resumen.usuarios()), String.valueOf(resumen.ultimoIdComic()), String.valueOf(resumen.ultimoIdUsuario())});
+                }
+                case ProtocoloParticion.COMIC_POR_ID -> List.<String[]>of(ProtocoloParticion.filaComic(particion.buscarComicPorId(argumento(solicitud, 1))));
+                case ProtocoloParticion.BUSCAR_TITULO -> filasComics(particion.buscarComicsPorTituloParcial(argumento(solicitud, 1)));
+                case ProtocoloParticion.BUSCAR_AUTOR -> filasComics(particion.buscarComicsPorAutorParcial(argumento(solicitud, 1)));
+                case ProtocoloParticion.PRESTADOS_A -> filasComics(particion.comicsPrestadosA(argumento(solicitud, 1)));
+                case ProtocoloParticion.PAGINA -> filasPagina(particion.paginaComics(argumento(solicitud, 1), solicitud.length > 2 ? solicitud[2] : null,
+                        Integer.parseInt(argumento(solicitud, 3))));
+                case ProtocoloParticion.USUARIO -> {
+                    Usuario usuario = particion.getUsuarioPorEmail(argumento(solicitud, 1));
+                    yield usuario == null ? List.<String[]>of() : List.<String[]>of(ProtocoloParticion.filaUsuario(usuario));
+                }
+                case ProtocoloParticion.REGISTRAR_COMICS -> {
+                    List<Comic> comics = new ArrayList<>();
+                    for (String[] fila : ProtocoloParticion.leerFilas(entrada, argumento(solicitud, 1))) {
+                        comics.add(ProtocoloParticion.comicDesdeFila(fila, 0));
+                    }
+                    yield filasResultados(particion.registrarComics(comics));
+                }
+                case ProtocoloParticion.REGISTRAR_USUARIOS -> {
+                    List<Usuario> usuarios = new ArrayList<>();
+                    for (String[] fila : ProtocoloParticion.leerFilas(entrada, argumento(solicitud, 1))) {
+                        usuarios.add(ProtocoloParticion.usuarioDesdeFila(fila));
+                    }
+                    yield filasResultados(particion.registrarUsuarios(usuarios));
+                }
+                case ProtocoloParticion.PRESTAR -> {
+                    particion.prestarComicPorId(argumento(solicitud, 1), argumento(solicitud, 2));
+                    yield List.<String[]>of();
+                }
+                case ProtocoloParticion.DEVOLVER -> {
+                    particion.devolverComic(argumento(solicitud, 1));
+                    yield List.<String[]>of();
+                }
+                default -> throw new IllegalArgumentException("Operación desconocida: " + solicitud[0]);
+            };
+            ProtocoloParticion.escribir(salida, ProtocoloParticion.OK, String.valueOf(filas.size()));
+            for (String[] fila : filas) {
+                ProtocoloParticion.escribir(salida, fila);
+            }
+        } catch (ComicNoEncontradoException e) {
+            ProtocoloParticion.escribir(salida, ProtocoloParticion.ERROR, ProtocoloParticion.NO_ENCONTRADO, e.getMessage());
+        } catch (ComicYaPrestadoException e) {
+            ProtocoloParticion.escribir(salida, ProtocoloParticion.ERROR, ProtocoloParticion.YA_PRESTADO, e.getMessage());
+        } catch (ComicNoPrestadoException e) {
+            ProtocoloParticion.escribir(salida, ProtocoloParticion.ERROR, ProtocoloParticion.NO_PRESTADO, e.getMessage());
+        } catch (IllegalArgumentException e) {
+            ProtocoloParticion.escribir(salida, ProtocoloParticion.ERROR, ProtocoloParticion.INVALIDO, e.getMessage());
+        } catch (RuntimeException e) {
+            System.err.println("Error al atender una solicitud de la partición: " + e);
+            ProtocoloParticion.escribir(salida, ProtocoloParticion.ERROR, ProtocoloParticion.INTERNO, String.valueOf(e.getMessage()));
+        }
+    }
+
+    private static String argumento(String[] solicitud, int posicion) {
+        if (solicitud.length <= posicion || solicitud[posicion] == null) {
+            throw new IllegalArgumentException("Falta el argumento " + posicion + " de " + solicitud[0]);
+        }
+        return solicitud[posicion];
+    }
+
+    private static List<String[]> filasComics(List<Comic> comics) {
+        List<String[]> filas = new ArrayList<>(comics.size());
+        for (Comic comic : comics) {
+            filas.add(ProtocoloParticion.filaComic(comic));
+        }
+        return filas;
+    }
+
+    /**
+     * Cada fila lleva el cursor del cómic seguido de sus columnas.
+     */
+    private static List<String[]> filasPagina(List<Particion.Posicion> posiciones) {
+        List<String[]> filas = new ArrayList<>(posiciones.size());
+        for (Particion.Posicion posicion : posiciones) {
+            String[] comic = ProtocoloParticion.filaComic(posicion.comic());
+            String[] fila = new String[comic.length + 1];
+            fila[0] = posicion.cursor();
+            System.arraycopy(comic, 0, fila, 1, comic.length);
+            filas.add(fila);
+        }
+        return filas;
+    }
+
+    private static List<String[]> filasResultados(List<ResultadoOperacion> resultados) {
+        List<String[]> filas = new ArrayList<>(resultados.size());
+        for (ResultadoOperacion resultado : resultados) {
+            filas.add(ProtocoloParticion.filaResultado(resultado));
+        }
+        return filas;
+    }
+}
@@ -0,0 +1,11 @@
+package com.diegocarvajal.comiccollectorsystem.exceptions;
+
+/**
+ * Excepción personalizada que se lanza cuando se intenta devolver un cómic que no está prestado.
+ * Permite mostrar un mensaje claro al usuario sobre el error.
+ */
+public class ComicNoPrestadoException extends Exception {
+    public ComicNoPrestadoException(String mensaje) {
+        super(mensaje);
+    }
+}
@@ -0,0 +1,133 @@
+package com.diegocarvajal.comiccollectorsystem.models;
+
+import com.diegocarvajal.comiccollectorsystem.exceptions.ComicNoEncontradoException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Almacenamiento de cómics por posición, para catálogos muy grandes que no guardan los textos en cada objeto Comic.
+ * Cada implementación guarda las columnas a su manera (arreglos en el heap, archivo mapeado, etc.)
+ * y expone los cómics como vistas {@link Comic} que leen y escriben esas columnas.
+ * {@link TiendaDeComics} lo usa según el {@link TiendaDeComics.Almacenamiento} elegido al crearla.
+ */
+public abstract class AlmacenComics {
+
+    /**
+     * Agrega un cómic y devuelve su posición. El id debe ser numérico; si se repite, la búsqueda por id devuelve el primero.
+     */
+    public abstract int agregar(String id, String titulo, String autor, boolean estado, String asignadoA);
+
+    public abstract int cantidad();
+
+    /**
+     * Presta el cómic si está disponible. Devuelve false si ya estaba prestado.
+     */
+    public abstract boolean prestar(int posicion, String emailUsuario);
+
+    /**
+     * Estimación de los bytes ocupados por el almacenamiento.
+     */
+    public abstract long bytesOcupados();
+
+    /**
+     * Agrega una copia de cada cómic de la lista.
+     */
+    public void agregarTodos(List<Comic> comics) {
+        for (Comic comic : comics) {
+            agregar(comic.getId(), comic.getTitulo(), comic.getAutor(), comic.getEstado(), comic.getAsignadoA());
+        }
+    }
+
+    /**
+     * Devuelve una vista del cómic en la posición dada; leerla o modificarla actúa sobre el almacenamiento.
+     */
+    public Comic comic(int posicion) {
+        if (posicion < 0 || posicion >= cantidad()) {
+            throw new IndexOutOfBoundsException(posicion);
+        }
+        return new ComicAlmacenado(this, posicion);
+    }
+
+    /**
+     * Busca un cómic por su id. Lanza excepción si no existe o si el id no es numérico.
+     */
+    public Comic buscarPorId(String id) throws ComicNoEncontradoException {
+        int posicion = posicion(id);
+        if (posicion < 0) {
+            throw new ComicNoEncontradoException("Comic no encontrado con ID: " + id);
+        }
+        return new ComicAlmacenado(this, posicion);
+    }
+
+    /**
+     * Devuelve los cómics en orden de llegada, como vistas.
+     */
+    public List<Comic> comics() {
+        int n = cantidad();
+        List<Comic> resultado = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            resultado.add(new ComicAlmacenado(this, i));
+        }
+        return resultado;
+    }
+
+    /**
+     * Posición del primer cómic agregado con el id dado, o -1 si no hay ninguno.
+     * Un id que no cumple {@link #errorId} no puede estar guardado, así que tampoco se encuentra.
+     */
+    int posicion(String id) {
+        return errorId(id) == null ? posicionDeId(Integer.parseInt(id)) : -1;
+    }
+
+    /**
+     * Devuelve por qué el id no se puede guardar, o null si se puede. Solo se admiten números enteros
+     * no negativos sin ceros a la izquierda, que al leerlos del almacenamiento vuelven a quedar iguales.
+     */
+    public static String errorId(String id) {
+        try {
+            int numero = Integer.parseInt(id);
+            if (numero >= 0 && String.valueOf(numero).equals(id)) {
+                return null;
+            }
+        } catch (NumberFormatException e) {
+            // Se informa abajo
+        }
+        return "El almacenamiento compacto solo admite ids numéricos: " + id;
+    }
+
+    /**
+     * Convierte un id de texto al int que se guarda, rechazando ids no numéricos.
+     */
+    protected static int idNumerico(String id) {
+        try {
+            return Integer.parseInt(id.trim());
+        } catch (NumberFormatException | NullPointerException e) {
+            throw new IllegalArgumentException("El almacenamiento compacto solo admite ids numéricos: " + id);
+        }
+    }
+
+    // Acceso a las columnas desde las vistas
+
+    abstract int posicionDeId(int id);
+
+    abstract String id(int posicion);
+
+    abstract void cambiarId(int posicion, String id);
+
+    abstract String titulo(int posicion);
+
+    abstract void cambiarTitulo(int posicion, String titulo);
+
+    abstract String autor(int posicion);
+
+    abstract void cambiarAutor(int posicion, String autor);
+
+    abstract boolean disponible(int posicion);
+
+    abstract void ponerDisponible(int posicion, boolean disponible);
+
+    abstract String asignadoA(int posicion);
+
+    abstract void cambiarAsignadoA(int posicion, String email);
+}
@@ -0,0 +1,399 @@
+package com.diegocarvajal.comiccollectorsystem.models;
+
+import com.diegocarvajal.comiccollectorsystem.utils.IndiceEntero;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Almacenamiento de cómics fuera del heap, en dos archivos mapeados en memoria dentro de un directorio.
+ * "ranuras.dat" tiene una cabecera y una ranura de ancho fijo por cómic:
+ * id (int), estado (int), y las posiciones del título, autor y asignado (long, -1 si no tiene) en "textos.dat".
+ * "textos.dat" guarda cada texto como largo (int) + bytes UTF-8; los autores y emails repetidos se escriben una sola vez.
+ * En el heap solo quedan el índice por id y las tablas de autores y emails, por lo que el recolector de basura
+ * no recorre los datos de los cómics. Al abrir un directorio existente se recupera su contenido.
+ * Los archivos empiezan chicos y el último segmento se vuelve a mapear al doble de tamaño cuando se llena.
+ * Todos los métodos están sincronizados.
+ * {@link TiendaDeComics} lo usa con {@link TiendaDeComics.Almacenamiento#MAPEADO}, en un directorio temporal
+ * (ver {@link #temporal}); los datos de la tienda siguen siendo sus CSV.
+ */
+public class AlmacenComicsMapeado extends AlmacenComics implements Closeable {
+    private static final int MAGICO = 0x43434D41; // "CCMA"
+    private static final int VERSION = 1;
+    private static final int CABECERA = 64;
+    private static final int RANURA = 32;
+    // Desplazamientos dentro de la ranura
+    private static final int ID = 0;
+    private static final int ESTADO = 4;
+    private static final int TITULO = 8;
+    private static final int AUTOR = 16;
+    private static final int ASIGNADO = 24;
+    // Desplazamientos dentro de la cabecera
+    private static final int CABECERA_CANTIDAD = 8;
+    private static final int CABECERA_FIN_TEXTOS = 16;
+    // Cada archivo se mapea por segmentos de hasta 1 GB, porque un MappedByteBuffer no puede pasar de 2 GB
+    private static final int BITS_SEGMENTO = 30;
+    private static final long TAMANO_SEGMENTO = 1L << BITS_SEGMENTO;
+    private static final long MASCARA_SEGMENTO = TAMANO_SEGMENTO - 1;
+    // Tamaño con el que se mapea un archivo nuevo; crece al doble hasta completar el segmento
+    private static final long TAMANO_INICIAL = 64 * 1024;
+    private static final long SIN_ASIGNAR = -1;
+
+    private final Mapeo ranuras;
+    private final Mapeo textos;
+    private final IndiceEntero posicionPorId;
+    // Texto -> posición en textos.dat, para escribir una sola vez cada autor y email
+    private final HashMap<String, Long> autores = new HashMap<>();
+    private final HashMap<String, Long> emails = new HashMap<>();
+    private int cantidad;
+    private long finTextos;
+    // Directorio que se borra al cerrar (null si los archivos se conservan)
+    private Path directorioTemporal;
+
+    /**
+     * Abre el almacenamiento en el directorio indicado, creándolo si no existe.
+     * Lanza IOException si los archivos existen pero no tienen el formato esperado.
+     */
+    public AlmacenComicsMapeado(Path directorio) throws IOException {
+        Files.createDirectories(directorio);
+        ranuras = new Mapeo(FileChannel.open(directorio.resolve("ranuras.dat"),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE));
+        textos = new Mapeo(FileChannel.open(directorio.resolve("textos.dat"),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE));
+        boolean nuevo = ranuras.canal.size() == 0;
+        // Un archivo existente se mapea completo (su tamaño ya sigue a la cantidad de cómics); uno nuevo, con el tamaño inicial
+        ranuras.asegurar(Math.max(ranuras.canal.size(), TAMANO_INICIAL));
+        textos.asegurar(Math.max(textos.canal.size(), TAMANO_INICIAL));
+        MappedByteBuffer cabecera = ranuras.segmento(0, CABECERA);
+        if (nuevo) {
+            cabecera.putInt(0, MAGICO);
+            cabecera.putInt(4, VERSION);
+            escribirCabecera();
+            posicionPorId = new IndiceEntero(1024);
+        } else {
+            if (cabecera.getInt(0) != MAGICO) {
+                throw new IOException("El directorio no contiene un almacenamiento de cómics: " + directorio);
+            }
+            int version = cabecera.getInt(4);
+            if (version != VERSION) {
+                throw new IOException("Versión de almacenamiento no soportada: " + version);
+            }
+            cantidad = cabecera.getInt(CABECERA_CANTIDAD);
+            finTextos = cabecera.getLong(CABECERA_FIN_TEXTOS);
+            posicionPorId = new IndiceEntero(cantidad);
+            recuperarIndices();
+        }
+    }
+
+    /**
+     * Crea un almacenamiento vacío en un directorio temporal nuevo, que se borra con sus archivos al cerrarlo.
+     */
+    public static AlmacenComicsMapeado temporal() throws IOException {
+        Path directorio = Files.createTempDirectory("almacen-comics");
+        AlmacenComicsMapeado almacen = new AlmacenComicsMapeado(directorio);
+        almacen.directorioTemporal = directorio;
+        return almacen;
+    }
+
+    /**
+     * Reconstruye el índice por id y las tablas de autores y emails recorriendo las ranuras.
+     */
+    private void recuperarIndices() {
+        for (int i = 0; i < cantidad; i++) {
+            long ranura = ranura(i);
+            ponerSiFalta(leerInt(ranura + ID), i);
+            long autor = leerLong(ranura + AUTOR);
+            autores.putIfAbsent(leerTexto(autor), autor);
+            long asignado = leerLong(ranura + ASIGNADO);
+            if (asignado != SIN_ASIGNAR) {
+                emails.putIfAbsent(leerTexto(asignado), asignado);
+            }
+        }
+    }
+
+    @Override
+    public synchronized int agregar(String id, String titulo, String autor, boolean estado, String asignadoA) {
+        int idNumerico = idNumerico(id);
+        int posicion = cantidad;
+        long ranura = ranura(posicion);
+        escribirInt(ranura + ID, idNumerico);
+        escribirInt(ranura + ESTADO, estado ? 1 : 0);
+        escribirLong(ranura + TITULO, escribirTexto(titulo));
+        escribirLong(ranura + AUTOR, textoCompartido(autores, autor));
+        escribirLong(ranura + ASIGNADO, textoAsignado(asignadoA));
+        ponerSiFalta(idNumerico, posicion);
+        cantidad++;
+        escribirCabecera();
+        return posicion;
+    }
+
+    @Override
+    public synchronized int cantidad() {
+        return cantidad;
+    }
+
+    @Override
+    public synchronized boolean prestar(int posicion, String emailUsuario) {
+        long ranura = ranura(posicion);
+        if (leerInt(ranura + ESTADO) == 0) {
+            return false;
+        }
+        escribirInt(ranura + ESTADO, 0);
+        escribirLong(ranura + ASIGNADO, textoAsignado(emailUsuario));
+        return true;
+    }
+
+    /**
+     * Bytes usados en los archivos mapeados más una estimación del índice y las tablas que quedan en el heap.
+     * Las tablas se estiman con 80 bytes por texto más sus caracteres.
+     */
+    @Override
+    public synchronized long bytesOcupados() {
+        long tablas = 0;
+        for (String texto : autores.keySet()) tablas += 80 + texto.length();
+        for (String texto : emails.keySet()) tablas += 80 + texto.length();
+        return CABECERA + (long) cantidad * RANURA + finTextos + posicionPorId.bytes() + tablas;
+    }
+
+    /**
+     * Bytes del almacenamiento que quedan en el heap (índice por id y tablas de autores y emails).
+     */
+    public synchronized long bytesEnHeap() {
+        return bytesOcupados() - CABECERA - (long) cantidad * RANURA - finTextos;
+    }
+
+    /**
+     * Fuerza a disco los cambios hechos en los archivos mapeados.
+     */
+    public synchronized void sincronizar() {
+        ranuras.sincronizar();
+        textos.sincronizar();
+    }
+
+    /**
+     * Sincroniza y cierra los archivos, y los borra si el almacenamiento es {@link #temporal}.
+     * Los segmentos mapeados se liberan cuando el recolector los descarta.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (directorioTemporal == null) {
+            sincronizar();
+        }
+        ranuras.canal.close();
+        textos.canal.close();
+        if (directorioTemporal != null) {
+            Files.deleteIfExists(directorioTemporal.resolve("ranuras.dat"));
+            Files.deleteIfExists(directorioTemporal.resolve("textos.dat"));
+            Files.deleteIfExists(directorioTemporal);
+        }
+    }
+
+    // Acceso a las columnas desde las vistas
+
+    @Override
+    synchronized int posicionDeId(int id) {
+        return posicionPorId.obtener(id);
+    }
+
+    @Override
+    synchronized String id(int posicion) {
+        return String.valueOf(leerInt(ranura(posicion) + ID));
+    }
+
+    @Override
+    synchronized void cambiarId(int posicion, String id) {
+        int idNumerico = idNumerico(id);
+        int anterior = leerInt(ranura(posicion) + ID);
+        // Con ids repetidos el índice puede apuntar a otro cómic; solo se quita si apunta a este
+        if (posicionPorId.obtener(anterior) == posicion) {
+            posicionPorId.quitar(anterior);
+        }
+        escribirInt(ranura(posicion) + ID, idNumerico);
+        posicionPorId.poner(idNumerico, posicion);
+    }
+
+    @Override
+    synchronized String titulo(int posicion) {
+        return leerTexto(leerLong(ranura(posicion) + TITULO));
+    }
+
+    @Override
+    synchronized void cambiarTitulo(int posicion, String titulo) {
+        // El título anterior queda sin uso en textos.dat
+        escribirLong(ranura(posicion) + TITULO, escribirTexto(titulo));
+    }
+
+    @Override
+    synchronized String autor(int posicion) {
+        return leerTexto(leerLong(ranura(posicion) + AUTOR));
+    }
+
+    @Override
+    synchronized void cambiarAutor(int posicion, String autor) {
+        escribirLong(ranura(posicion) + AUTOR, textoCompartido(autores, autor));
+    }
+
+    @Override
+    synchronized boolean disponible(int posicion) {
+        return leerInt(ranura(posicion) + ESTADO) == 1;
+    }
+
+    @Override
+    synchronized void ponerDisponible(int posicion, boolean disponible) {
+        escribirInt(ranura(posicion) + ESTADO, disponible ? 1 : 0);
+    }
+
+    @Override
+    synchronized String asignadoA(int posicion) {
+        long asignado = leerLong(ranura(posicion) + ASIGNADO);
+        return asignado == SIN_ASIGNAR ? "" : leerTexto(asignado);
+    }
+
+    @Override
+    synchronized void cambiarAsignadoA(int posicion, String email) {
+        escribirLong(ranura(posicion) + ASIGNADO, textoAsignado(email));
+    }
+
+    /**
+     * Con ids repetidos el índice apunta al primero, igual que la búsqueda por id de la tienda.
+     */
+    private void ponerSiFalta(int id, int posicion) {
+        if (posicionPorId.obtener(id) < 0) {
+            posicionPorId.poner(id, posicion);
+        }
+    }
+
+    // Textos
+
+    private long textoAsignado(String email) {
+        return email == null || email.isEmpty() ? SIN_ASIGNAR : textoCompartido(emails, email);
+    }
+
+    private long textoCompartido(HashMap<String, Long> tabla, String texto) {
+        Long posicion = tabla.get(texto);
+        if (posicion == null) {
+            posicion = escribirTexto(texto);
+            tabla.put(texto, posicion);
+        }
+        return posicion;
+    }
+
+    /**
+     * Escribe el texto al final de textos.dat y devuelve su posición.
+     * Un texto nunca cruza el límite entre dos segmentos: si no cabe, se escribe al inicio del siguiente.
+     */
+    private long escribirTexto(String texto) {
+        byte[] bytes = (texto == null ? "" : texto).getBytes(StandardCharsets.UTF_8);
+        long largo = Integer.BYTES + bytes.length;
+        if (largo > TAMANO_SEGMENTO) {
+            throw new IllegalArgumentException("Texto demasiado largo para el almacenamiento: " + bytes.length + " bytes");
+        }
+        long posicion = finTextos;
+        if ((posicion & MASCARA_SEGMENTO) + largo > TAMANO_SEGMENTO) {
+            posicion = (posicion | MASCARA_SEGMENTO) + 1;
+        }
+        MappedByteBuffer segmento = textos.segmento(posicion, largo);
+        int desplazamiento = (int) (posicion & MASCARA_SEGMENTO);
+        segmento.putInt(desplazamiento, bytes.length);
+        segmento.put(desplazamiento + Integer.BYTES, bytes);
+        finTextos = posicion + largo;
+        return posicion;
+    }
+
+    private String leerTexto(long posicion) {
+        MappedByteBuffer segmento = textos.segmento(posicion, Integer.BYTES);
+        int desplazamiento = (int) (posicion & MASCARA_SEGMENTO);
+        byte[] bytes = new byte[segmento.getInt(desplazamiento)];
+        segmento.get(desplazamiento + Integer.BYTES, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // Ranuras
+
+    private static long ranura(int posicion) {
+        return CABECERA + (long) posicion * RANURA;
+    }
+
+    private void escribirCabecera() {
+        MappedByteBuffer cabecera = ranuras.segmento(0, CABECERA);
+        cabecera.putInt(CABECERA_CANTIDAD, cantidad);
+        cabecera.putLong(CABECERA_FIN_TEXTOS, finTextos);
+    }
+
+    // Las ranuras están alineadas a 32 bytes y el segmento es múltiplo de 32, así que un campo nunca cruza segmentos
+
+    private int leerInt(long posicion) {
+        return ranuras.segmento(posicion, Integer.BYTES).getInt((int) (posicion & MASCARA_SEGMENTO));
+    }
+
+    private long leerLong(long posicion) {
+        return ranuras.segmento(posicion, Long.BYTES).getLong((int) (posicion & MASCARA_SEGMENTO));
+    }
+
+    private void escribirInt(long posicion, int valor) {
+        ranuras.segmento(posicion, Integer.BYTES).putInt((int) (posicion & MASCARA_SEGMENTO), valor);
+    }
+
+    private void escribirLong(long posicion, long valor) {
+        ranuras.segmento(posicion, Long.BYTES).putLong((int) (posicion & MASCARA_SEGMENTO), valor);
+    }
+
+    /**
+     * Archivo mapeado por segmentos. Todos los segmentos miden {@link #TAMANO_SEGMENTO} salvo el último,
+     * que se vuelve a mapear al doble cuando hace falta más espacio; mapear más allá del final agranda el archivo.
+     */
+    private static final class Mapeo {
+        private final FileChannel canal;
+        private final List<MappedByteBuffer> segmentos = new ArrayList<>();
+
+        Mapeo(FileChannel canal) {
+            this.canal = canal;
+        }
+
+        /**
+         * Devuelve el segmento que contiene la posición, asegurando que estén mapeados los bytes hasta posicion + largo.
+         */
+        MappedByteBuffer segmento(long posicion, long largo) {
+            asegurar(posicion + largo);
+            return segmentos.get((int) (posicion >>> BITS_SEGMENTO));
+        }
+
+        void asegurar(long fin) {
+            while (mapeado() < fin) {
+                int ultimo = segmentos.size() - 1;
+                if (ultimo >= 0 && segmentos.get(ultimo).capacity() < TAMANO_SEGMENTO) {
+                    long tamano = Math.min(TAMANO_SEGMENTO, 2L * segmentos.get(ultimo).capacity());
+                    segmentos.set(ultimo, mapear(ultimo, tamano));
+                } else {
+                    segmentos.add(mapear(ultimo + 1, Math.min(TAMANO_SEGMENTO, Math.max(TAMANO_INICIAL, fin - mapeado()))));
+                }
+            }
+        }
+
+        void sincronizar() {
+            for (MappedByteBuffer segmento : segmentos) segmento.force();
+        }
+
+        private long mapeado() {
+            int n = segmentos.size();
+            return n == 0 ? 0 : (n - 1) * TAMANO_SEGMENTO + segmentos.get(n - 1).capacity();
+        }
+
+        private MappedByteBuffer mapear(int indice, long tamano) {
+            try {
+                return canal.map(FileChannel.MapMode.READ_WRITE, indice * TAMANO_SEGMENTO, tamano);
+            } catch (IOException e) {
+                throw new IllegalStateException("No se pudo mapear el almacenamiento de cómics: " + e.getMessage(), e);
+            }
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.diegocarvajal.comiccollectorsystem.models;
+
+import com.diegocarvajal.comiccollectorsystem.utils.Normalizacion;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Caché LRU de resultados de búsquedas parciales, con clave modo (título o autor) + consulta normalizada.
+ * El tamaño se mide en cómics referenciados por los resultados guardados, para que una consulta muy amplia
+ * no ocupe lo mismo que una puntual; al superarlo se descartan los resultados usados hace más tiempo.
+ * Los resultados guardan referencias a los propios cómics, así que préstamos y devoluciones se ven sin invalidar;
+ * al agregar un cómic se descartan solo los resultados cuya consulta aparece en su título o autor.
+ */
+public class CacheBusquedas {
+    public static final String MODO_TITULO = "titulo";
+    public static final String MODO_AUTOR = "autor";
+
+    /**
+     * Contadores de uso de la caché.
+     */
+    public record Estadisticas(long aciertos, long fallos, long desalojos, long invalidaciones, int entradas, long peso) {}
+
+    private record Clave(String modo, String consulta) {}
+
+    private final long pesoMaximo;
+    private final LinkedHashMap<Clave, List<Comic>> resultados = new LinkedHashMap<>(64, 0.75f, true);
+    private long peso;
+    // Cambia con cada cómic agregado; un resultado calculado antes de un cambio no se guarda
+    private long generacion;
+    private long aciertos;
+    private long fallos;
+    private long desalojos;
+    private long invalidaciones;
+
+    /**
+     * Crea la caché con el máximo de cómics que pueden sumar los resultados guardados.
+     */
+    public CacheBusquedas(long pesoMaximo) {
+        this.pesoMaximo = pesoMaximo;
+    }
+
+    /**
+     * Devuelve el resultado guardado para la consulta o, si no está, lo calcula con {@code buscar} y lo guarda.
+     * La lista devuelta no se puede modificar.
+     */
+    public List<Comic> obtener(String modo, String consulta, Function<String, List<Comic>> buscar) {
+        Clave clave = new Clave(modo, Normalizacion.clave(consulta));
+        long generacionInicial;
+        synchronized (this) {
+            List<Comic> guardado = resultados.get(clave);
+            if (guardado != null) {
+                aciertos++;
+                return guardado;
+            }
+            fallos++;
+            generacionInicial = generacion;
+        }
+        // La búsqueda se hace fuera del candado para no frenar a las demás consultas
+        List<Comic> resultado = Collections.unmodifiableList(buscar.apply(consulta));
+        synchronized (this) {
+            if (generacionInicial == generacion && pesoDe(resultado) <= pesoMaximo && !resultados.containsKey(clave)) {
+                resultados.put(clave, resultado);
+                peso += pesoDe(resultado);
+                desalojar();
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Descarta los resultados en los que podría aparecer un cómic recién agregado.
+     */
+    public synchronized void invalidar(Comic comic) {
+        generacion++;
+        if (resultados.isEmpty()) return;
+        String titulo = comic.getClaveTitulo();
+        String autor = comic.getClaveAutor();
+        Iterator<Map.Entry<Clave, List<Comic>>> iterador = resultados.entrySet().iterator();
+        while (iterador.hasNext()) {
+            Map.Entry<Clave, List<Comic>> entrada = iterador.next();
+            String texto = entrada.getKey().modo().equals(MODO_AUTOR) ? autor : titulo;
+            if (texto.contains(entrada.getKey().consulta())) {
+                peso -= pesoDe(entrada.getValue());
+                iterador.remove();
+                invalidaciones++;
+            }
+        }
+    }
+
+    public synchronized Estadisticas estadisticas() {
+        return new Estadisticas(aciertos, fallos, desalojos, invalidaciones, resultados.size(), peso);
+    }
+
+    /**
+     * Descarta los resultados menos usados hasta volver al peso máximo.
+     */
+    private void desalojar() {
+        Iterator<List<Comic>> iterador = resultados.values().iterator();
+        while (peso > pesoMaximo && iterador.hasNext()) {
+            peso -= pesoDe(iterador.next());
+            iterador.remove();
+            desalojos++;
+        }
+    }
+
+    /**
+     * Cada resultado pesa la cantidad de cómics que referencia, más uno por la entrada.
+     */
+    private static long pesoDe(List<Comic> resultado) {
+        return resultado.size() + 1L;
+    }
+}
@@ -0,0 +1,203 @@
+package com.diegocarvajal.comiccollectorsystem.models;
+
+import com.diegocarvajal.comiccollectorsystem.utils.Diccionario;
+import com.diegocarvajal.comiccollectorsystem.utils.IndiceEntero;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Catálogo de cómics en formato compacto por columnas, para colecciones muy grandes.
+ * En lugar de un objeto Comic con cinco referencias por cómic guarda arreglos paralelos:
+ * ids como int, títulos como bytes UTF-8 en un único arreglo, autores y emails codificados con un diccionario
+ * y el estado como un bit. Los cómics se exponen como vistas {@link Comic} creadas al consultarlos.
+ * Todos los métodos están sincronizados.
+ * La tienda lo usa con {@link TiendaDeComics.Almacenamiento#COMPACTO}.
+ */
+public class CatalogoCompacto extends AlmacenComics {
+    // Código usado cuando el cómic no está asignado a nadie
+    private static final int SIN_ASIGNAR = -1;
+
+    private int cantidad;
+    private int[] ids;
+    private int[] inicioTitulo;
+    private int[] largoTitulo;
+    private byte[] titulos;
+    private int bytesTitulos;
+    private int[] autores;
+    private int[] asignados;
+    // Bit en 1 si el cómic está disponible
+    private long[] disponibles;
+
+    private final Diccionario diccionarioAutores = new Diccionario();
+    private final Diccionario diccionarioEmails = new Diccionario();
+    private final IndiceEntero posicionPorId;
+
+    public CatalogoCompacto(int capacidadInicial) {
+        int capacidad = Math.max(16, capacidadInicial);
+        ids = new int[capacidad];
+        inicioTitulo = new int[capacidad];
+        largoTitulo = new int[capacidad];
+        titulos = new byte[capacidad * 24];
+        autores = new int[capacidad];
+        asignados = new int[capacidad];
+        disponibles = new long[(capacidad + 63) >>> 6];
+        posicionPorId = new IndiceEntero(capacidad);
+    }
+
+    /**
+     * Crea un catálogo compacto con una copia de los cómics dados.
+     */
+    public static CatalogoCompacto desde(List<Comic> comics) {
+        CatalogoCompacto catalogo = new CatalogoCompacto(comics.size());
+        catalogo.agregarTodos(comics);
+        return catalogo;
+    }
+
+    /**
+     * Agrega un cómic y devuelve su posición. El id debe ser numérico, ya que se guarda como int.
+     */
+    @Override
+    public synchronized int agregar(String id, String titulo, String autor, boolean estado, String asignadoA) {
+        int idNumerico = idNumerico(id);
+        if (cantidad == ids.length) {
+            crecer();
+        }
+        int posicion = cantidad++;
+        ids[posicion] = idNumerico;
+        escribirTitulo(posicion, titulo);
+        autores[posicion] = diccionarioAutores.codificar(autor == null ? "" : autor);
+        asignados[posicion] = codificarEmail(asignadoA);
+        ponerDisponible(posicion, estado);
+        // Con ids repetidos el índice apunta al primero, igual que la búsqueda por id de la tienda
+        if (posicionPorId.obtener(idNumerico) < 0) {
+            posicionPorId.poner(idNumerico, posicion);
+        }
+        return posicion;
+    }
+
+    @Override
+    public synchronized int cantidad() {
+        return cantidad;
+    }
+
+    @Override
+    public synchronized boolean prestar(int posicion, String emailUsuario) {
+        if (!disponible(posicion)) {
+            return false;
+        }
+        ponerDisponible(posicion, false);
+        asignados[posicion] = codificarEmail(emailUsuario);
+        return true;
+    }
+
+    /**
+     * Estimación de los bytes ocupados por las columnas, diccionarios e índice.
+     * Los diccionarios se estiman con 48 bytes por texto más sus caracteres.
+     */
+    @Override
+    public synchronized long bytesOcupados() {
+        long bytes = 5L * ids.length * Integer.BYTES + titulos.length + (long) disponibles.length * Long.BYTES;
+        bytes += posicionPorId.bytes();
+        bytes += 48L * (diccionarioAutores.tamano() + diccionarioEmails.tamano());
+        for (int i = 0; i < diccionarioAutores.tamano(); i++) bytes += diccionarioAutores.texto(i).length();
+        for (int i = 0; i < diccionarioEmails.tamano(); i++) bytes += diccionarioEmails.texto(i).length();
+        return bytes;
+    }
+
+    // Acceso a las columnas desde las vistas
+
+    @Override
+    synchronized int posicionDeId(int id) {
+        return posicionPorId.obtener(id);
+    }
+
+    @Override
+    synchronized String id(int posicion) {
+        return String.valueOf(ids[posicion]);
+    }
+
+    @Override
+    synchronized void cambiarId(int posicion, String id) {
+        int idNumerico = idNumerico(id);
+        int anterior = ids[posicion];
+        // Con ids repetidos el índice puede apuntar a otro cómic; solo se quita si apunta a este
+        if (posicionPorId.obtener(anterior) == posicion) {
+            posicionPorId.quitar(anterior);
+        }
+        ids[posicion] = idNumerico;
+        posicionPorId.poner(idNumerico, posicion);
+    }
+
+    @Override
+    synchronized String titulo(int posicion) {
+        return new String(titulos, inicioTitulo[posicion], largoTitulo[posicion], StandardCharsets.UTF_8);
+    }
+
+    @Override
+    synchronized void cambiarTitulo(int posicion, String titulo) {
+        // El título anterior queda sin uso en el arreglo; se recupera al reconstruir el catálogo
+        escribirTitulo(posicion, titulo);
+    }
+
+    @Override
+    synchronized String autor(int posicion) {
+        return diccionarioAutores.texto(autores[posicion]);
+    }
+
+    @Override
+    synchronized void cambiarAutor(int posicion, String autor) {
+        autores[posicion] = diccionarioAutores.codificar(autor == null ? "" : autor);
+    }
+
+    @Override
+    synchronized boolean disponible(int posicion) {
+        return (disponibles[posicion >>> 6] & (1L << posicion)) != 0;
+    }
+
+    @Override
+    synchronized void ponerDisponible(int posicion, boolean disponible) {
+        if (disponible) {
+            disponibles[posicion >>> 6] |= 1L << posicion;
+        } else {
+            disponibles[posicion >>> 6] &= ~(1L << posicion);
+        }
+    }
+
+    @Override
+    synchronized String asignadoA(int posicion) {
+        int codigo = asignados[posicion];
+        return codigo == SIN_ASIGNAR ? "" : diccionarioEmails.texto(codigo);
+    }
+
+    @Override
+    synchronized void cambiarAsignadoA(int posicion, String email) {
+        asignados[posicion] = codificarEmail(email);
+    }
+
+    private int codificarEmail(String email) {
+        return (email == null || email.isEmpty()) ? SIN_ASIGNAR : diccionarioEmails.codificar(email);
+    }
+
+    private void escribirTitulo(int posicion, String titulo) {
+        byte[] bytes = (titulo == null ? "" : titulo).getBytes(StandardCharsets.UTF_8);
+        if (bytesTitulos + bytes.length > titulos.length) {
+            titulos = Arrays.copyOf(titulos, Math.max(titulos.length * 2, bytesTitulos + bytes.length));
+        }
+        System.arraycopy(bytes, 0, titulos, bytesTitulos, bytes.length);
+        inicioTitulo[posicion] = bytesTitulos;
+        largoTitulo[posicion] = bytes.length;
+        bytesTitulos += bytes.length;
+    }
+
+    private void crecer() {
+        int capacidad = ids.length * 2;
+        ids = Arrays.copyOf(ids, capacidad);
+        inicioTitulo = Arrays.copyOf(inicioTitulo, capacidad);
+        largoTitulo = Arrays.copyOf(largoTitulo, capacidad);
+        autores = Arrays.copyOf(autores, capacidad);
+        asignados = Arrays.copyOf(asignados, capacidad);
+        disponibles = Arrays.copyOf(disponibles, (capacidad + 63) >>> 6);
+    }
+}
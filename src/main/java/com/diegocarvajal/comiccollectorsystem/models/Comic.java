@@ -1,5 +1,7 @@
 package com.diegocarvajal.comiccollectorsystem.models;
 
+import com.diegocarvajal.comiccollectorsystem.utils.Normalizacion;
+
 /**
  * Clase que representa un cómic en la tienda.
  * Contiene información como id, título, autor, estado (disponible/prestado) y a quién está asignado.
@@ -8,12 +10,23 @@ public class Comic {
     private String id;
     private String titulo;
     private String autor;
-    private Boolean estado;
-    private String asignadoA; // email del usuario al que se asigna el comic
+    // Título y autor normalizados (sin acentos ni mayúsculas), calculados una vez para buscar y ordenar
+    private String claveTitulo;
+    private String claveAutor;
+    // Volátiles porque los préstamos los modifican desde varios hilos mientras otros los leen
+    private volatile Boolean estado;
+    private volatile String asignadoA; // email del usuario al que se asigna el comic
+    // Datos que mantiene la tienda: posición en el catálogo, copias de su título y enlaces en la cola de disponibles
+    int ranura = -1;
+    CopiasTitulo copias;
+    Comic anteriorDisponible;
+    Comic siguienteDisponible;
 
     public Comic(String titulo, String autor, Boolean estado) {
         this.titulo = titulo;
         this.autor = autor;
+        this.claveTitulo = Normalizacion.clave(titulo);
+        this.claveAutor = Normalizacion.clave(autor);
         this.estado = estado;
         this.asignadoA = null;
     }
@@ -21,6 +34,8 @@ public class Comic {
     public Comic(String titulo, String autor, Boolean estado, String asignadoA) {
         this.titulo = titulo;
         this.autor = autor;
+        this.claveTitulo = Normalizacion.clave(titulo);
+        this.claveAutor = Normalizacion.clave(autor);
         this.estado = estado;
         this.asignadoA = asignadoA;
     }
@@ -30,6 +45,8 @@ public class Comic {
         this.id = id;
         this.titulo = titulo;
         this.autor = autor;
+        this.claveTitulo = Normalizacion.clave(titulo);
+        this.claveAutor = Normalizacion.clave(autor);
         this.estado = estado;
         this.asignadoA = asignadoA;
     }
@@ -48,6 +65,14 @@ public class Comic {
 
     public void setTitulo(String titulo) {
         this.titulo = titulo;
+        this.claveTitulo = Normalizacion.clave(titulo);
+    }
+
+    /**
+     * Título normalizado con {@link Normalizacion#clave}, para comparar sin distinguir mayúsculas ni acentos.
+     */
+    public String getClaveTitulo() {
+        return claveTitulo;
     }
 
     public String getAutor() {
@@ -56,13 +81,21 @@ public class Comic {
 
     public void setAutor(String autor) {
         this.autor = autor;
+        this.claveAutor = Normalizacion.clave(autor);
+    }
+
+    /**
+     * Autor normalizado con {@link Normalizacion#clave}.
+     */
+    public String getClaveAutor() {
+        return claveAutor;
     }
 
     public Boolean getEstado() {
         return estado;
     }
 
-    public void setEstado(Boolean estado) {
+    public void setEstado(boolean estado) {
         this.estado = estado;
     }
 
@@ -77,7 +110,8 @@ public class Comic {
     @Override
     public String toString() {
         // Devuelve una representación legible del cómic para mostrar en consola
-        String estadoStr = estado ? "Disponible" : "Prestado a: " + (asignadoA != null ? asignadoA : "-");
-        return "Id: " + id + ", Título: " + titulo + ", Autor: " + autor + ", Estado: " + estadoStr;
+        String asignado = getAsignadoA();
+        String estadoStr = getEstado() ? "Disponible" : "Prestado a: " + (asignado != null ? asignado : "-");
+        return "Id: " + getId() + ", Título: " + getTitulo() + ", Autor: " + getAutor() + ", Estado: " + estadoStr;
     }
 }
@@ -0,0 +1,79 @@
+package com.diegocarvajal.comiccollectorsystem.models;
+
+import com.diegocarvajal.comiccollectorsystem.utils.Normalizacion;
+
+/**
+ * Vista de un cómic guardado en un {@link AlmacenComics}.
+ * No guarda datos propios: cada getter y setter lee o escribe la columna correspondiente del almacenamiento.
+ * Las claves normalizadas tampoco se guardan; se calculan al pedirlas desde el texto almacenado.
+ */
+class ComicAlmacenado extends Comic {
+    private final AlmacenComics catalogo;
+    private final int posicion;
+
+    ComicAlmacenado(AlmacenComics catalogo, int posicion) {
+        super(null, null, null, null, null);
+        this.catalogo = catalogo;
+        this.posicion = posicion;
+    }
+
+    @Override
+    public String getId() {
+        return catalogo.id(posicion);
+    }
+
+    @Override
+    public void setId(String id) {
+        catalogo.cambiarId(posicion, id);
+    }
+
+    @Override
+    public String getTitulo() {
+        return catalogo.titulo(posicion);
+    }
+
+    @Override
+    public void setTitulo(String titulo) {
+        catalogo.cambiarTitulo(posicion, titulo);
+    }
+
+    @Override
+    public String getClaveTitulo() {
+        return Normalizacion.clave(getTitulo());
+    }
+
+    @Override
+    public String getAutor() {
+        return catalogo.autor(posicion);
+    }
+
+    @Override
+    public void setAutor(String autor) {
+        catalogo.cambiarAutor(posicion, autor);
+    }
+
+    @Override
+    public String getClaveAutor() {
+        return Normalizacion.clave(getAutor());
+    }
+
+    @Override
+    public Boolean getEstado() {
+        return catalogo.disponible(posicion);
+    }
+
+    @Override
+    public void setEstado(boolean estado) {
+        catalogo.ponerDisponible(posicion, estado);
+    }
+
+    @Override
+    public String getAsignadoA() {
+        return catalogo.asignadoA(posicion);
+    }
+
+    @Override
+    public void setAsignadoA(String asignadoA) {
+        catalogo.cambiarAsignadoA(posicion, asignadoA);
+    }
+}
@@ -0,0 +1,66 @@
+package com.diegocarvajal.comiccollectorsystem.models;
+
+/**
+ * Copias de un mismo título (sin distinguir mayúsculas, minúsculas ni acentos): la primera registrada, que es la que
+ * devuelve la búsqueda exacta, y la cola de las copias disponibles en orden de llegada.
+ * La cola está enlazada a través de los propios cómics, así que tomar, quitar o devolver una copia
+ * es de tiempo constante y no crea objetos por copia.
+ */
+class CopiasTitulo {
+    private final Comic primera;
+    private Comic primeraDisponible;
+    private Comic ultimaDisponible;
+
+    CopiasTitulo(Comic primera) {
+        this.primera = primera;
+    }
+
+    Comic primera() {
+        return primera;
+    }
+
+    /**
+     * Devuelve la copia disponible más antigua sin sacarla de la cola, o null si no hay.
+     */
+    synchronized Comic primeraDisponible() {
+        return primeraDisponible;
+    }
+
+    /**
+     * Agrega la copia al final de la cola, si no está ya en ella.
+     */
+    synchronized void agregarDisponible(Comic comic) {
+        if (enCola(comic)) return;
+        comic.anteriorDisponible = ultimaDisponible;
+        comic.siguienteDisponible = null;
+        if (ultimaDisponible == null) {
+            primeraDisponible = comic;
+        } else {
+            ultimaDisponible.siguienteDisponible = comic;
+        }
+        ultimaDisponible = comic;
+    }
+
+    /**
+     * Saca la copia de la cola, si está en ella.
+     */
+    synchronized void quitarDisponible(Comic comic) {
+        if (!enCola(comic)) return;
+        if (comic.anteriorDisponible == null) {
+            primeraDisponible = comic.siguienteDisponible;
+        } else {
+            comic.anteriorDisponible.siguienteDisponible = comic.siguienteDisponible;
+        }
+        if (comic.siguienteDisponible == null) {
+            ultimaDisponible = comic.anteriorDisponible;
+        } else {
+            comic.siguienteDisponible.anteriorDisponible = comic.anteriorDisponible;
+        }
+        comic.anteriorDisponible = null;
+        comic.siguienteDisponible = null;
+    }
+
+    private boolean enCola(Comic comic) {
+        return comic.anteriorDisponible != null || primeraDisponible == comic;
+    }
+}
@@ -0,0 +1,383 @@
+package com.diegocarvajal.comiccollectorsystem.models;
+
+import com.diegocarvajal.comiccollectorsystem.utils.ListaSoloAgregar;
+import com.diegocarvajal.comiccollectorsystem.utils.Normalizacion;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Índice para búsquedas aproximadas (con errores de tipeo) sobre textos distintos, como los títulos o los autores.
+ * Los textos se comparan por su clave de {@link Normalizacion}, así que tampoco importan las mayúsculas ni los acentos.
+ * La similitud es la fracción de los trigramas de la consulta que aparecen en el texto (contención), con un espacio
+ * agregado al inicio y al final para que también cuenten las palabras cortas y los bordes. Así una parte del título
+ * mal escrita ("Batmn") encuentra títulos largos que la contienen ("Batman: Year One"), algo que el coeficiente de
+ * Jaccard sobre el título completo no logra. A igual similitud gana el texto cuya palabra más parecida a la
+ * consulta tiene mayor Jaccard con ella.
+ * Las listas de posteo de la consulta se leen de la menos a la más frecuente contando cuántos trigramas
+ * comparte cada texto con la consulta. Si se alcanzan a leer todas, ese conteo da la similitud exacta sin mirar
+ * los textos. Si no (consultas cuyos trigramas aparecen en gran parte del catálogo), se deja de leer al agotar
+ * un presupuesto de entradas y se calcula la similitud exacta solo de los textos con más trigramas raros en común;
+ * en ese caso el resultado es aproximado. En ambos casos solo se desempata por palabra entre los mejores candidatos. Las búsquedas pueden hacerse desde varios hilos; las altas deben estar
+ * sincronizadas por quien las llama.
+ */
+public class IndiceDifuso<T> {
+    // Similitud mínima por defecto para considerar un texto parecido (la mitad de los trigramas de la consulta)
+    public static final double SIMILITUD_MINIMA = 0.5;
+    // Entradas de listas de posteo que se leen como máximo por consulta
+    private static final int PRESUPUESTO = 50_000;
+    // Textos que se miran para desempatar por palabra (y para calcular la similitud exacta si no se leyeron todas las listas)
+    private static final int CANDIDATOS = 128;
+
+    /**
+     * Texto encontrado, con el valor asociado y su similitud con la consulta (entre 0 y 1): la fracción
+     * de los trigramas de la consulta que contiene.
+     */
+    public record Coincidencia<T>(T valor, String clave, double similitud) {}
+
+    /**
+     * Texto indexado: su clave normalizada y el valor asociado.
+     */
+    private record Entrada<T>(String clave, T valor) {}
+
+    /**
+     * Lista de enteros a la que solo se agregan elementos, con la misma publicación que {@link ListaSoloAgregar}:
+     * los lectores leen primero el tamaño y luego el arreglo. Se guardan como enteros seguidos para recorrer
+     * las listas de posteo sin saltar de objeto en objeto.
+     */
+    private static final class Enteros {
+        private volatile int[] valores = new int[4];
+        private volatile int tamano;
+
+        void agregar(int valor) {
+            int[] actual = valores;
+            int n = tamano;
+            if (n == actual.length) {
+                actual = Arrays.copyOf(actual, n * 2);
+                valores = actual;
+            }
+            actual[n] = valor;
+            // La escritura volátil del tamaño publica el valor a los lectores
+            tamano = n + 1;
+        }
+    }
+
+    /**
+     * Contadores de trigramas en común por texto, reutilizados entre las consultas de un mismo hilo.
+     * Solo se limpian las posiciones tocadas, así una consulta no recorre el arreglo completo.
+     */
+    private static final class Conteo {
+        int[] comunes = new int[0];
+        int[] tocados = new int[1024];
+        int cantidadTocados;
+
+        void preparar(int textos) {
+            if (comunes.length < textos) {
+                comunes = new int[Math.max(textos, comunes.length * 2)];
+            }
+        }
+
+        void sumar(int posicion) {
+            if (comunes[posicion]++ == 0) {
+                if (cantidadTocados == tocados.length) {
+                    tocados = Arrays.copyOf(tocados, cantidadTocados * 2);
+                }
+                tocados[cantidadTocados++] = posicion;
+            }
+        }
+
+        void limpiar() {
+            for (int i = 0; i < cantidadTocados; i++) {
+                comunes[tocados[i]] = 0;
+            }
+            cantidadTocados = 0;
+        }
+    }
+
+    /**
+     * Conserva las posiciones con mayor similitud (y a igual similitud, mayor Jaccard), hasta un tope,
+     * sin crear objetos por posición ofrecida.
+     */
+    private static final class Seleccion {
+        final int[] posiciones;
+        final double[] similitudes;
+        final double[] jaccards;
+        int cantidad;
+        // Índice de la peor posición guardada, que es la que se reemplaza
+        int peor;
+
+        Seleccion(int tope) {
+            posiciones = new int[tope];
+            similitudes = new double[tope];
+            jaccards = new double[tope];
+        }
+
+        void ofrecer(int posicion, double similitud, double jaccard) {
+            if (cantidad < posiciones.length) {
+                posiciones[cantidad] = posicion;
+                similitudes[cantidad] = similitud;
+                jaccards[cantidad] = jaccard;
+                if (cantidad == 0 || comparar(cantidad, peor) < 0) {
+                    peor = cantidad;
+                }
+                cantidad++;
+                return;
+            }
+            if (comparar(similitud, jaccard, similitudes[peor], jaccards[peor]) <= 0) {
+                return;
+            }
+            posiciones[peor] = posicion;
+            similitudes[peor] = similitud;
+            jaccards[peor] = jaccard;
+            for (int i = 0; i < cantidad; i++) {
+                if (comparar(i, peor) < 0) {
+                    peor = i;
+                }
+            }
+        }
+
+        int comparar(int a, int b) {
+            return comparar(similitudes[a], jaccards[a], similitudes[b], jaccards[b]);
+        }
+
+        private static int comparar(double similitudA, double jaccardA, double similitudB, double jaccardB) {
+            int porSimilitud = Double.compare(similitudA, similitudB);
+            return porSimilitud != 0 ? porSimilitud : Double.compare(jaccardA, jaccardB);
+        }
+    }
+
+    // Trigrama (tres caracteres empaquetados en un long) -> posiciones de los textos que lo contienen
+    private final ConcurrentHashMap<Long, Enteros> posteos = new ConcurrentHashMap<>();
+    // Textos por posición, y cuántos trigramas distintos tiene cada uno
+    private final ListaSoloAgregar<Entrada<T>> entradas = new ListaSoloAgregar<>(1024);
+    private final Enteros trigramasPorTexto = new Enteros();
+    private final ThreadLocal<Conteo> conteos = ThreadLocal.withInitial(Conteo::new);
+
+    /**
+     * Agrega un texto, ya normalizado con {@link Normalizacion#clave}, con su valor asociado.
+     * Cada clave distinta debe agregarse una sola vez.
+     */
+    public void agregar(String clave, T valor) {
+        long[] trigramas = trigramas(clave);
+        int posicion = entradas.tamano();
+        trigramasPorTexto.agregar(trigramas.length);
+        entradas.agregar(new Entrada<>(clave, valor));
+        for (long trigrama : trigramas) {
+            posteos.computeIfAbsent(trigrama, k -> new Enteros()).agregar(posicion);
+        }
+    }
+
+    /**
+     * Devuelve hasta {@code cantidad} textos parecidos a la consulta, del más al menos parecido,
+     * con similitud de al menos {@link #SIMILITUD_MINIMA}.
+     */
+    public List<Coincidencia<T>> buscar(String consulta, int cantidad) {
+        return buscar(consulta, cantidad, SIMILITUD_MINIMA);
+    }
+
+    /**
+     * Devuelve hasta {@code cantidad} textos con similitud de al menos {@code minima}, del más al menos parecido.
+     * A igual similitud se ordenan por Jaccard y luego alfabéticamente.
+     */
+    public List<Coincidencia<T>> buscar(String consulta, int cantidad, double minima) {
+        long[] deConsulta = trigramas(Normalizacion.clave(consulta));
+        if (deConsulta.length == 0 || cantidad <= 0) {
+            return new ArrayList<>();
+        }
+        // Listas de posteo de la consulta, de la menos a la más frecuente (las que no existen no aportan candidatos)
+        List<Enteros> listas = new ArrayList<>(deConsulta.length);
+        for (long trigrama : deConsulta) {
+            Enteros lista = posteos.get(trigrama);
+            if (lista != null) {
+                listas.add(lista);
+            }
+        }
+        listas.sort(Comparator.comparingInt(lista -> lista.tamano));
+
+        // Solo se consideran los textos ya publicados al empezar, cuyos trigramas ya están todos en las listas
+        int textos = entradas.tamano();
+        Conteo conteo = conteos.get();
+        conteo.preparar(textos);
+        try {
+            int restantes = PRESUPUESTO;
+            boolean completo = true;
+            for (Enteros lista : listas) {
+                int n = lista.tamano;
+                int[] posiciones = lista.valores;
+                if (n > restantes) {
+                    n = restantes;
+                    completo = false;
+                }
+                for (int j = 0; j < n; j++) {
+                    if (posiciones[j] < textos) {
+                        conteo.sumar(posiciones[j]);
+                    }
+                }
+                restantes -= n;
+                if (!completo) {
+                    break;
+                }
+            }
+            return seleccionar(conteo, deConsulta, completo, cantidad, minima);
+        } finally {
+            conteo.limpiar();
+        }
+    }
+
+    /**
+     * Elige los {@link #CANDIDATOS} textos con más trigramas en común (a igual cantidad, los de largo más parecido)
+     * y los ordena por similitud y, a igual similitud, por la palabra del texto más parecida a la consulta.
+     * Si se leyeron todas las listas el conteo ya es exacto y se descartan antes los que no llegan a la mínima;
+     * si no, el conteo solo cubre los trigramas raros y se recalcula mirando el texto.
+     */
+    private List<Coincidencia<T>> seleccionar(Conteo conteo, long[] deConsulta, boolean completo, int cantidad, double minima) {
+        int[] delTexto = trigramasPorTexto.valores;
+        Seleccion candidatos = new Seleccion(Math.max(CANDIDATOS, cantidad));
+        for (int i = 0; i < conteo.cantidadTocados; i++) {
+            int posicion = conteo.tocados[i];
+            int comunes = conteo.comunes[posicion];
+            if (!completo || (double) comunes / deConsulta.length >= minima) {
+                candidatos.ofrecer(posicion, comunes, jaccard(comunes, deConsulta.length, delTexto[posicion]));
+            }
+        }
+        Seleccion seleccion = new Seleccion(cantidad);
+        boolean[] vistos = new boolean[deConsulta.length];
+        for (int i = 0; i < candidatos.cantidad; i++) {
+            int posicion = candidatos.posiciones[i];
+            String clave = entradas.obtener(posicion).clave();
+            int comunes = completo ? (int) candidatos.similitudes[i] : comunes(clave, 0, clave.length(), deConsulta, vistos);
+            double similitud = (double) comunes / deConsulta.length;
+            if (similitud >= minima) {
+                seleccion.ofrecer(posicion, similitud, mejorPalabra(clave, deConsulta, vistos));
+            }
+        }
+        return coincidencias(seleccion);
+    }
+
+    private List<Coincidencia<T>> coincidencias(Seleccion seleccion) {
+        Integer[] orden = new Integer[seleccion.cantidad];
+        for (int i = 0; i < orden.length; i++) {
+            orden[i] = i;
+        }
+        // De la más a la menos parecida; a igual similitud y Jaccard, alfabéticamente
+        Arrays.sort(orden, (a, b) -> {
+            int comparacion = seleccion.comparar(b, a);
+            return comparacion != 0 ? comparacion
+                    : entradas.obtener(seleccion.posiciones[a]).clave().compareTo(entradas.obtener(seleccion.posiciones[b]).clave());
+        });
+        List<Coincidencia<T>> resultado = new ArrayList<>(orden.length);
+        for (int i : orden) {
+            Entrada<T> entrada = entradas.obtener(seleccion.posiciones[i]);
+            resultado.add(new Coincidencia<>(entrada.valor(), entrada.clave(), seleccion.similitudes[i]));
+        }
+        return resultado;
+    }
+
+    private static double jaccard(int comunes, int deConsulta, int delTexto) {
+        return (double) comunes / (deConsulta + delTexto - comunes);
+    }
+
+    /**
+     * Jaccard entre la consulta y la palabra del texto que más se le parece (las palabras son tramos de letras
+     * y dígitos). Desempata títulos que contienen la misma fracción de la consulta: con "Batmn", un título con
+     * la palabra "Batman" queda antes que uno que solo tiene "Bat" y "man" por separado.
+     */
+    private static double mejorPalabra(String clave, long[] deConsulta, boolean[] vistos) {
+        double mejor = 0;
+        int inicio = 0;
+        while (inicio < clave.length()) {
+            if (!Character.isLetterOrDigit(clave.charAt(inicio))) {
+                inicio++;
+                continue;
+            }
+            int fin = inicio;
+            while (fin < clave.length() && Character.isLetterOrDigit(clave.charAt(fin))) {
+                fin++;
+            }
+            int comunes = comunes(clave, inicio, fin, deConsulta, vistos);
+            mejor = Math.max(mejor, jaccard(comunes, deConsulta.length, distintos(clave, inicio, fin)));
+            inicio = fin;
+        }
+        return mejor;
+    }
+
+    /**
+     * Cuenta cuántos trigramas distintos de la consulta (ordenados) aparecen en el tramo [desde, hasta) del texto,
+     * con un espacio de relleno a cada lado, sin crear objetos.
+     */
+    private static int comunes(String clave, int desde, int hasta, long[] deConsulta, boolean[] vistos) {
+        Arrays.fill(vistos, false);
+        int comunes = 0;
+        for (int i = desde - 1; i + 2 <= hasta; i++) {
+            int posicion = Arrays.binarySearch(deConsulta, trigrama(clave, desde, hasta, i));
+            if (posicion >= 0 && !vistos[posicion]) {
+                vistos[posicion] = true;
+                comunes++;
+            }
+        }
+        return comunes;
+    }
+
+    /**
+     * Cantidad de trigramas distintos del tramo [desde, hasta) con su relleno. Las palabras son cortas,
+     * así que se compara cada trigrama con los anteriores en vez de armar un conjunto.
+     */
+    private static int distintos(String clave, int desde, int hasta) {
+        int distintos = 0;
+        for (int i = desde - 1; i + 2 <= hasta; i++) {
+            long trigrama = trigrama(clave, desde, hasta, i);
+            boolean repetido = false;
+            for (int j = desde - 1; j < i && !repetido; j++) {
+                repetido = trigrama(clave, desde, hasta, j) == trigrama;
+            }
+            if (!repetido) {
+                distintos++;
+            }
+        }
+        return distintos;
+    }
+
+    /**
+     * Trigrama que empieza en la posición i del tramo [desde, hasta), tomando un espacio fuera de sus bordes.
+     */
+    private static long trigrama(String clave, int desde, int hasta, int i) {
+        return trigrama(caracter(clave, desde, hasta, i), caracter(clave, desde, hasta, i + 1), caracter(clave, desde, hasta, i + 2));
+    }
+
+    private static char caracter(String clave, int desde, int hasta, int posicion) {
+        return posicion < desde || posicion >= hasta ? ' ' : clave.charAt(posicion);
+    }
+
+    /**
+     * Trigramas distintos del texto con un espacio agregado al inicio y al final, ordenados.
+     */
+    private static long[] trigramas(String clave) {
+        if (clave.isEmpty()) {
+            return new long[0];
+        }
+        int largo = clave.length() + 2;
+        long[] resultado = new long[largo - 2];
+        for (int i = 0; i + 3 <= largo; i++) {
+            resultado[i] = trigrama(caracter(clave, i), caracter(clave, i + 1), caracter(clave, i + 2));
+        }
+        Arrays.sort(resultado);
+        int distintos = 0;
+        for (int i = 0; i < resultado.length; i++) {
+            if (i == 0 || resultado[i] != resultado[i - 1]) {
+                resultado[distintos++] = resultado[i];
+            }
+        }
+        return Arrays.copyOf(resultado, distintos);
+    }
+
+    /**
+     * Carácter en la posición indicada del texto con los espacios de relleno (posición 0 y la última).
+     */
+    private static char caracter(String clave, int posicion) {
+        return posicion == 0 || posicion == clave.length() + 1 ? ' ' : clave.charAt(posicion - 1);
+    }
+
+    private static long trigrama(char a, char b, char c) {
+        return ((long) a << 32) | ((long) b << 16) | c;
+    }
+}
@@ -0,0 +1,128 @@
+package com.diegocarvajal.comiccollectorsystem.models;
+
+import com.diegocarvajal.comiccollectorsystem.utils.BusquedaParalela;
+import com.diegocarvajal.comiccollectorsystem.utils.ListaSoloAgregar;
+import com.diegocarvajal.comiccollectorsystem.utils.Normalizacion;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Índice invertido de trigramas sobre un campo de texto de los cómics (título o autor).
+ * Permite búsquedas parciales sin distinguir mayúsculas, minúsculas ni acentos sin recorrer todo el catálogo:
+ * cada trigrama apunta a la lista de cómics que lo contienen y solo se verifican los candidatos de la lista más corta.
+ * Las búsquedas pueden hacerse desde varios hilos sin bloquearse; las altas deben estar sincronizadas por quien las llama.
+ * Cuando hay muchos candidatos (consultas de uno o dos caracteres, o trigramas muy comunes) se verifican en paralelo
+ * con {@link BusquedaParalela}.
+ */
+public class IndiceTrigramas {
+    private static final int N = 3;
+    private static final ListaSoloAgregar<Entrada> VACIA = new ListaSoloAgregar<>(1);
+
+    /**
+     * Entrada de una lista de posteo: el cómic y su texto ya normalizado, para no recalcularlo en cada consulta.
+     * La clave es la misma instancia que guarda el cómic, así el índice no duplica los textos.
+     */
+    private record Entrada(Comic comic, String clave) {}
+
+    // Trigrama -> cómics cuyo texto contiene ese trigrama
+    private final ConcurrentHashMap<String, ListaSoloAgregar<Entrada>> posteos = new ConcurrentHashMap<>();
+    // Todas las entradas, para consultas más cortas que un trigrama
+    private final ListaSoloAgregar<Entrada> entradas = new ListaSoloAgregar<>();
+    private final BusquedaParalela busqueda;
+
+    public IndiceTrigramas() {
+        this(BusquedaParalela.comun());
+    }
+
+    public IndiceTrigramas(BusquedaParalela busqueda) {
+        this.busqueda = busqueda;
+    }
+
+    /**
+     * Agrega un cómic al índice con la clave ya normalizada de su título o autor
+     * ({@link Comic#getClaveTitulo()} o {@link Comic#getClaveAutor()}).
+     */
+    public void agregar(Comic comic, String clave) {
+        Entrada entrada = new Entrada(comic, clave);
+        entradas.agregar(entrada);
+        for (String trigrama : trigramas(entrada.clave())) {
+            posteos.computeIfAbsent(trigrama, k -> new ListaSoloAgregar<>(4)).agregar(entrada);
+        }
+    }
+
+    /**
+     * Busca los cómics cuyo texto contiene la consulta, ordenados por relevancia:
+     * primero coincidencias exactas, luego las que empiezan por la consulta y después por posición de la coincidencia.
+     * Una consulta vacía (o solo con espacios) no devuelve nada, en vez de todo el catálogo.
+     */
+    public List<Comic> buscar(String consulta) {
+        String clave = Normalizacion.clave(consulta);
+        Entrada[] coincidencias = busqueda.filtrar(candidatos(clave), e -> e.clave().contains(clave)).toArray(new Entrada[0]);
+        // parallelSort ordena en el mismo hilo si hay pocas coincidencias
+        Arrays.parallelSort(coincidencias, relevancia(clave));
+        List<Comic> resultado = new ArrayList<>(coincidencias.length);
+        for (Entrada entrada : coincidencias) {
+            resultado.add(entrada.comic());
+        }
+        return resultado;
+    }
+
+    /**
+     * Ordena por relevancia, con el mismo criterio que {@link #buscar}, cómics que ya contienen la consulta
+     * en la clave indicada. Sirve para mezclar los resultados de varios índices (por ejemplo, de varias particiones).
+     */
+    static void ordenarPorRelevancia(List<Comic> comics, String consulta, java.util.function.Function<Comic, String> clave) {
+        String deConsulta = Normalizacion.clave(consulta);
+        List<Entrada> entradas = new ArrayList<>(comics.size());
+        for (Comic comic : comics) {
+            entradas.add(new Entrada(comic, clave.apply(comic)));
+        }
+        entradas.sort(relevancia(deConsulta));
+        for (int i = 0; i < entradas.size(); i++) {
+            comics.set(i, entradas.get(i).comic());
+        }
+    }
+
+    private static Comparator<Entrada> relevancia(String clave) {
+        return Comparator
+                .comparingInt((Entrada e) -> e.clave().equals(clave) ? 0 : 1)
+                .thenComparingInt(e -> e.clave().indexOf(clave))
+                .thenComparing(Entrada::clave);
+    }
+
+    /**
+     * Devuelve la lista de posteo más corta entre los trigramas de la consulta (vacía si alguno no existe).
+     * Si la consulta es más corta que un trigrama se devuelven todas las entradas; si está vacía, ninguna.
+     */
+    private ListaSoloAgregar<Entrada> candidatos(String clave) {
+        if (clave.isEmpty()) {
+            return VACIA;
+        }
+        if (clave.length() < N) {
+            return entradas;
+        }
+        ListaSoloAgregar<Entrada> menor = null;
+        for (String trigrama : trigramas(clave)) {
+            ListaSoloAgregar<Entrada> lista = posteos.get(trigrama);
+            if (lista == null) {
+                return VACIA;
+            }
+            if (menor == null || lista.tamano() < menor.tamano()) {
+                menor = lista;
+            }
+        }
+        return menor;
+    }
+
+    /**
+     * Obtiene los trigramas distintos de un texto ya normalizado.
+     */
+    private static Set<String> trigramas(String clave) {
+        Set<String> resultado = new HashSet<>();
+        for (int i = 0; i + N <= clave.length(); i++) {
+            resultado.add(clave.substring(i, i + N));
+        }
+        return resultado;
+    }
+}
@@ -0,0 +1,62 @@
+package com.diegocarvajal.comiccollectorsystem.models;
+
+import com.diegocarvajal.comiccollectorsystem.exceptions.ComicNoEncontradoException;
+import com.diegocarvajal.comiccollectorsystem.exceptions.ComicNoPrestadoException;
+import com.diegocarvajal.comiccollectorsystem.exceptions.ComicYaPrestadoException;
+
+import java.io.Closeable;
+import java.util.List;
+
+/**
+ * Una partición de {@link TiendaParticionada}: guarda los cómics cuyo id le corresponde y los usuarios cuyo email
+ * le corresponde, con sus propios archivos de datos. Puede estar en el mismo proceso ({@link ParticionLocal})
+ * o en otro proceso al que se habla por un socket local
+ * ({@link com.diegocarvajal.comiccollectorsystem.services.ParticionRemota}).
+ * Las fallas de comunicación se informan como UncheckedIOException.
+ */
+public interface Particion extends Closeable {
+
+    /**
+     * Cómic de una página ordenada junto con el cursor (en texto) que sigue justo después de él.
+     */
+    record Posicion(Comic comic, String cursor) {}
+
+    /**
+     * Cantidades de la partición y mayores ids usados, para que el enrutador siga repartiendo ids sin repetir.
+     */
+    record Resumen(int comics, int disponibles, int usuarios, int ultimoIdComic, int ultimoIdUsuario) {}
+
+    Resumen resumen();
+
+    Comic buscarComicPorId(String id) throws ComicNoEncontradoException;
+
+    List<Comic> buscarComicsPorTituloParcial(String texto);
+
+    List<Comic> buscarComicsPorAutorParcial(String texto);
+
+    List<Comic> comicsPrestadosA(String emailUsuario);
+
+    /**
+     * Hasta {@code tamano} cómics ordenados según el criterio, a continuación del cursor (null para empezar).
+     */
+    List<Posicion> paginaComics(String criterio, String cursor, int tamano);
+
+    Usuario getUsuarioPorEmail(String email);
+
+    /**
+     * Registra cómics que ya traen su id (asignado por el enrutador).
+     */
+    List<ResultadoOperacion> registrarComics(List<Comic> comics);
+
+    /**
+     * Registra usuarios que ya traen su id (asignado por el enrutador).
+     */
+    List<ResultadoOperacion> registrarUsuarios(List<Usuario> usuarios);
+
+    /**
+     * Presta el cómic sin validar el usuario, que puede estar en otra partición: lo valida el enrutador.
+     */
+    void prestarComicPorId(String idComic, String emailUsuario) throws ComicNoEncontradoException, ComicYaPrestadoException;
+
+    void devolverComic(String idComic) throws ComicNoEncontradoException, ComicNoPrestadoException;
+}
@@ -0,0 +1,114 @@
+package com.diegocarvajal.comiccollectorsystem.models;
+
+import com.diegocarvajal.comiccollectorsystem.exceptions.ComicNoEncontradoException;
+import com.diegocarvajal.comiccollectorsystem.exceptions.ComicNoPrestadoException;
+import com.diegocarvajal.comiccollectorsystem.exceptions.ComicYaPrestadoException;
+import com.diegocarvajal.comiccollectorsystem.utils.VistaOrdenada;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Partición en el mismo proceso: una {@link TiendaDeComics} con sus propios archivos dentro de un directorio
+ * (comics.csv, usuarios.csv, tienda.bin y diario.log).
+ */
+public class ParticionLocal implements Particion {
+    private final TiendaDeComics tienda;
+
+    public ParticionLocal(TiendaDeComics tienda) {
+        this.tienda = tienda;
+    }
+
+    /**
+     * Abre (o crea) la partición guardada en el directorio, con su diario de modificaciones activo.
+     */
+    public static ParticionLocal abrir(String directorio, boolean cargaParalela) {
+        return new ParticionLocal(abrirTienda(directorio, cargaParalela));
+    }
+
+    /**
+     * Carga la tienda de una partición desde su directorio, creándolo si no existe.
+     */
+    public static TiendaDeComics abrirTienda(String directorio, boolean cargaParalela) {
+        new File(directorio).mkdirs();
+        String base = directorio.endsWith(File.separator) ? directorio : directorio + File.separator;
+        TiendaDeComics tienda = TiendaDeComics.desdeInstantanea(base + "tienda.bin", base + "comics.csv", base + "usuarios.csv", cargaParalela);
+        tienda.activarDiario(base + "diario.log", 5);
+        return tienda;
+    }
+
+    public TiendaDeComics getTienda() {
+        return tienda;
+    }
+
+    @Override
+    public Resumen resumen() {
+        return new Resumen(tienda.cantidadDisponibles() + tienda.cantidadPrestados(), tienda.cantidadDisponibles(),
+                tienda.cantidadUsuarios(), tienda.ultimoIdComic(), tienda.ultimoIdUsuario());
+    }
+
+    @Override
+    public Comic buscarComicPorId(String id) throws ComicNoEncontradoException {
+        return tienda.buscarComicPorId(id);
+    }
+
+    @Override
+    public List<Comic> buscarComicsPorTituloParcial(String texto) {
+        return tienda.buscarComicsPorTituloParcial(texto);
+    }
+
+    @Override
+    public List<Comic> buscarComicsPorAutorParcial(String texto) {
+        return tienda.buscarComicsPorAutorParcial(texto);
+    }
+
+    @Override
+    public List<Comic> comicsPrestadosA(String emailUsuario) {
+        return tienda.comicsPrestadosA(emailUsuario);
+    }
+
+    @Override
+    public List<Posicion> paginaComics(String criterio, String cursor, int tamano) {
+        VistaOrdenada.Cursor desde = cursor == null ? null : tienda.cursorComicsDesdeTexto(criterio, cursor);
+        List<VistaOrdenada.Posicion<Comic>> posiciones = tienda.posicionesComics(criterio, desde, tamano);
+        List<Posicion> resultado = new ArrayList<>(posiciones.size());
+        for (VistaOrdenada.Posicion<Comic> posicion : posiciones) {
+            resultado.add(new Posicion(posicion.valor(), tienda.cursorComicsComoTexto(criterio, posicion.cursor())));
+        }
+        return resultado;
+    }
+
+    @Override
+    public Usuario getUsuarioPorEmail(String email) {
+        return tienda.getUsuarioPorEmail(email);
+    }
+
+    @Override
+    public List<ResultadoOperacion> registrarComics(List<Comic> comics) {
+        return tienda.registrarComics(comics);
+    }
+
+    @Override
+    public List<ResultadoOperacion> registrarUsuarios(List<Usuario> usuarios) {
+        return tienda.registrarUsuarios(usuarios);
+    }
+
+    @Override
+    public void prestarComicPorId(String idComic, String emailUsuario) throws ComicNoEncontradoException, ComicYaPrestadoException {
+        tienda.prestarComicPorId(idComic, emailUsuario);
+    }
+
+    @Override
+    public void devolverComic(String idComic) throws ComicNoEncontradoException, ComicNoPrestadoException {
+        tienda.devolverComic(idComic);
+    }
+
+    /**
+     * Guarda la partición y cierra su diario.
+     */
+    @Override
+    public void close() {
+        tienda.cerrar();
+    }
+}
@@ -0,0 +1,16 @@
+package com.diegocarvajal.comiccollectorsystem.models;
+
+/**
+ * Resultado de una operación dentro de un lote.
+ * La clave identifica el elemento (id del cómic o email del usuario) y el mensaje explica el resultado.
+ */
+public record ResultadoOperacion(String clave, boolean exito, String mensaje) {
+
+    public static ResultadoOperacion exito(String clave, String mensaje) {
+        return new ResultadoOperacion(clave, true, mensaje);
+    }
+
+    public static ResultadoOperacion error(String clave, String mensaje) {
+        return new ResultadoOperacion(clave, false, mensaje);
+    }
+}
@@ -0,0 +1,7 @@
+package com.diegocarvajal.comiccollectorsystem.models;
+
+/**
+ * Solicitud de préstamo dentro de un lote: el id del cómic y el email del usuario que lo retira.
+ */
+public record SolicitudPrestamo(String idComic, String emailUsuario) {
+}
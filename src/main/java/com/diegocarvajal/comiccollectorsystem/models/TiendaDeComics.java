@@ -1,135 +1,963 @@
 package com.diegocarvajal.comiccollectorsystem.models;
 
 import com.diegocarvajal.comiccollectorsystem.services.ComicsServicio;
+import com.diegocarvajal.comiccollectorsystem.services.DiarioMutaciones;
+import com.diegocarvajal.comiccollectorsystem.services.InstantaneaServicio;
+import com.diegocarvajal.comiccollectorsystem.services.RegistroRechazos;
 import com.diegocarvajal.comiccollectorsystem.services.UsuariosServicio;
 import com.diegocarvajal.comiccollectorsystem.exceptions.ComicNoEncontradoException;
+import com.diegocarvajal.comiccollectorsystem.exceptions.ComicNoPrestadoException;
 import com.diegocarvajal.comiccollectorsystem.exceptions.ComicYaPrestadoException;
+import com.diegocarvajal.comiccollectorsystem.utils.BitsConcurrentes;
+import com.diegocarvajal.comiccollectorsystem.utils.GeneradorIds;
+import com.diegocarvajal.comiccollectorsystem.utils.ImpresorMasivo;
+import com.diegocarvajal.comiccollectorsystem.utils.ListaSoloAgregar;
+import com.diegocarvajal.comiccollectorsystem.utils.Validaciones;
+import com.diegocarvajal.comiccollectorsystem.utils.Metricas;
+import com.diegocarvajal.comiccollectorsystem.utils.Normalizacion;
+import com.diegocarvajal.comiccollectorsystem.utils.VistaOrdenada;
 
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
  * Clase principal que gestiona la lógica de la tienda de cómics.
  * Aquí se almacenan y manipulan los cómics y usuarios, y se realizan operaciones como registrar, buscar, prestar y guardar datos.
+ * Puede usarse desde varios hilos: las búsquedas no se bloquean, los registros se hacen de a uno
+ * y los préstamos se sincronizan por cómic mediante candados repartidos (lock striping).
  */
+// Las mediciones de métricas se abren con try-with-resources y solo se cierran, sin usarse dentro del bloque
+@SuppressWarnings("try")
 public class TiendaDeComics {
+    // Directorio por defecto de los archivos de datos
+    public static final String DIRECTORIO_DATOS = "src/main/java/com/diegocarvajal/comiccollectorsystem/data/";
+
+    // Cantidad de candados para préstamos; cada cómic usa siempre el mismo
+    private static final int CANDADOS_PRESTAMO = 256;
+    // Cantidad de modificaciones sin guardar que adelanta el guardado periódico
+    public static final long UMBRAL_CAMBIOS = 10_000;
+
+    /**
+     * Dónde se guardan los datos de cada cómic (id, título, autor, estado y asignado).
+     * Los índices y las operaciones de la tienda son los mismos con cualquier almacenamiento.
+     */
+    public enum Almacenamiento {
+        // Cada cómic es un objeto Comic con sus propios textos
+        OBJETOS,
+        // Los datos van en un CatalogoCompacto por columnas; la tienda guarda una vista por cómic que los lee y escribe
+        COMPACTO,
+        // Los datos van fuera del heap, en un AlmacenComicsMapeado temporal que se borra al cerrar la tienda
+        MAPEADO
+    }
+
     // Lista de cómics disponibles en la tienda
-    private ArrayList<Comic> comics = new ArrayList<>();
+    private ListaSoloAgregar<Comic> comics = new ListaSoloAgregar<>(1024);
+    // Columnas con los datos de los cómics, o null si cada cómic guarda los suyos; cada posición coincide con la ranura
+    private final AlmacenComics almacen;
     // Mapa de usuarios registrados, usando el email como clave para evitar duplicados
-    private HashMap<String, Usuario> usuarios = new HashMap<>();
+    private ConcurrentHashMap<String, Usuario> usuarios = new ConcurrentHashMap<>();
+    // Índices secundarios para búsquedas en tiempo constante (título y autor en minúsculas)
+    private ConcurrentHashMap<String, Comic> comicsPorId = new ConcurrentHashMap<>();
+    private ConcurrentHashMap<String, CopiasTitulo> comicsPorTitulo = new ConcurrentHashMap<>();
+    private ConcurrentHashMap<String, ListaSoloAgregar<Comic>> comicsPorAutor = new ConcurrentHashMap<>();
+    // Índices de trigramas para búsquedas parciales por título y autor
+    private IndiceTrigramas indiceTitulos = new IndiceTrigramas();
+    private IndiceTrigramas indiceAutores = new IndiceTrigramas();
+    // Índices de similitud sobre los títulos y autores distintos, para sugerir cómics cuando hay errores de tipeo
+    private IndiceDifuso<CopiasTitulo> titulosParecidos = new IndiceDifuso<>();
+    private IndiceDifuso<ListaSoloAgregar<Comic>> autoresParecidos = new IndiceDifuso<>();
+    // Resultados recientes de las búsquedas parciales (hasta 100.000 cómics referenciados en total)
+    private CacheBusquedas cacheBusquedas = new CacheBusquedas(100_000);
+    // Vistas ordenadas que se mantienen al agregar, para listar sin reordenar ni perder repetidos
+    private VistaOrdenada<Comic> comicsPorTituloOrdenados = new VistaOrdenada<>(ordenComics("titulo"));
+    private VistaOrdenada<Comic> comicsPorAutorOrdenados = new VistaOrdenada<>(ordenComics("autor"));
+    private VistaOrdenada<Comic> comicsPorIdOrdenados = new VistaOrdenada<>(ordenComics("id"));
+    private VistaOrdenada<Usuario> usuariosPorEmail = new VistaOrdenada<>(Comparator.comparing(Usuario::getEmail));
+    // Índice inverso de préstamos: email del usuario -> cómics que tiene prestados actualmente
+    private ConcurrentHashMap<String, Set<Comic>> prestamosPorUsuario = new ConcurrentHashMap<>();
+    // Un bit por posición del catálogo, activo si el cómic está disponible
+    private BitsConcurrentes disponibles = new BitsConcurrentes();
+    // Generadores de ids, alimentados al cargar los CSV
+    private GeneradorIds idsComics = new GeneradorIds();
+    private GeneradorIds idsUsuarios = new GeneradorIds();
     // Servicios para leer y escribir archivos CSV de cómics y usuarios
     private ComicsServicio comicsServicio = new ComicsServicio();
     private UsuariosServicio usuariosServicio = new UsuariosServicio();
+    private InstantaneaServicio instantaneaServicio = new InstantaneaServicio();
+    // Rutas de los CSV desde los que se cargó la tienda (destino de la compactación del diario)
+    private final String rutaComics;
+    private final String rutaUsuarios;
+    // Ruta de la instantánea binaria que también se escribe al compactar (null si no se usa)
+    private String rutaInstantanea;
+    // Diario de modificaciones y tarea que lo compacta periódicamente (null si no está activo)
+    private DiarioMutaciones diario;
+    private volatile ScheduledExecutorService compactador;
+    // Modificaciones aún no escritas en los CSV; al llegar al umbral se pide un guardado (solo uno a la vez)
+    private final AtomicLong cambiosSinGuardar = new AtomicLong();
+    private long umbralCambios = UMBRAL_CAMBIOS;
+    private final AtomicBoolean guardadoPedido = new AtomicBoolean();
+    // Evita dos guardados simultáneos sin bloquear los registros, que usan el monitor de la tienda
+    private final Object candadoGuardado = new Object();
+    // Latencias por operación e indicadores de tamaño; se vuelcan periódicamente a un archivo si se activa
+    private final Metricas metricas = new Metricas();
+    private ScheduledExecutorService volcadorMetricas;
+    private Path rutaMetricas;
+    // Candados por cómic para que dos préstamos del mismo cómic no se mezclen
+    private final Object[] candadosPrestamo = new Object[CANDADOS_PRESTAMO];
+    // Las modificaciones lo toman en modo compartido; la compactación en modo exclusivo para copiar un estado consistente
+    private final ReentrantReadWriteLock candadoCompactacion = new ReentrantReadWriteLock();
+
+    /**
+     * Constructor interno: prepara una tienda vacía asociada a las rutas indicadas, sin cargar datos.
+     * Las tiendas se crean con {@link #desdeCSV} o {@link #desdeInstantanea}, que cargan los datos y registran
+     * los indicadores una vez construida la tienda.
+     */
+    private TiendaDeComics(String rutaComics, String rutaUsuarios, Almacenamiento almacenamiento) {
+        this.rutaComics = rutaComics;
+        this.rutaUsuarios = rutaUsuarios;
+        this.almacen = switch (almacenamiento) {
+            case OBJETOS -> null;
+            case COMPACTO -> new CatalogoCompacto(16);
+            case MAPEADO -> almacenMapeadoTemporal();
+        };
+        for (int i = 0; i < candadosPrestamo.length; i++) {
+            candadosPrestamo[i] = new Object();
+        }
+    }
+
+    private static AlmacenComicsMapeado almacenMapeadoTemporal() {
+        try {
+            return AlmacenComicsMapeado.temporal();
+        } catch (IOException e) {
+            throw new IllegalStateException("No se pudo crear el almacenamiento mapeado: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Crea la tienda cargando los CSV de la carpeta de datos por defecto.
+     * Con cargaParalela el CSV de cómics se mapea en memoria y se procesa en paralelo.
+     */
+    public static TiendaDeComics desdeCSV(boolean cargaParalela) {
+        return desdeCSV(DIRECTORIO_DATOS + "comics.csv", DIRECTORIO_DATOS + "usuarios.csv", cargaParalela);
+    }
+
+    /**
+     * Crea la tienda cargando los CSV indicados.
+     */
+    public static TiendaDeComics desdeCSV(String rutaComics, String rutaUsuarios, boolean cargaParalela) {
+        return desdeCSV(rutaComics, rutaUsuarios, cargaParalela, Almacenamiento.OBJETOS);
+    }
+
+    /**
+     * Crea la tienda cargando los CSV indicados y guardando los datos de los cómics en el almacenamiento elegido.
+     * Fuera de {@link Almacenamiento#OBJETOS} solo se admiten ids que cumplen {@link AlmacenComics#errorId};
+     * las filas con otros ids se anotan como rechazadas.
+     */
+    public static TiendaDeComics desdeCSV(String rutaComics, String rutaUsuarios, boolean cargaParalela, Almacenamiento almacenamiento) {
+        TiendaDeComics tienda = new TiendaDeComics(rutaComics, rutaUsuarios, almacenamiento);
+        tienda.cargarDesdeCSV(cargaParalela);
+        tienda.registrarIndicadores();
+        return tienda;
+    }
+
+    /**
+     * Agrega a las métricas los indicadores de tamaño del catálogo, memoria y caché de búsquedas.
+     * Se llama desde las fábricas, con la tienda ya construida, para no publicar la tienda desde el constructor.
+     */
+    private void registrarIndicadores() {
+        metricas.registrarIndicador("comics", () -> comics.tamano());
+        metricas.registrarIndicador("usuarios", () -> usuarios.size());
+        metricas.registrarIndicador("comicsDisponibles", this::cantidadDisponibles);
+        metricas.registrarIndicador("comicsPrestados", this::cantidadPrestados);
+        metricas.registrarIndicador("heapUsadoBytes", TiendaDeComics::heapUsado);
+        metricas.registrarIndicador("cacheBusquedasAciertos", () -> cacheBusquedas.estadisticas().aciertos());
+        metricas.registrarIndicador("cacheBusquedasFallos", () -> cacheBusquedas.estadisticas().fallos());
+        metricas.registrarIndicador("cacheBusquedasDesalojos", () -> cacheBusquedas.estadisticas().desalojos());
+        metricas.registrarIndicador("cambiosSinGuardar", cambiosSinGuardar::get);
+        if (almacen != null) {
+            metricas.registrarIndicador("almacenBytesPorComic", this::bytesPorComicAlmacenados);
+        }
+        if (almacen instanceof AlmacenComicsMapeado mapeado) {
+            metricas.registrarIndicador("almacenBytesEnHeapPorComic", () -> mapeado.bytesEnHeap() / Math.max(1, mapeado.cantidad()));
+        }
+    }
+
+    /**
+     * Bytes por cómic que ocupa el almacenamiento elegido al crear la tienda, según su propia estimación,
+     * o -1 si los cómics se guardan como objetos. No incluye los índices de la tienda.
+     */
+    public long bytesPorComicAlmacenados() {
+        if (almacen == null) {
+            return -1;
+        }
+        return almacen.bytesOcupados() / Math.max(1, almacen.cantidad());
+    }
+
+    private static long heapUsado() {
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /**
+     * Crea la tienda desde la instantánea binaria de la carpeta de datos por defecto.
+     * Si no existe o está dañada, carga los CSV. Desde ahí, cada compactación actualiza también la instantánea.
+     */
+    public static TiendaDeComics desdeInstantanea(String rutaInstantanea, boolean cargaParalela) {
+        return desdeInstantanea(rutaInstantanea, DIRECTORIO_DATOS + "comics.csv", DIRECTORIO_DATOS + "usuarios.csv", cargaParalela);
+    }
+
+    /**
+     * Crea la tienda desde la instantánea binaria indicada, usando los CSV como respaldo si no existe o está dañada.
+     */
+    public static TiendaDeComics desdeInstantanea(String rutaInstantanea, String rutaComics, String rutaUsuarios, boolean cargaParalela) {
+        return desdeInstantanea(rutaInstantanea, rutaComics, rutaUsuarios, cargaParalela, Almacenamiento.OBJETOS);
+    }
+
+    /**
+     * Igual que {@link #desdeInstantanea(String, String, String, boolean)}, guardando los datos de los cómics
+     * en el almacenamiento elegido, con las mismas condiciones que {@link #desdeCSV(String, String, boolean, Almacenamiento)}.
+     */
+    public static TiendaDeComics desdeInstantanea(String rutaInstantanea, String rutaComics, String rutaUsuarios, boolean cargaParalela,
+                                                  Almacenamiento almacenamiento) {
+        TiendaDeComics tienda = new TiendaDeComics(rutaComics, rutaUsuarios, almacenamiento);
+        tienda.rutaInstantanea = rutaInstantanea;
+        if (!new File(rutaInstantanea).exists() || !tienda.cargarInstantanea(rutaInstantanea)) {
+            tienda.cerrarAlmacen();
+            tienda = new TiendaDeComics(rutaComics, rutaUsuarios, almacenamiento);
+            tienda.rutaInstantanea = rutaInstantanea;
+            tienda.cargarDesdeCSV(cargaParalela);
+        }
+        tienda.registrarIndicadores();
+        return tienda;
+    }
 
     /**
-     * Constructor: carga los datos de cómics y usuarios desde archivos CSV al iniciar la aplicación.
+     * Carga cómics y usuarios desde los CSV de la tienda.
      */
-    public TiendaDeComics() {
-        cargarComicsDesdeCSV("src/main/java/com/diegocarvajal/comiccollectorsystem/data/comics.csv");
-        cargarUsuariosDesdeCSV("src/main/java/com/diegocarvajal/comiccollectorsystem/data/usuarios.csv");
+    private void cargarDesdeCSV(boolean cargaParalela) {
+        if (cargaParalela) {
+            cargarComicsEnParalelo(rutaComics);
+        } else {
+            cargarComicsDesdeCSV(rutaComics);
+        }
+        cargarUsuariosDesdeCSV(rutaUsuarios);
     }
 
     /**
-     * Lee los cómics desde un archivo CSV y los agrega a la lista.
+     * Lee la instantánea binaria y agrega sus cómics y usuarios. Devuelve false si no se pudo leer
+     * o si tiene ids que el almacenamiento elegido no admite (al cargar los CSV esas filas quedan como rechazadas).
+     */
+    private boolean cargarInstantanea(String ruta) {
+        try (Metricas.Medicion medicion = metricas.medir("cargarInstantanea")) {
+            try {
+                boolean[] idNoAdmitido = {false};
+                instantaneaServicio.leerInstantanea(ruta, new InstantaneaServicio.ProcesadorInstantanea() {
+                    @Override
+                    public void comic(String id, String titulo, String autor, boolean estado, String asignadoA) {
+                        if (errorDelAlmacen(id) != null) {
+                            idNoAdmitido[0] = true;
+                        } else {
+                            incorporarComic(new Comic(id, titulo, autor, estado, asignadoA));
+                        }
+                    }
+
+                    @Override
+                    public void usuario(String id, String nombre, String apellido, String email, String telefono) {
+                        incorporarUsuario(new Usuario(id, nombre, apellido, email, telefono));
+                    }
+                });
+                if (idNoAdmitido[0]) {
+                    System.err.println("La instantánea binaria tiene ids que el almacenamiento no admite, se cargarán los CSV.");
+                    return false;
+                }
+                return true;
+            } catch (IOException e) {
+                System.err.println("Error al leer la instantánea binaria, se cargarán los CSV: " + e.getMessage());
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Lee los cómics desde un archivo CSV y los agrega a la lista a medida que se leen.
+     * Las filas que no pasan {@link Validaciones#errorFilaComic} se anotan en el archivo de rechazos.
      */
     private void cargarComicsDesdeCSV(String rutaArchivo) {
-        List<String[]> datos = comicsServicio.leerComicCSV(rutaArchivo);
-        boolean esPrimera = true;
-        for (String[] fila : datos) {
-            if (esPrimera) { esPrimera = false; continue; } // Saltar cabecera
-            // Asegurarse de que siempre haya 5 columnas
-            String[] normalizado = new String[5];
-            for (int i = 0; i < 5; i++) {
-                normalizado[i] = (i < fila.length) ? fila[i] : "";
+        try (Metricas.Medicion medicion = metricas.medir("cargarComicsCSV")) {
+            RegistroRechazos rechazos = registroRechazos(rutaArchivo);
+            try {
+                long[] linea = {1};
+                comicsServicio.leerComicCSV(rutaArchivo, (fila, cantidad) -> {
+                    linea[0]++;
+                    if (cantidad == 1 && fila[0].isEmpty()) {
+                        return; // Línea vacía
+                    }
+                    String error = Validaciones.errorFilaComic(fila, cantidad);
+                    if (error == null) {
+                        error = errorDelAlmacen(fila[0]);
+                    }
+                    if (error == null) {
+                        incorporarComic(crearComicDesdeFila(fila, cantidad));
+                    } else {
+                        anotarRechazo(rechazos, linea[0], error, fila, cantidad);
+                    }
+                });
+            } finally {
+                cerrarRechazos(rechazos);
+            }
+        }
+    }
+
+    /**
+     * Fila del CSV rechazada durante la carga paralela, con una copia de sus campos.
+     */
+    private record FilaRechazada(String motivo, String[] campos) {}
+
+    /**
+     * Lee los cómics mapeando el CSV en memoria y procesándolo en paralelo; luego los agrega en el orden del archivo.
+     * Las filas se validan en paralelo y las rechazadas se anotan en el archivo de rechazos, igual que las que tienen
+     * un id que el almacenamiento no admite (estas se revisan al agregarlas).
+     */
+    private void cargarComicsEnParalelo(String rutaArchivo) {
+        try (Metricas.Medicion medicion = metricas.medir("cargarComicsCSVParalelo")) {
+            RegistroRechazos rechazos = registroRechazos(rutaArchivo);
+            try {
+                List<Object> leidos = comicsServicio.leerComicCSVParalelo(rutaArchivo, TiendaDeComics::convertirFilaComic);
+                for (int i = 0; i < leidos.size(); i++) {
+                    Object leido = leidos.get(i);
+                    // La primera fila de datos es la línea 2 del archivo
+                    if (leido instanceof Comic comic) {
+                        String error = errorDelAlmacen(comic.getId());
+                        if (error == null) {
+                            incorporarComic(comic);
+                        } else {
+                            String[] campos = {comic.getId(), comic.getTitulo(), comic.getAutor(), comic.getEstado().toString(), comic.getAsignadoA()};
+                            anotarRechazo(rechazos, i + 2, error, campos, campos.length);
+                        }
+                    } else if (leido instanceof FilaRechazada rechazada) {
+                        anotarRechazo(rechazos, i + 2, rechazada.motivo(), rechazada.campos(), rechazada.campos().length);
+                    }
+                }
+            } finally {
+                cerrarRechazos(rechazos);
             }
-            String id = normalizado[0];
-            String titulo = normalizado[1];
-            String autor = normalizado[2];
-            Boolean estado = Boolean.parseBoolean(normalizado[3]);
-            String asignadoA = normalizado[4];
-            comics.add(new Comic(id, titulo, autor, estado, asignadoA));
         }
     }
 
     /**
-     * Lee los usuarios desde un archivo CSV y los agrega al mapa de usuarios.
+     * Convierte una fila en un cómic, en una {@link FilaRechazada} si no es válida o en null si la línea está vacía.
+     */
+    private static Object convertirFilaComic(String[] fila, int cantidad) {
+        if (cantidad == 1 && fila[0].isEmpty()) {
+            return null;
+        }
+        String error = Validaciones.errorFilaComic(fila, cantidad);
+        return error == null ? crearComicDesdeFila(fila, cantidad) : new FilaRechazada(error, Arrays.copyOf(fila, cantidad));
+    }
+
+    /**
+     * Crea un cómic a partir de una fila del CSV, asegurándose de que siempre haya 5 columnas.
+     */
+    private static Comic crearComicDesdeFila(String[] fila, int cantidad) {
+        String id = cantidad > 0 ? fila[0] : "";
+        String titulo = cantidad > 1 ? fila[1] : "";
+        String autor = cantidad > 2 ? fila[2] : "";
+        Boolean estado = cantidad > 3 && Boolean.parseBoolean(fila[3]);
+        String asignadoA = cantidad > 4 ? fila[4] : "";
+        return new Comic(id, titulo, autor, estado, asignadoA);
+    }
+
+    /**
+     * Lee los usuarios desde un archivo CSV y los agrega al mapa de usuarios a medida que se leen.
+     * Las filas que no pasan {@link Validaciones#errorFilaUsuario} se anotan en el archivo de rechazos.
      */
     private void cargarUsuariosDesdeCSV(String rutaArchivo) {
-        List<String[]> datos = usuariosServicio.leerUsuariosCSV(rutaArchivo);
-        boolean esPrimera = true;
-        for (String[] fila : datos) {
-            if (esPrimera) { esPrimera = false; continue; } // Saltar cabecera
-            if (fila.length == 5) {
-                // fila[0]=id, fila[1]=nombre, fila[2]=apellido, fila[3]=email, fila[4]=telefono
-                Usuario usuario = new Usuario(fila[0], fila[1], fila[2], fila[3], fila[4]);
-                usuarios.put(usuario.getEmail(), usuario);
+        try (Metricas.Medicion medicion = metricas.medir("cargarUsuariosCSV")) {
+            RegistroRechazos rechazos = registroRechazos(rutaArchivo);
+            try {
+                long[] linea = {1};
+                usuariosServicio.leerUsuariosCSV(rutaArchivo, (fila, cantidad) -> {
+                    linea[0]++;
+                    if (cantidad == 1 && fila[0].isEmpty()) {
+                        return; // Línea vacía
+                    }
+                    String error = Validaciones.errorFilaUsuario(fila, cantidad);
+                    if (error == null) {
+                        // fila[0]=id, fila[1]=nombre, fila[2]=apellido, fila[3]=email, fila[4]=telefono
+                        incorporarUsuario(new Usuario(fila[0], fila[1], fila[2], fila[3], fila[4]));
+                    } else {
+                        anotarRechazo(rechazos, linea[0], error, fila, cantidad);
+                    }
+                });
+            } finally {
+                cerrarRechazos(rechazos);
+            }
+        }
+    }
+
+    /**
+     * Registro de las filas rechazadas de un CSV, junto al archivo (por ejemplo comics.csv.rechazados).
+     * Se agrega al final para no perder rechazos de cargas anteriores: esas filas ya no vuelven a los CSV al guardar.
+     */
+    private static RegistroRechazos registroRechazos(String rutaArchivo) {
+        return new RegistroRechazos(Path.of(rutaArchivo + ".rechazados"), rutaArchivo, true);
+    }
+
+    private static void anotarRechazo(RegistroRechazos rechazos, long linea, String motivo, String[] campos, int cantidad) {
+        try {
+            rechazos.rechazar(linea, motivo, campos, cantidad);
+        } catch (IOException e) {
+            System.err.println("Error al anotar la fila rechazada " + linea + " (" + motivo + "): " + e.getMessage());
+        }
+    }
+
+    /**
+     * Cierra el registro de rechazos y avisa cuántas filas se omitieron.
+     */
+    private static void cerrarRechazos(RegistroRechazos rechazos) {
+        try {
+            rechazos.close();
+        } catch (IOException e) {
+            System.err.println("Error al cerrar el archivo de rechazos: " + e.getMessage());
+        }
+        if (rechazos.getCantidad() > 0) {
+            System.err.println(rechazos.getCantidad() + " filas no válidas se omitieron; detalle en " + rechazos.getRuta());
+        }
+    }
+
+    /**
+     * Activa el diario de modificaciones: aplica las entradas pendientes sobre los datos cargados,
+     * registra desde ahora cada modificación y compacta el diario en los CSV cada cierto intervalo.
+     */
+    public void activarDiario(String rutaDiario, long minutosEntreCompactaciones) {
+        activarDiario(rutaDiario, minutosEntreCompactaciones, UMBRAL_CAMBIOS);
+    }
+
+    /**
+     * Igual que {@link #activarDiario(String, long)}, pero además compacta antes de tiempo
+     * cuando se acumulan umbralCambios modificaciones sin guardar.
+     */
+    public synchronized void activarDiario(String rutaDiario, long minutosEntreCompactaciones, long umbralCambios) {
+        this.umbralCambios = umbralCambios;
+        try {
+            DiarioMutaciones nuevoDiario = new DiarioMutaciones(rutaDiario);
+            // Las entradas reproducidas aún no están en los CSV, así que cuentan como cambios sin guardar
+            nuevoDiario.reproducir((campos, cantidad) -> {
+                aplicarEntradaDiario(campos, cantidad);
+                cambiosSinGuardar.incrementAndGet();
+            });
+            diario = nuevoDiario;
+        } catch (IOException e) {
+            System.err.println("Error al abrir el diario de modificaciones: " + e.getMessage());
+            return;
+        }
+        compactador = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread hilo = new Thread(r, "compactador-diario");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        compactador.scheduleWithFixedDelay(this::guardarSiHayCambios, minutosEntreCompactaciones, minutosEntreCompactaciones, TimeUnit.MINUTES);
+    }
+
+    /**
+     * Vuelve a aplicar una entrada del diario. Las entradas ya presentes en los CSV se ignoran,
+     * así reproducir dos veces el mismo diario no duplica datos.
+     */
+    private void aplicarEntradaDiario(String[] campos, int cantidad) {
+        switch (campos[0]) {
+            case DiarioMutaciones.COMIC -> {
+                Comic comic = crearComicDesdeFila(Arrays.copyOfRange(campos, 1, cantidad), cantidad - 1);
+                String error = errorDelAlmacen(comic.getId());
+                if (error != null) {
+                    System.err.println("Entrada de diario omitida: " + error);
+                } else if (comicPorId(comic.getId()) == null) {
+                    incorporarComic(comic);
+                }
+            }
+            case DiarioMutaciones.USUARIO -> {
+                if (cantidad == 6 && !usuarios.containsKey(campos[4])) {
+                    incorporarUsuario(new Usuario(campos[1], campos[2], campos[3], campos[4], campos[5]));
+                }
+            }
+            case DiarioMutaciones.PRESTAMO -> {
+                Comic comic = cantidad == 3 ? comicPorId(campos[1]) : null;
+                if (comic != null) {
+                    intentarPrestar(comic, campos[2]);
+                }
+            }
+            case DiarioMutaciones.DEVOLUCION -> {
+                Comic comic = cantidad == 2 ? comicPorId(campos[1]) : null;
+                if (comic != null) {
+                    intentarDevolver(comic);
+                }
+            }
+            default -> System.err.println("Entrada de diario desconocida: " + campos[0]);
+        }
+    }
+
+    /**
+     * Agrega una entrada al diario, si está activo.
+     */
+    private void registrarEnDiario(String tipo, String... campos) {
+        anotarCambios(1);
+        if (diario == null) return;
+        try {
+            diario.registrar(tipo, campos);
+        } catch (IOException e) {
+            System.err.println("Error al escribir en el diario de modificaciones: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Agrega varias entradas al diario con una sola escritura, si está activo.
+     */
+    private void registrarLoteEnDiario(List<String[]> entradas) {
+        anotarCambios(entradas.size());
+        if (diario == null) return;
+        try {
+            diario.registrarLote(entradas);
+        } catch (IOException e) {
+            System.err.println("Error al escribir en el diario de modificaciones: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Suma modificaciones sin guardar y, si se llegó al umbral, pide un guardado en segundo plano.
+     * Mientras haya un guardado pedido que aún no empieza, las nuevas modificaciones se juntan en él.
+     */
+    private void anotarCambios(long cantidad) {
+        ScheduledExecutorService tareas = compactador;
+        if (cambiosSinGuardar.addAndGet(cantidad) >= umbralCambios && tareas != null
+                && guardadoPedido.compareAndSet(false, true)) {
+            try {
+                tareas.execute(this::guardarSiHayCambios);
+            } catch (RejectedExecutionException e) {
+                // La tienda se está cerrando; cerrar() guarda los cambios pendientes
+                guardadoPedido.set(false);
+            }
+        }
+    }
+
+    /**
+     * Compacta solo si hay modificaciones sin guardar o si falta la instantánea.
+     * Devuelve false si había algo que guardar y no se pudo escribir.
+     */
+    public boolean guardarSiHayCambios() {
+        guardadoPedido.set(false);
+        if (cambiosSinGuardar.get() > 0 || (rutaInstantanea != null && !new File(rutaInstantanea).exists())) {
+            return compactar();
+        }
+        return true;
+    }
+
+    /**
+     * Escribe una copia completa de los datos en los CSV de origen (y la instantánea) y descarta el diario.
+     * Las modificaciones solo se detienen mientras se copian los datos en memoria; la escritura a disco
+     * se hace después, y las modificaciones que llegan mientras tanto van a un diario nuevo.
+     * No escribe nada en la consola si todo sale bien, porque normalmente corre en segundo plano mientras se usa el menú.
+     * Devuelve false si algún archivo no se pudo escribir (los cambios quedan en el diario).
+     */
+    public boolean compactar() {
+        synchronized (candadoGuardado) {
+            try (Metricas.Medicion medicion = metricas.medir("compactar")) {
+                List<String[]> comicsAGuardar;
+                List<String[]> usuariosAGuardar;
+                long cambios;
+                boolean diarioRotado = false;
+                candadoCompactacion.writeLock().lock();
+                try {
+                    comicsAGuardar = filasComics();
+                    usuariosAGuardar = filasUsuarios();
+                    cambios = cambiosSinGuardar.getAndSet(0);
+                    if (diario != null) {
+                        try {
+                            diario.rotar();
+                            diarioRotado = true;
+                        } catch (IOException e) {
+                            System.err.println("Error al rotar el diario de modificaciones: " + e.getMessage());
+                        }
+                    }
+                } finally {
+                    candadoCompactacion.writeLock().unlock();
+                }
+                boolean guardado = escribirComicsCSV(rutaComics, comicsAGuardar)
+                        && escribirUsuariosCSV(rutaUsuarios, usuariosAGuardar)
+                        && (rutaInstantanea == null || escribirInstantanea(rutaInstantanea, comicsAGuardar, usuariosAGuardar));
+                if (!guardado) {
+                    // El diario apartado se conserva y los cambios se vuelven a intentar en el próximo guardado
+                    cambiosSinGuardar.addAndGet(cambios);
+                } else if (diarioRotado) {
+                    try {
+                        diario.descartarPendiente();
+                    } catch (IOException e) {
+                        System.err.println("Error al descartar el diario de modificaciones: " + e.getMessage());
+                    }
+                }
+                return guardado;
+            }
+        }
+    }
+
+    /**
+     * Escribe el resumen de métricas en el archivo indicado cada cierto intervalo (y una última vez al cerrar).
+     */
+    public synchronized void activarVolcadoMetricas(String ruta, long segundosEntreVolcados) {
+        rutaMetricas = Path.of(ruta);
+        volcadorMetricas = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread hilo = new Thread(r, "volcado-metricas");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        volcadorMetricas.scheduleWithFixedDelay(this::volcarMetricas, segundosEntreVolcados, segundosEntreVolcados, TimeUnit.SECONDS);
+    }
+
+    private void volcarMetricas() {
+        try {
+            metricas.volcar(rutaMetricas);
+        } catch (IOException e) {
+            System.err.println("Error al escribir las métricas: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Devuelve el registro de métricas de la tienda.
+     */
+    public Metricas getMetricas() {
+        return metricas;
+    }
+
+    /**
+     * Guarda los datos en los CSV de origen, detiene las tareas periódicas y cierra el diario y el almacenamiento
+     * mapeado, si se usa (desde ahí la tienda ya no se puede usar). Devuelve false si los datos no se pudieron guardar.
+     */
+    public synchronized boolean cerrar() {
+        if (compactador != null) {
+            compactador.shutdownNow();
+            compactador = null;
+        }
+        if (volcadorMetricas != null) {
+            volcadorMetricas.shutdownNow();
+            volcadorMetricas = null;
+        }
+        boolean guardado = guardarSiHayCambios();
+        if (diario != null) {
+            try {
+                diario.close();
+            } catch (IOException e) {
+                System.err.println("Error al cerrar el diario de modificaciones: " + e.getMessage());
+            }
+            diario = null;
+        }
+        if (rutaMetricas != null) {
+            volcarMetricas();
+        }
+        cerrarAlmacen();
+        return guardado;
+    }
+
+    /**
+     * Cierra el almacenamiento si tiene archivos abiertos, como el mapeado (que además los borra).
+     */
+    private void cerrarAlmacen() {
+        if (almacen instanceof Closeable cerrable) {
+            try {
+                cerrable.close();
+            } catch (IOException e) {
+                System.err.println("Error al cerrar el almacenamiento de cómics: " + e.getMessage());
             }
         }
     }
 
     /**
-     * Agrega un cómic a la lista (no asigna id automáticamente).
+     * Agrega un cómic a la lista (no asigna id automáticamente). Aplica las mismas validaciones que la carga de los CSV
+     * y lanza IllegalArgumentException si el id está vacío o no lo admite el almacenamiento, o si los datos no pasan
+     * {@link Validaciones#errorComic}, así nunca entra a la tienda un cómic que luego no se pueda guardar.
+     * Fuera de {@link Almacenamiento#OBJETOS} la tienda guarda una copia de sus datos y no el objeto recibido.
+     */
+    public synchronized void agregarComic(Comic comic) {
+        String error = Validaciones.errorCampo("id", comic.getId());
+        if (error == null) {
+            error = errorDelAlmacen(comic.getId());
+        }
+        if (error == null) {
+            error = Validaciones.errorComic(comic.getTitulo(), comic.getAutor(), comic.getAsignadoA());
+        }
+        if (error != null) {
+            throw new IllegalArgumentException(error);
+        }
+        incorporarComic(comic);
+    }
+
+    /**
+     * Agrega a la lista y a los índices un cómic ya validado (cargado de los CSV, la instantánea o el diario, o de un registro).
+     * Si hay un almacenamiento, los datos se copian en él y la tienda guarda la vista que los lee.
+     */
+    private synchronized void incorporarComic(Comic nuevo) {
+        Comic comic = almacen == null ? nuevo
+                : almacen.comic(almacen.agregar(nuevo.getId(), nuevo.getTitulo(), nuevo.getAutor(), nuevo.getEstado(), nuevo.getAsignadoA()));
+        comic.ranura = comics.tamano();
+        disponibles.asegurarCapacidad(comic.ranura + 1);
+        // El bit de disponible se activa antes de publicar la ranura: quien ya ve el cómic en la lista ve también
+        // su bit, así los conteos y el listado de prestados nunca lo toman como prestado
+        if (comic.getEstado()) {
+            disponibles.activar(comic.ranura);
+        }
+        comics.agregar(comic);
+        idsComics.observar(comic.getId());
+        indexarComic(comic);
+    }
+
+    /**
+     * Agrega el cómic a los índices por id, título y autor, y a la cola de disponibles de su título o a los préstamos.
+     * Si hay títulos o ids repetidos, la búsqueda exacta devuelve el primero, igual que una búsqueda secuencial.
+     */
+    private void indexarComic(Comic comic) {
+        // Con almacenamiento, el índice por id es el del propio almacenamiento
+        if (almacen == null && comic.getId() != null) {
+            comicsPorId.putIfAbsent(comic.getId(), comic);
+        }
+        // Todos los índices usan las claves normalizadas que el cómic calculó al crearse
+        String claveTitulo = comic.getClaveTitulo();
+        String claveAutor = comic.getClaveAutor();
+        comic.copias = comicsPorTitulo.computeIfAbsent(claveTitulo, k -> {
+            CopiasTitulo copias = new CopiasTitulo(comic);
+            titulosParecidos.agregar(claveTitulo, copias);
+            return copias;
+        });
+        comicsPorAutor.computeIfAbsent(claveAutor, k -> {
+            ListaSoloAgregar<Comic> delAutor = new ListaSoloAgregar<>(4);
+            autoresParecidos.agregar(claveAutor, delAutor);
+            return delAutor;
+        }).agregar(comic);
+        indiceTitulos.agregar(comic, claveTitulo);
+        indiceAutores.agregar(comic, claveAutor);
+        comicsPorTituloOrdenados.agregar(comic);
+        comicsPorAutorOrdenados.agregar(comic);
+        comicsPorIdOrdenados.agregar(comic);
+        cacheBusquedas.invalidar(comic);
+        if (comic.getEstado()) {
+            comic.copias.agregarDisponible(comic);
+        } else if (comic.getAsignadoA() != null && !comic.getAsignadoA().isEmpty()) {
+            anotarPrestamo(comic, comic.getAsignadoA());
+        }
+    }
+
+    /**
+     * Devuelve el primer cómic agregado con el id dado, o null si no hay ninguno.
+     */
+    private Comic comicPorId(String id) {
+        if (almacen == null) {
+            return id == null ? null : comicsPorId.get(id);
+        }
+        int posicion = almacen.posicion(id);
+        return posicion < 0 ? null : comics.obtener(posicion);
+    }
+
+    /**
+     * Motivo por el que el almacenamiento no admite el id, o null si lo admite (o si no hay almacenamiento).
+     */
+    private String errorDelAlmacen(String id) {
+        return almacen == null ? null : AlmacenComics.errorId(id);
+    }
+
+    /**
+     * Agrega el cómic a los préstamos del usuario en el índice inverso.
+     */
+    private void anotarPrestamo(Comic comic, String emailUsuario) {
+        prestamosPorUsuario.computeIfAbsent(emailUsuario, k -> ConcurrentHashMap.newKeySet()).add(comic);
+    }
+
+    /**
+     * Agrega un usuario (que ya tiene id) al mapa y a la vista ordenada por email.
+     * Si el email ya existe, el usuario no se agrega.
+     */
+    private void incorporarUsuario(Usuario usuario) {
+        if (usuarios.putIfAbsent(usuario.getEmail(), usuario) == null) {
+            usuariosPorEmail.agregar(usuario);
+            idsUsuarios.observar(usuario.getId());
+        }
+    }
+
+    /**
+     * Devuelve el id del cómic como número para ordenar; los ids no numéricos quedan al final.
      */
-    public void agregarComic(Comic comic) {
-        comics.add(comic);
+    private static long idNumerico(Comic comic) {
+        try {
+            return Long.parseLong(comic.getId());
+        } catch (NumberFormatException e) {
+            return Long.MAX_VALUE;
+        }
     }
 
     /**
      * Registra un nuevo cómic, asignando un id incremental y estado disponible o prestado según si está asignado.
+     * Lanza IllegalArgumentException si los datos no pasan {@link Validaciones#errorComic}, igual que en el registro por lotes.
      */
-    public void registrarComic(String titulo, String autor, String asignadoA) {
-        // Buscar el id más alto actual
-        int maxId = 0;
-        for (Comic comic : comics) {
+    public synchronized void registrarComic(String titulo, String autor, String asignadoA) {
+        try (Metricas.Medicion medicion = metricas.medir("registrarComic")) {
+            String error = Validaciones.errorComic(titulo, autor, asignadoA);
+            if (error != null) {
+                throw new IllegalArgumentException(error);
+            }
+            String nuevoId = idsComics.siguiente();
+            Boolean estadoBool = true; // Siempre disponible al registrar
+            String asignadoFinal = (asignadoA != null && !asignadoA.isEmpty()) ? asignadoA : "";
+            if (!asignadoFinal.isEmpty()) {
+                estadoBool = false;
+            }
+            Comic comic = new Comic(nuevoId, titulo, autor, estadoBool, asignadoFinal);
+            candadoCompactacion.readLock().lock();
             try {
-                int idComic = Integer.parseInt(comic.getId());
-                if (idComic > maxId) maxId = idComic;
-            } catch (NumberFormatException e) {
-                // Ignorar ids no numéricos
+                incorporarComic(comic);
+                registrarEnDiario(DiarioMutaciones.COMIC, nuevoId, titulo, autor, estadoBool.toString(), asignadoFinal);
+            } finally {
+                candadoCompactacion.readLock().unlock();
             }
         }
-        String nuevoId = String.valueOf(maxId + 1);
-        Boolean estadoBool = true; // Siempre disponible al registrar
-        String asignadoFinal = (asignadoA != null && !asignadoA.isEmpty()) ? asignadoA : "";
-        if (!asignadoFinal.isEmpty()) {
-            estadoBool = false;
+    }
+
+    /**
+     * Registra un lote de cómics nuevos (usando su título, autor y asignadoA) en una sola pasada.
+     * Los que no pasan {@link Validaciones#errorComic} se rechazan con el motivo.
+     * A cada uno se le asigna un id, salvo a los que ya traen uno (como los que reparte {@link TiendaParticionada});
+     * esos se rechazan si el id ya existe. El lote completo se guarda en el diario con una sola escritura.
+     * Devuelve el resultado de cada cómic en el mismo orden, sin lanzar excepciones.
+     */
+    public synchronized List<ResultadoOperacion> registrarComics(List<Comic> nuevos) {
+        try (Metricas.Medicion medicion = metricas.medir("registrarComics")) {
+            List<ResultadoOperacion> resultados = new ArrayList<>(nuevos.size());
+            List<String[]> entradasDiario = new ArrayList<>(nuevos.size());
+            candadoCompactacion.readLock().lock();
+            try {
+                for (Comic nuevo : nuevos) {
+                    String error = Validaciones.errorComic(nuevo.getTitulo(), nuevo.getAutor(), nuevo.getAsignadoA());
+                    if (error != null) {
+                        resultados.add(ResultadoOperacion.error(null, error));
+                        continue;
+                    }
+                    boolean traeId = nuevo.getId() != null && !nuevo.getId().isEmpty();
+                    String errorId = traeId ? errorDelAlmacen(nuevo.getId()) : null;
+                    if (errorId != null) {
+                        resultados.add(ResultadoOperacion.error(nuevo.getId(), errorId));
+                        continue;
+                    }
+                    if (traeId && comicPorId(nuevo.getId()) != null) {
+                        resultados.add(ResultadoOperacion.error(nuevo.getId(), "Ya existe un comic con ID: " + nuevo.getId()));
+                        continue;
+                    }
+                    String asignadoFinal = nuevo.getAsignadoA() == null ? "" : nuevo.getAsignadoA();
+                    Boolean estado = asignadoFinal.isEmpty();
+                    Comic comic = new Comic(traeId ? nuevo.getId() : idsComics.siguiente(), nuevo.getTitulo(), nuevo.getAutor(), estado, asignadoFinal);
+                    incorporarComic(comic);
+                    entradasDiario.add(new String[]{DiarioMutaciones.COMIC, comic.getId(), comic.getTitulo(), comic.getAutor(), estado.toString(), asignadoFinal});
+                    resultados.add(ResultadoOperacion.exito(comic.getId(), "Comic registrado."));
+                }
+                registrarLoteEnDiario(entradasDiario);
+            } finally {
+                candadoCompactacion.readLock().unlock();
+            }
+            return resultados;
         }
-        Comic comic = new Comic(nuevoId, titulo, autor, estadoBool, asignadoFinal);
-        comics.add(comic);
     }
 
     /**
-     * Registra un nuevo usuario, asignando un id incremental único y evitando duplicados por email.
+     * Registra un lote de usuarios en una sola pasada, asignando ids (salvo a los que ya traen uno) y rechazando
+     * emails repetidos (ya registrados o repetidos dentro del mismo lote) y datos que no pasan {@link Validaciones#errorUsuario}.
+     * El lote se guarda en el diario con una sola escritura.
      */
-    public void registrarUsuario(Usuario usuario) {
-        if (usuarios.containsKey(usuario.getEmail())) {
-            System.out.println("Error: Ya existe un usuario registrado con ese email.");
-            return;
+    public synchronized List<ResultadoOperacion> registrarUsuarios(List<Usuario> nuevos) {
+        try (Metricas.Medicion medicion = metricas.medir("registrarUsuarios")) {
+            List<ResultadoOperacion> resultados = new ArrayList<>(nuevos.size());
+            List<String[]> entradasDiario = new ArrayList<>(nuevos.size());
+            candadoCompactacion.readLock().lock();
+            try {
+                for (Usuario usuario : nuevos) {
+                    String error = Validaciones.errorUsuario(usuario.getNombre(), usuario.getApellido(), usuario.getEmail(), usuario.getTelefono());
+                    if (error != null) {
+                        resultados.add(ResultadoOperacion.error(usuario.getEmail(), error));
+                        continue;
+                    }
+                    if (usuarios.containsKey(usuario.getEmail())) {
+                        resultados.add(ResultadoOperacion.error(usuario.getEmail(), "Ya existe un usuario registrado con ese email."));
+                        continue;
+                    }
+                    if (usuario.getId() == null || usuario.getId().isEmpty()) {
+                        usuario.setId(idsUsuarios.siguiente());
+                    }
+                    incorporarUsuario(usuario);
+                    entradasDiario.add(new String[]{DiarioMutaciones.USUARIO, usuario.getId(), usuario.getNombre(), usuario.getApellido(), usuario.getEmail(), usuario.getTelefono()});
+                    resultados.add(ResultadoOperacion.exito(usuario.getEmail(), "Usuario registrado con id " + usuario.getId() + "."));
+                }
+                registrarLoteEnDiario(entradasDiario);
+            } finally {
+                candadoCompactacion.readLock().unlock();
+            }
+            return resultados;
         }
-        // Asignar id incremental automáticamente
-        int maxId = 1;
-        for (Usuario u : usuarios.values()) {
+    }
+
+    /**
+     * Registra un nuevo usuario, asignando un id incremental único.
+     * Lanza IllegalArgumentException si los datos no pasan {@link Validaciones#errorUsuario} o si el email ya está
+     * registrado, igual que el registro por lotes.
+     */
+    public synchronized void registrarUsuario(Usuario usuario) {
+        try (Metricas.Medicion medicion = metricas.medir("registrarUsuario")) {
+            String error = Validaciones.errorUsuario(usuario.getNombre(), usuario.getApellido(), usuario.getEmail(), usuario.getTelefono());
+            if (error != null) {
+                throw new IllegalArgumentException(error);
+            }
+            if (usuarios.containsKey(usuario.getEmail())) {
+                throw new IllegalArgumentException("Ya existe un usuario registrado con ese email.");
+            }
+            // Asignar id incremental automáticamente
+            usuario.setId(idsUsuarios.siguiente());
+            candadoCompactacion.readLock().lock();
             try {
-                int idU = Integer.parseInt(u.getId());
-                if (idU >= maxId) maxId = idU + 1;
-            } catch (NumberFormatException e) {
-                // Ignorar ids no numéricos
+                incorporarUsuario(usuario);
+                registrarEnDiario(DiarioMutaciones.USUARIO, usuario.getId(), usuario.getNombre(), usuario.getApellido(), usuario.getEmail(), usuario.getTelefono());
+            } finally {
+                candadoCompactacion.readLock().unlock();
             }
         }
-        usuario.setId(String.valueOf(maxId));
-        usuarios.put(usuario.getEmail(), usuario);
     }
 
     /**
-     * Busca un cómic por su título (ignorando mayúsculas/minúsculas).
+     * Busca un cómic por su título (ignorando mayúsculas, minúsculas y acentos).
      * Lanza excepción si no lo encuentra.
      */
     public Comic buscarComic(String titulo) throws ComicNoEncontradoException {
-        for (Comic comic : comics) {
-            if (comic.getTitulo().equalsIgnoreCase(titulo)) {
-                return comic;
-            }
+        try (Metricas.Medicion medicion = metricas.medir("buscarComic")) {
+            return copiasDe(titulo).primera();
         }
-        throw new ComicNoEncontradoException("Comic no encontrado: " + titulo);
+    }
+
+    /**
+     * Devuelve la copia disponible más antigua del título (ignorando mayúsculas, minúsculas y acentos)
+     * en tiempo constante, o null si todas están prestadas. Lanza excepción si no hay cómics con ese título.
+     */
+    public Comic siguienteCopiaDisponible(String titulo) throws ComicNoEncontradoException {
+        return copiasDe(titulo).primeraDisponible();
+    }
+
+    private CopiasTitulo copiasDe(String titulo) throws ComicNoEncontradoException {
+        CopiasTitulo copias = comicsPorTitulo.get(Normalizacion.clave(titulo));
+        if (copias == null) {
+            throw new ComicNoEncontradoException("Comic no encontrado: " + titulo);
+        }
+        return copias;
     }
 
     /**
@@ -137,40 +965,325 @@ public class TiendaDeComics {
      * Lanza excepción si no lo encuentra.
      */
     public Comic buscarComicPorId(String id) throws ComicNoEncontradoException {
-        for (Comic comic : comics) {
-            if (comic.getId().equals(id)) {
-                return comic;
+        try (Metricas.Medicion medicion = metricas.medir("buscarComicPorId")) {
+            Comic comic = comicPorId(id);
+            if (comic == null) {
+                throw new ComicNoEncontradoException("Comic no encontrado con ID: " + id);
             }
+            return comic;
         }
-        throw new ComicNoEncontradoException("Comic no encontrado con ID: " + id);
     }
 
     /**
-     * Busca todos los cómics de un autor (ignorando mayúsculas/minúsculas).
+     * Busca todos los cómics de un autor (ignorando mayúsculas, minúsculas y acentos).
      * Devuelve una lista de cómics encontrados.
      */
     public List<Comic> buscarComicsPorAutor(String autor) {
-        List<Comic> resultado = new ArrayList<>();
-        for (Comic comic : comics) {
-            if (comic.getAutor().equalsIgnoreCase(autor)) {
-                resultado.add(comic);
+        try (Metricas.Medicion medicion = metricas.medir("buscarComicsPorAutor")) {
+            ListaSoloAgregar<Comic> resultado = comicsPorAutor.get(Normalizacion.clave(autor));
+            return resultado == null ? new ArrayList<>() : resultado.copia();
+        }
+    }
+
+    /**
+     * Busca cómics cuyo título contiene el texto dado (ignorando mayúsculas, minúsculas y acentos).
+     * Devuelve los resultados ordenados por relevancia usando el índice de trigramas, o desde la caché
+     * si la misma consulta se hizo hace poco. La lista devuelta no se puede modificar.
+     */
+    public List<Comic> buscarComicsPorTituloParcial(String texto) {
+        try (Metricas.Medicion medicion = metricas.medir("buscarComicsPorTituloParcial")) {
+            return cacheBusquedas.obtener(CacheBusquedas.MODO_TITULO, texto, indiceTitulos::buscar);
+        }
+    }
+
+    /**
+     * Busca cómics cuyo autor contiene el texto dado (ignorando mayúsculas, minúsculas y acentos).
+     * Devuelve los resultados ordenados por relevancia usando el índice de trigramas, o desde la caché
+     * si la misma consulta se hizo hace poco. La lista devuelta no se puede modificar.
+     */
+    public List<Comic> buscarComicsPorAutorParcial(String texto) {
+        try (Metricas.Medicion medicion = metricas.medir("buscarComicsPorAutorParcial")) {
+            return cacheBusquedas.obtener(CacheBusquedas.MODO_AUTOR, texto, indiceAutores::buscar);
+        }
+    }
+
+    /**
+     * Sugiere hasta {@code cantidad} cómics cuyo título o autor se parece al texto dado, aunque tenga errores de tipeo,
+     * del más al menos parecido. Por cada título parecido se sugiere su copia disponible más antigua (o la primera
+     * si están todas prestadas); por cada autor parecido, sus cómics en orden de registro.
+     */
+    public List<Comic> sugerirComics(String texto, int cantidad) {
+        try (Metricas.Medicion medicion = metricas.medir("sugerirComics")) {
+            List<IndiceDifuso.Coincidencia<?>> coincidencias = new ArrayList<>(titulosParecidos.buscar(texto, cantidad));
+            coincidencias.addAll(autoresParecidos.buscar(texto, cantidad));
+            coincidencias.sort(Comparator.comparingDouble((IndiceDifuso.Coincidencia<?> c) -> c.similitud()).reversed());
+            Set<Comic> sugerencias = new LinkedHashSet<>();
+            for (IndiceDifuso.Coincidencia<?> coincidencia : coincidencias) {
+                if (coincidencia.valor() instanceof CopiasTitulo copias) {
+                    Comic disponible = copias.primeraDisponible();
+                    sugerencias.add(disponible != null ? disponible : copias.primera());
+                } else if (coincidencia.valor() instanceof ListaSoloAgregar<?> delAutor) {
+                    for (Object comic : delAutor) {
+                        if (sugerencias.size() >= cantidad) {
+                            break;
+                        }
+                        sugerencias.add((Comic) comic);
+                    }
+                }
+                if (sugerencias.size() >= cantidad) {
+                    break;
+                }
             }
+            return new ArrayList<>(sugerencias);
         }
-        return resultado;
     }
 
     /**
-     * Presta un cómic a un usuario registrado, cambiando su estado y asignando el email del usuario.
-     * Lanza excepción si el cómic no existe o ya está prestado.
+     * Aciertos, fallos, desalojos e invalidaciones de la caché de búsquedas.
+     */
+    public CacheBusquedas.Estadisticas estadisticasCacheBusquedas() {
+        return cacheBusquedas.estadisticas();
+    }
+
+    /**
+     * Presta a un usuario registrado la copia disponible más antigua del título, cambiando su estado y asignando el email.
+     * Lanza excepción si no hay cómics con ese título o si todas sus copias están prestadas.
      */
     public void prestarComic(String titulo, String emailUsuario) throws ComicNoEncontradoException, ComicYaPrestadoException {
-        Comic comic = buscarComic(titulo);
-        if (!comic.getEstado()) {
-            throw new ComicYaPrestadoException("El comic ya está prestado: " + titulo);
+        try (Metricas.Medicion medicion = metricas.medir("prestarComic")) {
+            CopiasTitulo copias = copiasDe(titulo);
+            candadoCompactacion.readLock().lock();
+            try {
+                Comic comic;
+                // Otro hilo puede prestar la copia elegida antes que nosotros; en ese caso se toma la siguiente
+                do {
+                    comic = copias.primeraDisponible();
+                    if (comic == null) {
+                        throw new ComicYaPrestadoException("El comic ya está prestado: " + copias.primera().getTitulo());
+                    }
+                } while (!intentarPrestar(comic, emailUsuario));
+                registrarEnDiario(DiarioMutaciones.PRESTAMO, comic.getId(), emailUsuario);
+            } finally {
+                candadoCompactacion.readLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Presta el cómic con el id dado a un usuario registrado.
+     * Lanza excepción si el cómic no existe o ya está prestado.
+     */
+    public void prestarComicPorId(String idComic, String emailUsuario) throws ComicNoEncontradoException, ComicYaPrestadoException {
+        try (Metricas.Medicion medicion = metricas.medir("prestarComicPorId")) {
+            Comic comic = buscarComicPorId(idComic);
+            prestar(comic, emailUsuario);
+        }
+    }
+
+    /**
+     * Devuelve a la tienda el cómic prestado con el id dado: queda disponible y sin asignar.
+     * Lanza excepción si el cómic no existe o no está prestado.
+     */
+    public void devolverComic(String idComic) throws ComicNoEncontradoException, ComicNoPrestadoException {
+        try (Metricas.Medicion medicion = metricas.medir("devolverComic")) {
+            Comic comic = buscarComicPorId(idComic);
+            candadoCompactacion.readLock().lock();
+            try {
+                if (!intentarDevolver(comic)) {
+                    throw new ComicNoPrestadoException("El comic no está prestado: " + comic.getTitulo());
+                }
+                registrarEnDiario(DiarioMutaciones.DEVOLUCION, comic.getId());
+            } finally {
+                candadoCompactacion.readLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Aplica un lote de préstamos (id de cómic, email de usuario) en una sola pasada.
+     * Primero resuelve todos los cómics y usuarios, luego presta cada cómic de forma atómica
+     * y guarda los préstamos exitosos en el diario con una sola escritura.
+     * Devuelve el resultado de cada solicitud en el mismo orden, sin lanzar excepciones.
+     */
+    public List<ResultadoOperacion> prestarComics(List<SolicitudPrestamo> solicitudes) {
+        try (Metricas.Medicion medicion = metricas.medir("prestarComics")) {
+            int n = solicitudes.size();
+            Comic[] comicsResueltos = new Comic[n];
+            boolean[] usuarioValido = new boolean[n];
+            for (int i = 0; i < n; i++) {
+                SolicitudPrestamo solicitud = solicitudes.get(i);
+                comicsResueltos[i] = comicPorId(solicitud.idComic());
+                usuarioValido[i] = solicitud.emailUsuario() != null && usuarios.containsKey(solicitud.emailUsuario());
+            }
+            List<ResultadoOperacion> resultados = new ArrayList<>(n);
+            List<String[]> entradasDiario = new ArrayList<>();
+            candadoCompactacion.readLock().lock();
+            try {
+                for (int i = 0; i < n; i++) {
+                    SolicitudPrestamo solicitud = solicitudes.get(i);
+                    Comic comic = comicsResueltos[i];
+                    if (comic == null) {
+                        resultados.add(ResultadoOperacion.error(solicitud.idComic(), "Comic no encontrado con ID: " + solicitud.idComic()));
+                    } else if (!usuarioValido[i]) {
+                        resultados.add(ResultadoOperacion.error(solicitud.idComic(), "El email no corresponde a un usuario registrado: " + solicitud.emailUsuario()));
+                    } else if (!intentarPrestar(comic, solicitud.emailUsuario())) {
+                        resultados.add(ResultadoOperacion.error(solicitud.idComic(), "El comic ya está prestado: " + comic.getTitulo()));
+                    } else {
+                        entradasDiario.add(new String[]{DiarioMutaciones.PRESTAMO, comic.getId(), solicitud.emailUsuario()});
+                        resultados.add(ResultadoOperacion.exito(solicitud.idComic(), "Comic prestado a " + solicitud.emailUsuario()));
+                    }
+                }
+                registrarLoteEnDiario(entradasDiario);
+            } finally {
+                candadoCompactacion.readLock().unlock();
+            }
+            return resultados;
+        }
+    }
+
+    /**
+     * Presta el cómic si está disponible, bajo su candado, y lo anota en los préstamos del usuario.
+     * Devuelve false si ya estaba prestado. No escribe en el diario: quien lo llama se encarga de hacerlo.
+     */
+    private boolean intentarPrestar(Comic comic, String emailUsuario) {
+        synchronized (candadoDe(comic)) {
+            if (!comic.getEstado()) {
+                return false;
+            }
+            comic.setEstado(false);
+            comic.setAsignadoA(emailUsuario);
+            disponibles.desactivar(comic.ranura);
+            comic.copias.quitarDisponible(comic);
+            anotarPrestamo(comic, emailUsuario);
+            return true;
+        }
+    }
+
+    /**
+     * Devuelve el cómic si está prestado, bajo su candado: lo marca disponible, lo quita de los préstamos del usuario
+     * y lo pone al final de las copias disponibles de su título. Devuelve false si no estaba prestado.
+     * No escribe en el diario: quien lo llama se encarga de hacerlo.
+     */
+    private boolean intentarDevolver(Comic comic) {
+        synchronized (candadoDe(comic)) {
+            if (comic.getEstado()) {
+                return false;
+            }
+            String email = comic.getAsignadoA();
+            if (email != null && !email.isEmpty()) {
+                Set<Comic> prestados = prestamosPorUsuario.get(email);
+                if (prestados != null) {
+                    prestados.remove(comic);
+                }
+            }
+            comic.setAsignadoA("");
+            comic.setEstado(true);
+            disponibles.activar(comic.ranura);
+            comic.copias.agregarDisponible(comic);
+            return true;
+        }
+    }
+
+    /**
+     * Presta el cómic de forma atómica: la verificación del estado y el cambio se hacen bajo el candado del cómic,
+     * así dos préstamos simultáneos del mismo cómic nunca tienen éxito ambos.
+     */
+    private void prestar(Comic comic, String emailUsuario) throws ComicYaPrestadoException {
+        candadoCompactacion.readLock().lock();
+        try {
+            if (!intentarPrestar(comic, emailUsuario)) {
+                throw new ComicYaPrestadoException("El comic ya está prestado: " + comic.getTitulo());
+            }
+            registrarEnDiario(DiarioMutaciones.PRESTAMO, comic.getId(), emailUsuario);
+        } finally {
+            candadoCompactacion.readLock().unlock();
+        }
+    }
+
+    /**
+     * Devuelve el candado que protege los préstamos del cómic dado.
+     */
+    private Object candadoDe(Comic comic) {
+        int hash = System.identityHashCode(comic);
+        return candadosPrestamo[(hash ^ (hash >>> 16)) & (CANDADOS_PRESTAMO - 1)];
+    }
+
+    /**
+     * Devuelve los cómics prestados actualmente al usuario con el email dado, ordenados por título.
+     * Usa el índice inverso de préstamos, así que solo recorre los préstamos del usuario y no todo el catálogo.
+     */
+    public List<Comic> comicsPrestadosA(String emailUsuario) {
+        try (Metricas.Medicion medicion = metricas.medir("comicsPrestadosA")) {
+            Set<Comic> prestados = emailUsuario == null ? null : prestamosPorUsuario.get(emailUsuario);
+            if (prestados == null) {
+                return new ArrayList<>();
+            }
+            List<Comic> resultado = new ArrayList<>(prestados);
+            resultado.sort(ordenComics("titulo"));
+            return resultado;
+        }
+    }
+
+    /**
+     * Cantidad de cómics disponibles, sin recorrer el catálogo.
+     */
+    public int cantidadDisponibles() {
+        return disponibles.cantidadActivos();
+    }
+
+    /**
+     * Cantidad de cómics prestados, sin recorrer el catálogo.
+     * El tamaño se lee antes que los bits: si incluye un cómic recién agregado, su bit ya está activo.
+     */
+    public int cantidadPrestados() {
+        int total = comics.tamano();
+        return Math.max(0, total - disponibles.cantidadActivos());
+    }
+
+    /**
+     * Devuelve los cómics disponibles en orden de llegada, recorriendo solo los bits activos del índice de disponibles.
+     */
+    public List<Comic> comicsDisponibles() {
+        return comicsPorDisponibilidad(true);
+    }
+
+    /**
+     * Devuelve los cómics prestados en orden de llegada, recorriendo solo los bits inactivos del índice de disponibles.
+     */
+    public List<Comic> comicsPrestados() {
+        return comicsPorDisponibilidad(false);
+    }
+
+    private List<Comic> comicsPorDisponibilidad(boolean disponible) {
+        int n = comics.tamano();
+        List<Comic> resultado = new ArrayList<>(disponible ? cantidadDisponibles() : cantidadPrestados());
+        int i = disponible ? disponibles.siguienteActivo(0, n) : disponibles.siguienteInactivo(0, n);
+        while (i >= 0) {
+            resultado.add(comics.obtener(i));
+            i = disponible ? disponibles.siguienteActivo(i + 1, n) : disponibles.siguienteInactivo(i + 1, n);
         }
-        comic.setEstado(false);
-        comic.setAsignadoA(emailUsuario);
-        System.out.println("Comic prestado con éxito: " + titulo + " a " + emailUsuario);
+        return resultado;
+    }
+
+    /**
+     * Mayor id numérico de cómic usado hasta ahora (0 si no hay ninguno).
+     */
+    public int ultimoIdComic() {
+        return idsComics.ultimo();
+    }
+
+    /**
+     * Mayor id numérico de usuario usado hasta ahora (0 si no hay ninguno).
+     */
+    public int ultimoIdUsuario() {
+        return idsUsuarios.ultimo();
+    }
+
+    /**
+     * Cantidad de usuarios registrados.
+     */
+    public int cantidadUsuarios() {
+        return usuarios.size();
     }
 
     /**
@@ -184,63 +1297,189 @@ public class TiendaDeComics {
      * Guarda la lista de cómics en un archivo CSV usando el servicio correspondiente.
      */
     public void guardarComicsEnCSV(String rutaArchivo) {
-        List<String[]> datos = new ArrayList<>();
+        escribirComicsCSV(rutaArchivo, filasComics());
+    }
+
+    /**
+     * Guarda la lista de usuarios en un archivo CSV usando el servicio correspondiente.
+     */
+    public void guardarUsuariosEnCSV(String rutaArchivo) {
+        escribirUsuariosCSV(rutaArchivo, filasUsuarios());
+    }
+
+    /**
+     * Guarda cómics y usuarios en una instantánea binaria, que se carga mucho más rápido que los CSV.
+     */
+    public void guardarInstantanea(String rutaArchivo) {
+        escribirInstantanea(rutaArchivo, filasComics(), filasUsuarios());
+    }
+
+    private boolean escribirComicsCSV(String rutaArchivo, List<String[]> filas) {
+        try (Metricas.Medicion medicion = metricas.medir("guardarComicsCSV")) {
+            return comicsServicio.escribirComicsCSV(rutaArchivo, filas);
+        }
+    }
+
+    private boolean escribirUsuariosCSV(String rutaArchivo, List<String[]> filas) {
+        try (Metricas.Medicion medicion = metricas.medir("guardarUsuariosCSV")) {
+            return usuariosServicio.escribirUsuariosCSV(rutaArchivo, filas);
+        }
+    }
+
+    private boolean escribirInstantanea(String rutaArchivo, List<String[]> comics, List<String[]> usuarios) {
+        try (Metricas.Medicion medicion = metricas.medir("guardarInstantanea")) {
+            instantaneaServicio.escribirInstantanea(rutaArchivo, comics, usuarios);
+            return true;
+        } catch (IOException e) {
+            System.err.println("Error al escribir la instantánea binaria: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Convierte los cómics en filas con las columnas del CSV.
+     */
+    private List<String[]> filasComics() {
+        List<String[]> datos = new ArrayList<>(comics.tamano());
         for (Comic comic : comics) {
             datos.add(new String[]{comic.getId(), comic.getTitulo(), comic.getAutor(), comic.getEstado().toString(), comic.getAsignadoA() == null ? "" : comic.getAsignadoA()});
         }
-        comicsServicio.escribirComicsCSV(rutaArchivo, datos);
+        return datos;
     }
 
     /**
-     * Guarda la lista de usuarios en un archivo CSV usando el servicio correspondiente.
+     * Convierte los usuarios en filas con las columnas del CSV.
      */
-    public void guardarUsuariosEnCSV(String rutaArchivo) {
-        List<String[]> datos = new ArrayList<>();
+    private List<String[]> filasUsuarios() {
+        List<String[]> datos = new ArrayList<>(usuarios.size());
         for (Usuario usuario : usuarios.values()) {
             datos.add(new String[]{usuario.getId(), usuario.getNombre(), usuario.getApellido(), usuario.getEmail(), usuario.getTelefono()});
         }
-        usuariosServicio.escribirUsuariosCSV(rutaArchivo, datos);
+        return datos;
     }
 
     /**
-     * Muestra los cómics ordenados según el criterio (título, autor o id), evitando duplicados.
+     * Muestra los cómics ordenados según el criterio (título, autor o id).
+     * Usa las vistas ya ordenadas, así que no reordena y muestra también los cómics con títulos repetidos.
      */
     public void mostrarComics(String criterio) {
-        // TreeSet para evitar duplicados y mostrar cómics ordenados según el criterio
-        Comparator<Comic> comparador;
-        switch (criterio) {
-            case "autor":
-                comparador = Comparator.comparing(Comic::getAutor).thenComparing(Comic::getTitulo);
-                break;
-            case "id":
-                comparador = Comparator.comparingInt(c -> Integer.parseInt(c.getId()));
-                break;
-            default:
-                comparador = Comparator.comparing(Comic::getTitulo);
+        ImpresorMasivo.imprimir(vistaOrdenada(criterio));
+    }
+
+    /**
+     * Devuelve una página de cómics ordenados según el criterio, a continuación del cursor (null para la primera).
+     * El cursor de la página devuelta solo sirve para el mismo criterio.
+     */
+    public VistaOrdenada.Pagina<Comic> paginaComics(String criterio, VistaOrdenada.Cursor desde, int tamano) {
+        try (Metricas.Medicion medicion = metricas.medir("paginaComics")) {
+            return vistaOrdenada(criterio).pagina(desde, tamano);
         }
-        TreeSet<Comic> comicsOrdenados = new TreeSet<>(comparador);
-        comicsOrdenados.addAll(comics);
-        for (Comic comic : comicsOrdenados) {
-            System.out.println(comic);
+    }
+
+    /**
+     * Igual que {@link #paginaComics}, pero con el cursor de cada cómic, para mezclar páginas de varias tiendas.
+     */
+    public List<VistaOrdenada.Posicion<Comic>> posicionesComics(String criterio, VistaOrdenada.Cursor desde, int tamano) {
+        try (Metricas.Medicion medicion = metricas.medir("paginaComics")) {
+            return vistaOrdenada(criterio).posiciones(desde, tamano);
         }
     }
 
     /**
-     * Muestra los usuarios ordenados por email, evitando duplicados.
+     * Convierte el cursor de una página de cómics en texto, para devolverlo fuera del proceso.
+     * El texto lleva los campos por los que se ordena (id, título y autor), no solo el id: con ids repetidos
+     * el id no alcanza para saber en qué cómic quedó la página.
      */
-    public void mostrarUsuarios() {
-        // TreeSet para evitar duplicados y mostrar usuarios ordenados por email
-        TreeSet<Usuario> usuariosOrdenados = new TreeSet<>(Comparator.comparing(Usuario::getEmail));
-        usuariosOrdenados.addAll(usuarios.values());
-        for (Usuario usuario : usuariosOrdenados) {
-            System.out.println(usuario);
+    public String cursorComicsComoTexto(String criterio, VistaOrdenada.Cursor cursor) {
+        return vistaOrdenada(criterio).cursorComoTexto(cursor, TiendaDeComics::claveDeOrden);
+    }
+
+    /**
+     * Reconstruye el cursor de una página de cómics desde el texto de {@link #cursorComicsComoTexto}.
+     * No busca el cómic en la tienda: arma uno de referencia con los mismos campos de orden.
+     * Lanza IllegalArgumentException si el texto no es válido.
+     */
+    public VistaOrdenada.Cursor cursorComicsDesdeTexto(String criterio, String texto) {
+        return vistaOrdenada(criterio).cursorDesdeTexto(texto, TiendaDeComics::comicDeReferencia);
+    }
+
+    /**
+     * Id, título y autor del cómic en Base64 apto para URL, separados por '.'. El texto no tiene ':' ni '|',
+     * así se puede unir con los cursores de otras particiones y enviar en la URL.
+     */
+    private static String claveDeOrden(Comic comic) {
+        Base64.Encoder codificador = Base64.getUrlEncoder().withoutPadding();
+        return codificar(codificador, comic.getId()) + "." + codificar(codificador, comic.getTitulo())
+                + "." + codificar(codificador, comic.getAutor());
+    }
+
+    private static String codificar(Base64.Encoder codificador, String texto) {
+        return codificador.encodeToString((texto == null ? "" : texto).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Cómic que ocupa en los tres órdenes el mismo lugar que el de {@link #claveDeOrden}, o null si el texto no es válido.
+     */
+    private static Comic comicDeReferencia(String clave) {
+        String[] partes = clave.split("\\.", -1);
+        if (partes.length != 3) {
+            return null;
         }
+        try {
+            Base64.Decoder decodificador = Base64.getUrlDecoder();
+            String[] campos = new String[3];
+            for (int i = 0; i < 3; i++) {
+                campos[i] = new String(decodificador.decode(partes[i]), StandardCharsets.UTF_8);
+            }
+            return new Comic(campos[0], campos[1], campos[2], true, "");
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Orden de los listados según el criterio (título por defecto); {@link TiendaParticionada} lo usa para
+     * mezclar las páginas de sus particiones en el mismo orden. Título y autor se comparan por sus claves
+     * normalizadas, así "Ángel" queda junto a "angel" y no después de la "z".
+     */
+    static Comparator<Comic> ordenComics(String criterio) {
+        return switch (criterio) {
+            case "autor" -> Comparator.comparing(Comic::getClaveAutor).thenComparing(ordenComics("titulo"));
+            case "id" -> Comparator.comparingLong(TiendaDeComics::idNumerico).thenComparing(Comic::getId, Comparator.nullsLast(Comparator.naturalOrder()));
+            // A igual clave (mismo título con otras mayúsculas o acentos) se desempata por el texto original
+            default -> Comparator.comparing(Comic::getClaveTitulo).thenComparing(Comic::getTitulo, Comparator.nullsFirst(Comparator.naturalOrder()));
+        };
+    }
+
+    /**
+     * Devuelve la vista ordenada que corresponde al criterio (título por defecto).
+     */
+    private VistaOrdenada<Comic> vistaOrdenada(String criterio) {
+        return switch (criterio) {
+            case "autor" -> comicsPorAutorOrdenados;
+            case "id" -> comicsPorIdOrdenados;
+            default -> comicsPorTituloOrdenados;
+        };
+    }
+
+    /**
+     * Muestra los usuarios ordenados por email.
+     */
+    public void mostrarUsuarios() {
+        ImpresorMasivo.imprimir(usuariosPorEmail);
+    }
+
+    /**
+     * Devuelve una página de usuarios ordenados por email, a continuación del cursor (null para la primera).
+     */
+    public VistaOrdenada.Pagina<Usuario> paginaUsuarios(VistaOrdenada.Cursor desde, int tamano) {
+        return usuariosPorEmail.pagina(desde, tamano);
     }
 
     /**
      * Devuelve la lista de cómics (solo para búsquedas y utilidades).
      */
     public List<Comic> getComics() {
-        return new ArrayList<>(comics);
+        return comics.copia();
     }
 }
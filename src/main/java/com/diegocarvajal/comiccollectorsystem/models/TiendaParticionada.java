@@ -0,0 +1,384 @@
+package com.diegocarvajal.comiccollectorsystem.models;
+
+import com.diegocarvajal.comiccollectorsystem.exceptions.ComicNoEncontradoException;
+import com.diegocarvajal.comiccollectorsystem.exceptions.ComicNoPrestadoException;
+import com.diegocarvajal.comiccollectorsystem.exceptions.ComicYaPrestadoException;
+import com.diegocarvajal.comiccollectorsystem.services.ParticionRemota;
+import com.diegocarvajal.comiccollectorsystem.utils.GeneradorIds;
+import com.diegocarvajal.comiccollectorsystem.utils.Metricas;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntFunction;
+
+/**
+ * Tienda repartida en varias particiones (por ejemplo, una por sucursal), cada una con sus propios archivos.
+ * Los cómics se reparten según un hash de su id y los usuarios según un hash de su email.
+ * Las operaciones sobre un cómic o usuario van solo a su partición; las búsquedas y listados se envían
+ * a todas en paralelo y se mezclan en el mismo orden que usa {@link TiendaDeComics}.
+ * Los ids nuevos los reparte este enrutador, así que cada conjunto de particiones debe usarse desde uno solo.
+ */
+// Las mediciones de métricas se abren con try-with-resources y solo se cierran, sin usarse dentro del bloque
+@SuppressWarnings("try")
+public class TiendaParticionada {
+
+    /**
+     * Página de cómics mezclada de todas las particiones, con el cursor para pedir la siguiente (null si no hay más).
+     */
+    public record Pagina(List<Comic> comics, String siguiente) {
+        public boolean hayMas() {
+            return siguiente != null;
+        }
+    }
+
+    private final List<Particion> particiones;
+    private final ExecutorService hilos = Executors.newVirtualThreadPerTaskExecutor();
+    private final GeneradorIds idsComics = new GeneradorIds();
+    private final GeneradorIds idsUsuarios = new GeneradorIds();
+    private final Metricas metricas = new Metricas();
+
+    /**
+     * Crea el enrutador sobre las particiones dadas, siguiendo los ids desde el mayor usado en cualquiera de ellas.
+     * El orden de las particiones define el reparto, así que debe ser siempre el mismo.
+     */
+    public TiendaParticionada(List<Particion> particiones) {
+        if (particiones.isEmpty()) {
+            throw new IllegalArgumentException("Se necesita al menos una partición.");
+        }
+        this.particiones = List.copyOf(particiones);
+        for (Particion.Resumen resumen : enTodas(k -> this.particiones.get(k).resumen())) {
+            idsComics.observar(String.valueOf(resumen.ultimoIdComic()));
+            idsUsuarios.observar(String.valueOf(resumen.ultimoIdUsuario()));
+        }
+    }
+
+    /**
+     * Abre (o crea) las particiones en este mismo proceso, en los subdirectorios particion-0, particion-1, ...
+     */
+    public static TiendaParticionada local(String directorioBase, int cantidad, boolean cargaParalela) {
+        List<Particion> particiones = new ArrayList<>(cantidad);
+        for (int k = 0; k < cantidad; k++) {
+            particiones.add(ParticionLocal.abrir(directorioBase + File.separator + "particion-" + k, cargaParalela));
+        }
+        return new TiendaParticionada(particiones);
+    }
+
+    /**
+     * Se conecta a particiones que corren como procesos aparte ({@code ServidorParticion}).
+     */
+    public static TiendaParticionada remota(List<InetSocketAddress> direcciones) {
+        List<Particion> particiones = new ArrayList<>(direcciones.size());
+        for (InetSocketAddress direccion : direcciones) {
+            particiones.add(new ParticionRemota(direccion));
+        }
+        return new TiendaParticionada(particiones);
+    }
+
+    public int cantidadParticiones() {
+        return particiones.size();
+    }
+
+    /**
+     * Devuelve la posición de la partición que guarda la clave (id de cómic o email de usuario).
+     */
+    public int particionDe(String clave) {
+        int hash = (clave == null ? 0 : clave.hashCode()) * 0x9E3779B9;
+        return Math.floorMod(hash ^ (hash >>> 16), particiones.size());
+    }
+
+    /**
+     * Ejecuta la operación en todas las particiones a la vez y devuelve los resultados en el orden de las particiones.
+     */
+    private <R> List<R> enTodas(IntFunction<R> operacion) {
+        List<Future<R>> pendientes = new ArrayList<>(particiones.size());
+        for (int k = 0; k < particiones.size(); k++) {
+            int particion = k;
+            pendientes.add(hilos.submit(() -> operacion.apply(particion)));
+        }
+        List<R> resultados = new ArrayList<>(pendientes.size());
+        for (Future<R> pendiente : pendientes) {
+            try {
+                resultados.add(pendiente.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrumpido esperando a las particiones.", e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException causa) {
+                    throw causa;
+                }
+                throw new IllegalStateException(e.getCause());
+            }
+        }
+        return resultados;
+    }
+
+    /**
+     * Suma las cantidades de todas las particiones.
+     */
+    public Particion.Resumen resumen() {
+        int comics = 0, disponibles = 0, usuarios = 0, ultimoIdComic = 0, ultimoIdUsuario = 0;
+        for (Particion.Resumen resumen : enTodas(k -> particiones.get(k).resumen())) {
+            comics += resumen.comics();
+            disponibles += resumen.disponibles();
+            usuarios += resumen.usuarios();
+            ultimoIdComic = Math.max(ultimoIdComic, resumen.ultimoIdComic());
+            ultimoIdUsuario = Math.max(ultimoIdUsuario, resumen.ultimoIdUsuario());
+        }
+        return new Particion.Resumen(comics, disponibles, usuarios, ultimoIdComic, ultimoIdUsuario);
+    }
+
+    /**
+     * Busca un cómic por su ID en la única partición que puede tenerlo.
+     */
+    public Comic buscarComicPorId(String id) throws ComicNoEncontradoException {
+        try (Metricas.Medicion medicion = metricas.medir("buscarComicPorId")) {
+            return particiones.get(particionDe(id)).buscarComicPorId(id);
+        }
+    }
+
+    /**
+     * Busca cómics cuyo título contiene el texto en todas las particiones, ordenados por relevancia.
+     */
+    public List<Comic> buscarComicsPorTituloParcial(String texto) {
+        try (Metricas.Medicion medicion = metricas.medir("buscarComicsPorTituloParcial")) {
+            List<Comic> resultado = unir(enTodas(k -> particiones.get(k).buscarComicsPorTituloParcial(texto)));
+            IndiceTrigramas.ordenarPorRelevancia(resultado, texto, Comic::getClaveTitulo);
+            return resultado;
+        }
+    }
+
+    /**
+     * Busca cómics cuyo autor contiene el texto en todas las particiones, ordenados por relevancia.
+     */
+    public List<Comic> buscarComicsPorAutorParcial(String texto) {
+        try (Metricas.Medicion medicion = metricas.medir("buscarComicsPorAutorParcial")) {
+            List<Comic> resultado = unir(enTodas(k -> particiones.get(k).buscarComicsPorAutorParcial(texto)));
+            IndiceTrigramas.ordenarPorRelevancia(resultado, texto, Comic::getClaveAutor);
+            return resultado;
+        }
+    }
+
+    /**
+     * Devuelve los cómics prestados al usuario en todas las particiones, ordenados por título.
+     */
+    public List<Comic> comicsPrestadosA(String emailUsuario) {
+        try (Metricas.Medicion medicion = metricas.medir("comicsPrestadosA")) {
+            List<Comic> resultado = unir(enTodas(k -> particiones.get(k).comicsPrestadosA(emailUsuario)));
+            resultado.sort(TiendaDeComics.ordenComics("titulo"));
+            return resultado;
+        }
+    }
+
+    private static List<Comic> unir(List<List<Comic>> listas) {
+        int total = 0;
+        for (List<Comic> lista : listas) {
+            total += lista.size();
+        }
+        List<Comic> resultado = new ArrayList<>(total);
+        for (List<Comic> lista : listas) {
+            resultado.addAll(lista);
+        }
+        return resultado;
+    }
+
+    /**
+     * Devuelve una página de cómics ordenados según el criterio (título, autor o id), a continuación del cursor
+     * (null para la primera). Pide una página a cada partición y las mezcla; el cursor guarda dónde quedó cada una,
+     * así el costo depende del tamaño de la página y de la cantidad de particiones, no del catálogo.
+     */
+    public Pagina paginaComics(String criterio, String cursor, int tamano) {
+        try (Metricas.Medicion medicion = metricas.medir("paginaComics")) {
+            int n = particiones.size();
+            String[] cursores = cursor == null ? new String[n] : separarCursor(cursor, n);
+            // Se pide un cómic de más para saber si la partición tiene más después de la página
+            List<List<Particion.Posicion>> paginas = enTodas(k -> particiones.get(k).paginaComics(criterio, cursores[k], tamano + 1));
+            Comparator<Comic> orden = TiendaDeComics.ordenComics(criterio);
+            int[] usados = new int[n];
+            List<Comic> comics = new ArrayList<>(tamano);
+            while (comics.size() < tamano) {
+                int elegida = -1;
+                for (int k = 0; k < n; k++) {
+                    if (usados[k] < paginas.get(k).size() && (elegida < 0
+                            || orden.compare(paginas.get(k).get(usados[k]).comic(), paginas.get(elegida).get(usados[elegida]).comic()) < 0)) {
+                        elegida = k;
+                    }
+                }
+                if (elegida < 0) break;
+                Particion.Posicion posicion = paginas.get(elegida).get(usados[elegida]++);
+                comics.add(posicion.comic());
+                cursores[elegida] = posicion.cursor();
+            }
+            boolean hayMas = false;
+            for (int k = 0; k < n; k++) {
+                hayMas |= usados[k] < paginas.get(k).size();
+            }
+            return new Pagina(comics, hayMas ? String.join("|", vacioSiNulo(cursores)) : null);
+        }
+    }
+
+    /**
+     * El cursor combinado lleva el cursor de cada partición separado por '|' (vacío si aún no se usó ninguno de ella).
+     */
+    private static String[] separarCursor(String cursor, int particiones) {
+        String[] partes = cursor.split("\\|", -1);
+        if (partes.length != particiones) {
+            throw new IllegalArgumentException("Cursor no válido: " + cursor);
+        }
+        for (int k = 0; k < partes.length; k++) {
+            if (partes[k].isEmpty()) partes[k] = null;
+        }
+        return partes;
+    }
+
+    private static String[] vacioSiNulo(String[] cursores) {
+        String[] resultado = new String[cursores.length];
+        for (int k = 0; k < cursores.length; k++) {
+            resultado[k] = cursores[k] == null ? "" : cursores[k];
+        }
+        return resultado;
+    }
+
+    /**
+     * Devuelve el usuario registrado con el email dado, o null si no existe.
+     */
+    public Usuario getUsuarioPorEmail(String email) {
+        return particiones.get(particionDe(email)).getUsuarioPorEmail(email);
+    }
+
+    /**
+     * Registra un lote de cómics nuevos: asigna los ids, agrupa los cómics por partición y envía
+     * un lote a cada una en paralelo. Devuelve el resultado de cada cómic en el mismo orden.
+     */
+    public List<ResultadoOperacion> registrarComics(List<Comic> nuevos) {
+        try (Metricas.Medicion medicion = metricas.medir("registrarComics")) {
+            ResultadoOperacion[] resultados = new ResultadoOperacion[nuevos.size()];
+            Lotes<Comic> lotes = new Lotes<>(particiones.size());
+            for (int i = 0; i < nuevos.size(); i++) {
+                Comic nuevo = nuevos.get(i);
+                if (nuevo.getTitulo() == null || nuevo.getTitulo().isBlank()) {
+                    resultados[i] = ResultadoOperacion.error(null, "El título no puede estar vacío.");
+                    continue;
+                }
+                String asignadoA = nuevo.getAsignadoA() == null ? "" : nuevo.getAsignadoA();
+                Comic comic = new Comic(idsComics.siguiente(), nuevo.getTitulo(), nuevo.getAutor(), asignadoA.isEmpty(), asignadoA);
+                lotes.agregar(particionDe(comic.getId()), i, comic);
+            }
+            List<List<ResultadoOperacion>> porParticion = enTodas(k -> lotes.vacio(k) ? List.of() : particiones.get(k).registrarComics(lotes.elementos(k)));
+            lotes.repartir(porParticion, resultados);
+            return Arrays.asList(resultados);
+        }
+    }
+
+    /**
+     * Registra un lote de usuarios: asigna los ids y envía cada usuario a la partición de su email.
+     * Los emails repetidos los rechaza la partición. Devuelve el resultado de cada usuario en el mismo orden.
+     */
+    public List<ResultadoOperacion> registrarUsuarios(List<Usuario> nuevos) {
+        try (Metricas.Medicion medicion = metricas.medir("registrarUsuarios")) {
+            ResultadoOperacion[] resultados = new ResultadoOperacion[nuevos.size()];
+            Lotes<Usuario> lotes = new Lotes<>(particiones.size());
+            for (int i = 0; i < nuevos.size(); i++) {
+                Usuario usuario = nuevos.get(i);
+                usuario.setId(idsUsuarios.siguiente());
+                lotes.agregar(particionDe(usuario.getEmail()), i, usuario);
+            }
+            List<List<ResultadoOperacion>> porParticion = enTodas(k -> lotes.vacio(k) ? List.of() : particiones.get(k).registrarUsuarios(lotes.elementos(k)));
+            lotes.repartir(porParticion, resultados);
+            return Arrays.asList(resultados);
+        }
+    }
+
+    /**
+     * Elementos de un lote agrupados por partición, recordando su posición en el lote original.
+     */
+    private static final class Lotes<T> {
+        private final List<List<T>> elementos = new ArrayList<>();
+        private final List<List<Integer>> posiciones = new ArrayList<>();
+
+        Lotes(int particiones) {
+            for (int k = 0; k < particiones; k++) {
+                elementos.add(new ArrayList<>());
+                posiciones.add(new ArrayList<>());
+            }
+        }
+
+        void agregar(int particion, int posicion, T elemento) {
+            elementos.get(particion).add(elemento);
+            posiciones.get(particion).add(posicion);
+        }
+
+        boolean vacio(int particion) {
+            return elementos.get(particion).isEmpty();
+        }
+
+        List<T> elementos(int particion) {
+            return elementos.get(particion);
+        }
+
+        /**
+         * Pone el resultado de cada partición en la posición original de su elemento.
+         */
+        void repartir(List<List<ResultadoOperacion>> porParticion, ResultadoOperacion[] resultados) {
+            for (int k = 0; k < porParticion.size(); k++) {
+                List<ResultadoOperacion> resultadosParticion = porParticion.get(k);
+                for (int i = 0; i < resultadosParticion.size(); i++) {
+                    resultados[posiciones.get(k).get(i)] = resultadosParticion.get(i);
+                }
+            }
+        }
+    }
+
+    /**
+     * Presta el cómic a un usuario registrado: valida el usuario en la partición de su email
+     * y presta el cómic en la partición de su id.
+     * Lanza IllegalArgumentException si el email no corresponde a un usuario registrado.
+     */
+    public void prestarComicPorId(String idComic, String emailUsuario) throws ComicNoEncontradoException, ComicYaPrestadoException {
+        try (Metricas.Medicion medicion = metricas.medir("prestarComicPorId")) {
+            if (emailUsuario == null || getUsuarioPorEmail(emailUsuario) == null) {
+                throw new IllegalArgumentException("El email no corresponde a un usuario registrado: " + emailUsuario);
+            }
+            particiones.get(particionDe(idComic)).prestarComicPorId(idComic, emailUsuario);
+        }
+    }
+
+    /**
+     * Devuelve a la tienda el cómic prestado con el id dado.
+     */
+    public void devolverComic(String idComic) throws ComicNoEncontradoException, ComicNoPrestadoException {
+        try (Metricas.Medicion medicion = metricas.medir("devolverComic")) {
+            particiones.get(particionDe(idComic)).devolverComic(idComic);
+        }
+    }
+
+    /**
+     * Latencias de las operaciones vistas desde el enrutador (incluyen la comunicación con las particiones).
+     */
+    public Metricas getMetricas() {
+        return metricas;
+    }
+
+    /**
+     * Cierra todas las particiones: las locales guardan sus datos y las remotas cierran sus conexiones.
+     */
+    public void cerrar() {
+        enTodas(k -> {
+            try {
+                particiones.get(k).close();
+            } catch (IOException e) {
+                System.err.println("Error al cerrar la partición " + k + ": " + e.getMessage());
+            }
+            return null;
+        });
+        hilos.close();
+    }
+}
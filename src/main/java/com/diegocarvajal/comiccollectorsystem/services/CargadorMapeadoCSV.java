@@ -0,0 +1,154 @@
+package com.diegocarvajal.comiccollectorsystem.services;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Lector de archivos CSV separados por '|' que mapea el archivo en memoria y lo procesa en paralelo.
+ * El archivo se divide en bloques que terminan en fin de línea; cada bloque se procesa en un ForkJoinPool
+ * y los resultados se unen respetando el orden original de las filas.
+ */
+public class CargadorMapeadoCSV {
+    // Tamaño mínimo de un bloque, para no crear tareas demasiado pequeñas
+    private static final long BLOQUE_MINIMO = 1L << 20;
+    // Tamaño máximo de un bloque (un MappedByteBuffer no puede superar Integer.MAX_VALUE bytes)
+    private static final long BLOQUE_MAXIMO = 1L << 28;
+
+    /**
+     * Convierte una fila del CSV en un objeto. Se llama desde varios hilos a la vez, por lo que no debe tener estado.
+     */
+    @FunctionalInterface
+    public interface ConvertidorFila<T> {
+        T convertir(String[] campos, int cantidad);
+    }
+
+    private final ForkJoinPool pool;
+
+    public CargadorMapeadoCSV() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public CargadorMapeadoCSV(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Lee el archivo completo y devuelve las filas convertidas en el mismo orden del archivo.
+     * Si se indica, la primera línea se trata como cabecera y se omite.
+     */
+    public <T> List<T> leer(Path ruta, boolean saltarCabecera, ConvertidorFila<T> convertidor) throws IOException {
+        try (FileChannel canal = FileChannel.open(ruta, StandardOpenOption.READ)) {
+            List<long[]> bloques = dividirEnBloques(canal);
+            List<ForkJoinTask<List<T>>> tareas = new ArrayList<>(bloques.size());
+            for (int i = 0; i < bloques.size(); i++) {
+                long[] bloque = bloques.get(i);
+                boolean esPrimero = i == 0;
+                tareas.add(pool.submit(() -> procesarBloque(canal, bloque[0], bloque[1], esPrimero && saltarCabecera, convertidor)));
+            }
+            List<T> resultado = new ArrayList<>();
+            for (ForkJoinTask<List<T>> tarea : tareas) {
+                resultado.addAll(tarea.join());
+            }
+            return resultado;
+        }
+    }
+
+    /**
+     * Divide el archivo en bloques [inicio, fin) que empiezan siempre al comienzo de una línea.
+     */
+    private List<long[]> dividirEnBloques(FileChannel canal) throws IOException {
+        long tamano = canal.size();
+        long objetivo = tamano / (pool.getParallelism() * 4L);
+        objetivo = Math.max(BLOQUE_MINIMO, Math.min(BLOQUE_MAXIMO, objetivo));
+        List<long[]> bloques = new ArrayList<>();
+        long inicio = 0;
+        while (inicio < tamano) {
+            long fin = Math.min(tamano, inicio + objetivo);
+            if (fin < tamano) {
+                fin = siguienteFinDeLinea(canal, fin, tamano);
+            }
+            bloques.add(new long[]{inicio, fin});
+            inicio = fin;
+        }
+        return bloques;
+    }
+
+    /**
+     * Devuelve la posición justo después del siguiente '\n' a partir de la posición dada (o el final del archivo).
+     */
+    private static long siguienteFinDeLinea(FileChannel canal, long desde, long tamano) throws IOException {
+        long posicion = desde;
+        while (posicion < tamano) {
+            long largo = Math.min(64 * 1024, tamano - posicion);
+            MappedByteBuffer ventana = canal.map(FileChannel.MapMode.READ_ONLY, posicion, largo);
+            for (int i = 0; i < largo; i++) {
+                if (ventana.get(i) == '\n') {
+                    return posicion + i + 1;
+                }
+            }
+            posicion += largo;
+        }
+        return tamano;
+    }
+
+    /**
+     * Recorre un bloque byte a byte separando campos por '|' y filas por fin de línea.
+     * Igual que {@code String.split}, los campos vacíos al final de la fila no se cuentan.
+     */
+    private static <T> List<T> procesarBloque(FileChannel canal, long inicio, long fin, boolean saltarPrimera,
+                                              ConvertidorFila<T> convertidor) throws IOException {
+        MappedByteBuffer buffer = canal.map(FileChannel.MapMode.READ_ONLY, inicio, fin - inicio);
+        List<T> filas = new ArrayList<>();
+        String[] campos = new String[8];
+        int cantidad = 0;
+        int largo = buffer.limit();
+        int inicioCampo = 0;
+        boolean saltar = saltarPrimera;
+        byte[] bytes = new byte[256];
+        for (int i = 0; i <= largo; i++) {
+            byte b = i < largo ? buffer.get(i) : (byte) '\n';
+            if (b != '|' && b != '\n') {
+                continue;
+            }
+            if (i == largo && inicioCampo == largo && cantidad == 0) {
+                break; // El bloque terminó justo después de un fin de línea
+            }
+            int finCampo = i;
+            if (b == '\n' && finCampo > inicioCampo && buffer.get(finCampo - 1) == '\r') {
+                finCampo--;
+            }
+            int largoCampo = finCampo - inicioCampo;
+            if (bytes.length < largoCampo) {
+                bytes = new byte[largoCampo * 2];
+            }
+            buffer.get(inicioCampo, bytes, 0, largoCampo);
+            if (cantidad == campos.length) {
+                campos = Arrays.copyOf(campos, cantidad * 2);
+            }
+            campos[cantidad++] = new String(bytes, 0, largoCampo, StandardCharsets.UTF_8);
+            inicioCampo = i + 1;
+            if (b == '\n') {
+                int total = cantidad;
+                while (total > 1 && campos[total - 1].isEmpty()) {
+                    total--;
+                }
+                if (saltar) {
+                    saltar = false;
+                } else {
+                    filas.add(convertidor.convertir(campos, total));
+                }
+                cantidad = 0;
+            }
+        }
+        return filas;
+    }
+}
@@ -1,10 +1,15 @@
 package com.diegocarvajal.comiccollectorsystem.services;
 
 import java.io.BufferedWriter;
-import java.io.BufferedReader;
+import java.io.FileInputStream;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.File;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 
 /**
  * Servicio para leer y escribir archivos CSV de cómics.
@@ -17,35 +22,32 @@ public class ComicsServicio {
 
     /**
      * Escribe la lista de cómics en un archivo CSV, agregando el encabezado y separando los campos por '|'.
+     * La escritura es atómica: si falla, el archivo anterior queda intacto. Devuelve false si no se pudo escribir.
      */
-    public void escribirComicsCSV(String rutaArchivo, java.util.List<String[]> datos) {
-        File archivo = new File(rutaArchivo);
-        if (!archivo.exists()) {
-            try (BufferedWriter writer = new BufferedWriter(new FileWriter(rutaArchivo))) {
+    public boolean escribirComicsCSV(String rutaArchivo, java.util.List<String[]> datos) {
+        try {
+            EscrituraAtomica.escribir(Path.of(rutaArchivo), salida -> {
+                BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(salida, StandardCharsets.UTF_8));
                 writer.write(ENCABEZADO);
                 writer.newLine();
-            } catch (IOException e) {
-                System.err.println("Error al crear el archivo CSV: " + e.getMessage());
-            }
-        }
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(rutaArchivo))) {
-            writer.write(ENCABEZADO);
-            writer.newLine();
-            for (String[] fila : datos) {
-                writer.write(String.join("|", fila));
-                writer.newLine();
-            }
-            System.out.println("Comics escritos correctamente en formato CSV en " + rutaArchivo);
+                for (String[] fila : datos) {
+                    writer.write(String.join("|", fila));
+                    writer.newLine();
+                }
+                writer.flush();
+            });
+            return true;
         } catch (IOException e) {
             System.err.println("Error al escribir en el archivo CSV: " + e.getMessage());
+            return false;
         }
     }
 
     /**
-     * Lee la lista de cómics desde un archivo CSV, devolviendo cada fila como un arreglo de Strings.
+     * Lee los cómics desde un archivo CSV fila por fila, sin cargar el archivo completo en memoria.
+     * Cada fila (sin la cabecera) se entrega al procesador apenas se lee.
      */
-    public java.util.List<String[]> leerComicCSV(String rutaArchivo) {
-        java.util.List<String[]> datos = new java.util.ArrayList<>();
+    public void leerComicCSV(String rutaArchivo, ProcesadorFila procesador) {
         File archivo = new File(rutaArchivo);
         if (!archivo.exists()) {
             try (BufferedWriter writer = new BufferedWriter(new FileWriter(rutaArchivo))) {
@@ -54,19 +56,38 @@ public class ComicsServicio {
             } catch (IOException e) {
                 System.err.println("Error al crear el archivo CSV: " + e.getMessage());
             }
-            return datos;
+            return;
         }
-        try (BufferedReader reader = new BufferedReader(new java.io.FileReader(rutaArchivo))) {
-            String linea;
-            while ((linea = reader.readLine()) != null) {
-                String[] fila = linea.split("\\|");
-                datos.add(fila);
-            }
+        try (Reader reader = new InputStreamReader(new FileInputStream(archivo), StandardCharsets.UTF_8)) {
+            boolean[] esPrimera = {true};
+            new LectorCSV().leer(reader, (campos, cantidad) -> {
+                if (esPrimera[0]) { esPrimera[0] = false; return; } // Saltar cabecera
+                procesador.procesar(campos, cantidad);
+            });
             System.out.println("Comics leídos correctamente desde el archivo CSV " + rutaArchivo);
         } catch (IOException e) {
             System.err.println("Error al leer el archivo CSV: " + e.getMessage());
         }
-        return datos;
+    }
+
+    /**
+     * Lee los cómics mapeando el archivo en memoria y procesando sus bloques en paralelo.
+     * Devuelve las filas ya convertidas (sin la cabecera) en el mismo orden del archivo.
+     */
+    public <T> java.util.List<T> leerComicCSVParalelo(String rutaArchivo, CargadorMapeadoCSV.ConvertidorFila<T> convertidor) {
+        File archivo = new File(rutaArchivo);
+        if (!archivo.exists()) {
+            leerComicCSV(rutaArchivo, (campos, cantidad) -> { }); // Crea el archivo con la cabecera
+            return new java.util.ArrayList<>();
+        }
+        try {
+            java.util.List<T> datos = new CargadorMapeadoCSV().leer(archivo.toPath(), true, convertidor);
+            System.out.println("Comics leídos correctamente desde el archivo CSV " + rutaArchivo);
+            return datos;
+        } catch (IOException e) {
+            System.err.println("Error al leer el archivo CSV: " + e.getMessage());
+            return new java.util.ArrayList<>();
+        }
     }
 
 }
@@ -0,0 +1,146 @@
+package com.diegocarvajal.comiccollectorsystem.services;
+
+import java.io.Closeable;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Diario (write-ahead log) de solo escritura al final con las modificaciones hechas a la tienda.
+ * Cada modificación se agrega como una línea separada por '|' y se fuerza a disco antes de continuar,
+ * de modo que al reiniciar se pueden volver a aplicar sobre la última copia de los CSV.
+ * Formato de las líneas:
+ * COMIC|id|titulo|autor|estado|asignadoA, USUARIO|id|nombre|apellido|email|telefono, PRESTAMO|idComic|email
+ * y DEVOLUCION|idComic.
+ * Al empezar a guardar una copia completa, las entradas se apartan en un archivo ".pendiente" que se descarta
+ * cuando la copia queda escrita; así las modificaciones que llegan mientras tanto siguen protegidas.
+ */
+public class DiarioMutaciones implements Closeable {
+    public static final String COMIC = "COMIC";
+    public static final String USUARIO = "USUARIO";
+    public static final String PRESTAMO = "PRESTAMO";
+    public static final String DEVOLUCION = "DEVOLUCION";
+
+    private final Path ruta;
+    private final Path pendiente;
+    private FileChannel canal;
+
+    public DiarioMutaciones(String rutaArchivo) throws IOException {
+        this.ruta = Path.of(rutaArchivo);
+        this.pendiente = Path.of(rutaArchivo + ".pendiente");
+        this.canal = abrir(ruta);
+    }
+
+    private static FileChannel abrir(Path ruta) throws IOException {
+        return FileChannel.open(ruta, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    /**
+     * Vuelve a leer todas las entradas del diario, entregando cada una al procesador (el primer campo es el tipo).
+     * Si quedaron entradas apartadas de un guardado que no terminó, se leen primero.
+     */
+    public synchronized void reproducir(ProcesadorFila procesador) throws IOException {
+        if (Files.exists(pendiente)) {
+            reproducir(pendiente, procesador);
+        }
+        reproducir(ruta, procesador);
+    }
+
+    private static void reproducir(Path archivo, ProcesadorFila procesador) throws IOException {
+        try (Reader reader = new InputStreamReader(new FileInputStream(archivo.toFile()), StandardCharsets.UTF_8)) {
+            new LectorCSV().leer(reader, procesador);
+        }
+    }
+
+    /**
+     * Agrega una entrada al diario y la fuerza a disco.
+     */
+    public synchronized void registrar(String tipo, String... campos) throws IOException {
+        StringBuilder linea = new StringBuilder(tipo);
+        agregarCampos(linea, campos, 0);
+        escribir(linea);
+    }
+
+    /**
+     * Agrega varias entradas con una sola escritura y una sola forzada a disco.
+     * Cada entrada es un arreglo cuyo primer elemento es el tipo.
+     */
+    public synchronized void registrarLote(List<String[]> entradas) throws IOException {
+        if (entradas.isEmpty()) return;
+        StringBuilder lineas = new StringBuilder(entradas.size() * 64);
+        for (String[] entrada : entradas) {
+            lineas.append(entrada[0]);
+            agregarCampos(lineas, entrada, 1);
+        }
+        escribir(lineas);
+    }
+
+    /**
+     * Agrega los campos desde la posición indicada, cada uno precedido por '|', y termina la línea.
+     */
+    private static void agregarCampos(StringBuilder destino, String[] campos, int desde) {
+        for (int i = desde; i < campos.length; i++) {
+            destino.append('|').append(campos[i] == null ? "" : campos[i]);
+        }
+        destino.append('\n');
+    }
+
+    private void escribir(CharSequence texto) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(texto.toString().getBytes(StandardCharsets.UTF_8));
+        while (buffer.hasRemaining()) {
+            canal.write(buffer);
+        }
+        canal.force(false);
+    }
+
+    /**
+     * Aparta las entradas actuales en el archivo pendiente y sigue escribiendo en un diario vacío.
+     * Se llama al copiar los datos para guardarlos; si ya había entradas pendientes (un guardado anterior falló),
+     * las actuales se agregan a ellas.
+     */
+    public synchronized void rotar() throws IOException {
+        if (!Files.exists(pendiente)) {
+            // El canal se cierra antes de mover el archivo (en algunos sistemas no se puede mover un archivo abierto)
+            canal.close();
+            try {
+                Files.move(ruta, pendiente, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                // Se reabre siempre: si el movimiento falló se sigue agregando al mismo diario en vez de perderlo
+                canal = abrir(ruta);
+            }
+            return;
+        }
+        long tamano = canal.size();
+        try (FileChannel origen = FileChannel.open(ruta, StandardOpenOption.READ);
+             FileChannel destino = FileChannel.open(pendiente, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            long copiados = 0;
+            while (copiados < tamano) {
+                copiados += origen.transferTo(copiados, tamano - copiados, destino);
+            }
+            destino.force(true);
+        }
+        canal.truncate(0);
+        canal.force(true);
+    }
+
+    /**
+     * Descarta las entradas apartadas por {@link #rotar()}; se llama cuando la copia completa ya quedó escrita.
+     */
+    public synchronized void descartarPendiente() throws IOException {
+        Files.deleteIfExists(pendiente);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        canal.close();
+    }
+}
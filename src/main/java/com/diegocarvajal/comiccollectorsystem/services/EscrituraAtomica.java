@@ -0,0 +1,57 @@
+package com.diegocarvajal.comiccollectorsystem.services;
+
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Escritura de archivos a prueba de caídas: el contenido se escribe en un archivo temporal junto al destino,
+ * se fuerza a disco y recién entonces reemplaza al destino con un renombrado atómico.
+ * Si el proceso se cae a mitad de camino, el destino conserva su versión anterior completa.
+ */
+public class EscrituraAtomica {
+
+    /**
+     * Escribe el contenido del archivo en el flujo recibido.
+     */
+    public interface Escritor {
+        void escribir(OutputStream salida) throws IOException;
+    }
+
+    /**
+     * Escribe el archivo de forma atómica. Si algo falla, el destino no cambia y se lanza la excepción.
+     */
+    public static void escribir(Path destino, Escritor escritor) throws IOException {
+        Path temporal = destino.resolveSibling(destino.getFileName() + ".tmp");
+        try (FileOutputStream archivo = new FileOutputStream(temporal.toFile())) {
+            OutputStream salida = new BufferedOutputStream(archivo, 1 << 16);
+            escritor.escribir(salida);
+            salida.flush();
+            archivo.getFD().sync();
+        } catch (IOException e) {
+            Files.deleteIfExists(temporal);
+            throw e;
+        }
+        Files.move(temporal, destino, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        sincronizarDirectorio(destino.toAbsolutePath().getParent());
+    }
+
+    /**
+     * Fuerza a disco la entrada del directorio para que el renombrado sobreviva a un corte de luz.
+     * No todos los sistemas permiten abrir un directorio; en ese caso se omite.
+     */
+    private static void sincronizarDirectorio(Path directorio) {
+        if (directorio == null) return;
+        try (FileChannel canal = FileChannel.open(directorio, StandardOpenOption.READ)) {
+            canal.force(true);
+        } catch (IOException e) {
+            // Sistema sin soporte para sincronizar directorios
+        }
+    }
+}
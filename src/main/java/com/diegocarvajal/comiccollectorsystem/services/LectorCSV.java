@@ -0,0 +1,74 @@
+package com.diegocarvajal.comiccollectorsystem.services;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+
+/**
+ * Lector de archivos CSV separados por '|' que recorre el contenido una sola vez sobre un buffer de caracteres.
+ * Cada fila se entrega de inmediato a un {@link ProcesadorFila}, así la memoria usada no depende del tamaño del archivo.
+ */
+public class LectorCSV {
+    private static final int TAMANO_BUFFER = 64 * 1024;
+    private static final char SEPARADOR = '|';
+
+    // Campos de la fila actual, reutilizados entre filas
+    private String[] campos = new String[8];
+    private int cantidad = 0;
+    // Caracteres del campo que se está leyendo
+    private final StringBuilder campo = new StringBuilder(64);
+
+    /**
+     * Lee todo el contenido y entrega cada fila al procesador.
+     * Igual que {@code String.split}, los campos vacíos al final de la fila no se cuentan.
+     */
+    public void leer(Reader reader, ProcesadorFila procesador) throws IOException {
+        char[] buffer = new char[TAMANO_BUFFER];
+        boolean filaPendiente = false;
+        boolean ultimoFueRetorno = false;
+        int leidos;
+        while ((leidos = reader.read(buffer)) != -1) {
+            for (int i = 0; i < leidos; i++) {
+                char c = buffer[i];
+                if (c == '\n' && ultimoFueRetorno) {
+                    // "\r\n" ya se trató como fin de línea en el '\r'
+                    ultimoFueRetorno = false;
+                    continue;
+                }
+                ultimoFueRetorno = c == '\r';
+                if (c == '\n' || c == '\r') {
+                    terminarFila(procesador);
+                    filaPendiente = false;
+                } else if (c == SEPARADOR) {
+                    agregarCampo();
+                    filaPendiente = true;
+                } else {
+                    campo.append(c);
+                    filaPendiente = true;
+                }
+            }
+        }
+        if (filaPendiente) {
+            terminarFila(procesador);
+        }
+    }
+
+    private void agregarCampo() {
+        if (cantidad == campos.length) {
+            campos = Arrays.copyOf(campos, cantidad * 2);
+        }
+        campos[cantidad++] = campo.toString();
+        campo.setLength(0);
+    }
+
+    private void terminarFila(ProcesadorFila procesador) {
+        agregarCampo();
+        // Descartar campos vacíos finales, salvo el primero (como String.split)
+        int total = cantidad;
+        while (total > 1 && campos[total - 1].isEmpty()) {
+            total--;
+        }
+        procesador.procesar(campos, total);
+        cantidad = 0;
+    }
+}
@@ -0,0 +1,261 @@
+package com.diegocarvajal.comiccollectorsystem.services;
+
+import com.diegocarvajal.comiccollectorsystem.exceptions.ComicNoEncontradoException;
+import com.diegocarvajal.comiccollectorsystem.exceptions.ComicNoPrestadoException;
+import com.diegocarvajal.comiccollectorsystem.exceptions.ComicYaPrestadoException;
+import com.diegocarvajal.comiccollectorsystem.models.Comic;
+import com.diegocarvajal.comiccollectorsystem.models.Particion;
+import com.diegocarvajal.comiccollectorsystem.models.ResultadoOperacion;
+import com.diegocarvajal.comiccollectorsystem.models.Usuario;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Partición que vive en otro proceso (normalmente en la misma máquina) y se usa por un socket TCP,
+ * con el formato de {@link ProtocoloParticion}. Cada solicitud toma una conexión libre o abre una nueva,
+ * así varias solicitudes simultáneas no se esperan entre sí.
+ */
+public class ParticionRemota implements Particion {
+    private final InetSocketAddress direccion;
+    private final ConcurrentLinkedQueue<Conexion> libres = new ConcurrentLinkedQueue<>();
+    private volatile boolean cerrada;
+
+    /**
+     * Conexión abierta con el servidor de la partición.
+     */
+    private static final class Conexion {
+        final Socket socket;
+        final BufferedReader entrada;
+        final BufferedWriter salida;
+
+        Conexion(InetSocketAddress direccion) throws IOException {
+            socket = new Socket();
+            socket.setTcpNoDelay(true);
+            socket.connect(direccion);
+            entrada = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            salida = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+        }
+
+        void cerrar() {
+            try {
+                socket.close();
+            } catch (IOException e) {
+                // Ya no se usa
+            }
+        }
+    }
+
+    /**
+     * Error informado por el servidor de la partición.
+     */
+    private static final class ErrorRemoto extends Exception {
+        final String tipo;
+
+        ErrorRemoto(String tipo, String mensaje) {
+            super(mensaje);
+            this.tipo = tipo;
+        }
+
+        /**
+         * Convierte un error que la operación no esperaba en una excepción no verificada.
+         */
+        RuntimeException inesperado() {
+            return ProtocoloParticion.INVALIDO.equals(tipo) ? new IllegalArgumentException(getMessage()) : new IllegalStateException(getMessage());
+        }
+    }
+
+    public ParticionRemota(InetSocketAddress direccion) {
+        this.direccion = direccion;
+    }
+
+    public InetSocketAddress getDireccion() {
+        return direccion;
+    }
+
+    /**
+     * Envía la solicitud (con sus filas, si lleva un lote) y devuelve las filas de la respuesta.
+     * Si falla la comunicación la conexión se descarta y se lanza UncheckedIOException; no se reintenta,
+     * porque la solicitud pudo haberse aplicado.
+     */
+    private List<String[]> enviar(List<String[]> filas, String... solicitud) throws ErrorRemoto {
+        if (cerrada) {
+            throw new IllegalStateException("La partición remota está cerrada: " + direccion);
+        }
+        Conexion conexion = libres.poll();
+        try {
+            if (conexion == null) {
+                conexion = new Conexion(direccion);
+            }
+            ProtocoloParticion.escribir(conexion.salida, solicitud);
+            for (String[] fila : filas) {
+                ProtocoloParticion.escribir(conexion.salida, fila);
+            }
+            conexion.salida.flush();
+            String[] encabezado = ProtocoloParticion.leer(conexion.entrada);
+            if (encabezado == null || encabezado.length < 2) {
+                throw new IOException("Respuesta no válida de la partición " + direccion);
+            }
+            if (ProtocoloParticion.ERROR.equals(encabezado[0])) {
+                libres.add(conexion);
+                throw new ErrorRemoto(encabezado[1], encabezado.length > 2 ? encabezado[2] : "");
+            }
+            List<String[]> respuesta = ProtocoloParticion.leerFilas(conexion.entrada, encabezado[1]);
+            libres.add(conexion);
+            return respuesta;
+        } catch (IOException e) {
+            if (conexion != null) {
+                conexion.cerrar();
+            }
+            throw new UncheckedIOException("Error de comunicación con la partición " + direccion + ": " + e.getMessage(), e);
+        }
+    }
+
+    private List<String[]> consultar(String... solicitud) {
+        try {
+            return enviar(List.of(), solicitud);
+        } catch (ErrorRemoto e) {
+            throw e.inesperado();
+        }
+    }
+
+    private static List<Comic> comics(List<String[]> filas) {
+        List<Comic> comics = new ArrayList<>(filas.size());
+        for (String[] fila : filas) {
+            comics.add(ProtocoloParticion.comicDesdeFila(fila, 0));
+        }
+        return comics;
+    }
+
+    private static List<ResultadoOperacion> resultados(List<String[]> filas) {
+        List<ResultadoOperacion> resultados = new ArrayList<>(filas.size());
+        for (String[] fila : filas) {
+            resultados.add(ProtocoloParticion.resultadoDesdeFila(fila));
+        }
+        return resultados;
+    }
+
+    @Override
+    public Resumen resumen() {
+        String[] fila = consultar(ProtocoloParticion.RESUMEN).get(0);
+        return new Resumen(Integer.parseInt(fila[0]), Integer.parseInt(fila[1]), Integer.parseInt(fila[2]),
+                Integer.parseInt(fila[3]), Integer.parseInt(fila[4]));
+    }
+
+    @Override
+    public Comic buscarComicPorId(String id) throws ComicNoEncontradoException {
+        try {
+            return ProtocoloParticion.comicDesdeFila(enviar(List.of(), ProtocoloParticion.COMIC_POR_ID, id).get(0), 0);
+        } catch (ErrorRemoto e) {
+            if (ProtocoloParticion.NO_ENCONTRADO.equals(e.tipo)) {
+                throw new ComicNoEncontradoException(e.getMessage());
+            }
+            throw e.inesperado();
+        }
+    }
+
+    @Override
+    public List<Comic> buscarComicsPorTituloParcial(String texto) {
+        return comics(consultar(ProtocoloParticion.BUSCAR_TITULO, texto));
+    }
+
+    @Override
+    public List<Comic> buscarComicsPorAutorParcial(String texto) {
+        return comics(consultar(ProtocoloParticion.BUSCAR_AUTOR, texto));
+    }
+
+    @Override
+    public List<Comic> comicsPrestadosA(String emailUsuario) {
+        return comics(consultar(ProtocoloParticion.PRESTADOS_A, emailUsuario));
+    }
+
+    @Override
+    public List<Posicion> paginaComics(String criterio, String cursor, int tamano) {
+        List<String[]> filas = consultar(ProtocoloParticion.PAGINA, criterio, cursor, String.valueOf(tamano));
+        List<Posicion> posiciones = new ArrayList<>(filas.size());
+        for (String[] fila : filas) {
+            posiciones.add(new Posicion(ProtocoloParticion.comicDesdeFila(fila, 1), fila[0]));
+        }
+        return posiciones;
+    }
+
+    @Override
+    public Usuario getUsuarioPorEmail(String email) {
+        List<String[]> filas = consultar(ProtocoloParticion.USUARIO, email);
+        return filas.isEmpty() ? null : ProtocoloParticion.usuarioDesdeFila(filas.get(0));
+    }
+
+    @Override
+    public List<ResultadoOperacion> registrarComics(List<Comic> comics) {
+        List<String[]> filas = new ArrayList<>(comics.size());
+        for (Comic comic : comics) {
+            filas.add(ProtocoloParticion.filaComic(comic));
+        }
+        try {
+            return resultados(enviar(filas, ProtocoloParticion.REGISTRAR_COMICS, String.valueOf(filas.size())));
+        } catch (ErrorRemoto e) {
+            throw e.inesperado();
+        }
+    }
+
+    @Override
+    public List<ResultadoOperacion> registrarUsuarios(List<Usuario> usuarios) {
+        List<String[]> filas = new ArrayList<>(usuarios.size());
+        for (Usuario usuario : usuarios) {
+            filas.add(ProtocoloParticion.filaUsuario(usuario));
+        }
+        try {
+            return resultados(enviar(filas, ProtocoloParticion.REGISTRAR_USUARIOS, String.valueOf(filas.size())));
+        } catch (ErrorRemoto e) {
+            throw e.inesperado();
+        }
+    }
+
+    @Override
+    public void prestarComicPorId(String idComic, String emailUsuario) throws ComicNoEncontradoException, ComicYaPrestadoException {
+        try {
+            enviar(List.of(), ProtocoloParticion.PRESTAR, idComic, emailUsuario);
+        } catch (ErrorRemoto e) {
+            switch (e.tipo) {
+                case ProtocoloParticion.NO_ENCONTRADO -> throw new ComicNoEncontradoException(e.getMessage());
+                case ProtocoloParticion.YA_PRESTADO -> throw new ComicYaPrestadoException(e.getMessage());
+                default -> throw e.inesperado();
+            }
+        }
+    }
+
+    @Override
+    public void devolverComic(String idComic) throws ComicNoEncontradoException, ComicNoPrestadoException {
+        try {
+            enviar(List.of(), ProtocoloParticion.DEVOLVER, idComic);
+        } catch (ErrorRemoto e) {
+            switch (e.tipo) {
+                case ProtocoloParticion.NO_ENCONTRADO -> throw new ComicNoEncontradoException(e.getMessage());
+                case ProtocoloParticion.NO_PRESTADO -> throw new ComicNoPrestadoException(e.getMessage());
+                default -> throw e.inesperado();
+            }
+        }
+    }
+
+    /**
+     * Cierra las conexiones abiertas. El proceso de la partición sigue funcionando y guarda sus datos al terminar.
+     */
+    @Override
+    public void close() {
+        cerrada = true;
+        Conexion conexion;
+        while ((conexion = libres.poll()) != null) {
+            conexion.cerrar();
+        }
+    }
+}
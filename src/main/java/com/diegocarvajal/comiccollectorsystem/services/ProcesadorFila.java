@@ -0,0 +1,10 @@
+package com.diegocarvajal.comiccollectorsystem.services;
+
+/**
+ * Recibe cada fila leída de un archivo CSV a medida que se va leyendo.
+ * El arreglo de campos se reutiliza entre filas, por lo que no debe guardarse: solo sus valores.
+ */
+@FunctionalInterface
+public interface ProcesadorFila {
+    void procesar(String[] campos, int cantidad);
+}
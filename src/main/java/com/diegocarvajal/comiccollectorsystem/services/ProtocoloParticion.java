@@ -0,0 +1,164 @@
+package com.diegocarvajal.comiccollectorsystem.services;
+
+import com.diegocarvajal.comiccollectorsystem.models.Comic;
+import com.diegocarvajal.comiccollectorsystem.models.ResultadoOperacion;
+import com.diegocarvajal.comiccollectorsystem.models.Usuario;
+
+import java.io.BufferedReader;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Formato de las solicitudes entre {@link ParticionRemota} y el servidor de una partición.
+ * Cada mensaje es una línea de texto con campos separados por '|', como los CSV de la tienda.
+ * Una solicitud es OPERACION|argumentos, seguida de tantas filas como indique cuando lleva un lote.
+ * La respuesta es OK|n seguida de n filas, o ERROR|tipo|mensaje.
+ * Dentro de los campos se escapan '\', '|' y los saltos de línea, y null se envía como "\0".
+ */
+public class ProtocoloParticion {
+    // Operaciones
+    public static final String RESUMEN = "RESUMEN";
+    public static final String COMIC_POR_ID = "COMIC_POR_ID";
+    public static final String BUSCAR_TITULO = "BUSCAR_TITULO";
+    public static final String BUSCAR_AUTOR = "BUSCAR_AUTOR";
+    public static final String PRESTADOS_A = "PRESTADOS_A";
+    public static final String PAGINA = "PAGINA";
+    public static final String USUARIO = "USUARIO";
+    public static final String REGISTRAR_COMICS = "REGISTRAR_COMICS";
+    public static final String REGISTRAR_USUARIOS = "REGISTRAR_USUARIOS";
+    public static final String PRESTAR = "PRESTAR";
+    public static final String DEVOLVER = "DEVOLVER";
+
+    // Respuestas y tipos de error
+    public static final String OK = "OK";
+    public static final String ERROR = "ERROR";
+    public static final String NO_ENCONTRADO = "NO_ENCONTRADO";
+    public static final String YA_PRESTADO = "YA_PRESTADO";
+    public static final String NO_PRESTADO = "NO_PRESTADO";
+    public static final String INVALIDO = "INVALIDO";
+    public static final String INTERNO = "INTERNO";
+
+    // Cantidad máxima de filas aceptada en un mensaje, para no reservar memoria por un número corrupto
+    private static final int FILAS_MAXIMAS = 10_000_000;
+
+    /**
+     * Escribe una línea con los campos escapados (sin vaciar el buffer).
+     */
+    public static void escribir(Writer salida, String... campos) throws IOException {
+        StringBuilder linea = new StringBuilder();
+        for (int i = 0; i < campos.length; i++) {
+            if (i > 0) linea.append('|');
+            escapar(linea, campos[i]);
+        }
+        salida.write(linea.append('\n').toString());
+    }
+
+    /**
+     * Lee una línea y devuelve sus campos, o null si la conexión se cerró.
+     */
+    public static String[] leer(BufferedReader entrada) throws IOException {
+        String linea = entrada.readLine();
+        return linea == null ? null : campos(linea);
+    }
+
+    /**
+     * Lee las n filas que siguen a un encabezado "OPERACION|n" o "OK|n".
+     */
+    public static List<String[]> leerFilas(BufferedReader entrada, String cantidad) throws IOException {
+        int n = cantidadFilas(cantidad);
+        List<String[]> filas = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            String[] fila = leer(entrada);
+            if (fila == null) {
+                throw new EOFException("La conexión se cerró a mitad de un mensaje.");
+            }
+            filas.add(fila);
+        }
+        return filas;
+    }
+
+    private static int cantidadFilas(String texto) throws IOException {
+        try {
+            int n = Integer.parseInt(texto);
+            if (n >= 0 && n <= FILAS_MAXIMAS) {
+                return n;
+            }
+        } catch (NumberFormatException e) {
+            // Se informa abajo
+        }
+        throw new IOException("Cantidad de filas no válida: " + texto);
+    }
+
+    private static void escapar(StringBuilder destino, String campo) {
+        if (campo == null) {
+            destino.append("\\0");
+            return;
+        }
+        for (int i = 0; i < campo.length(); i++) {
+            char c = campo.charAt(i);
+            switch (c) {
+                case '\\' -> destino.append("\\\\");
+                case '|' -> destino.append("\\p");
+                case '\n' -> destino.append("\\n");
+                case '\r' -> destino.append("\\r");
+                default -> destino.append(c);
+            }
+        }
+    }
+
+    private static String[] campos(String linea) {
+        List<String> campos = new ArrayList<>();
+        StringBuilder campo = new StringBuilder();
+        boolean nulo = false;
+        for (int i = 0; i < linea.length(); i++) {
+            char c = linea.charAt(i);
+            if (c == '|') {
+                campos.add(nulo ? null : campo.toString());
+                campo.setLength(0);
+                nulo = false;
+            } else if (c == '\\' && i + 1 < linea.length()) {
+                switch (linea.charAt(++i)) {
+                    case 'p' -> campo.append('|');
+                    case 'n' -> campo.append('\n');
+                    case 'r' -> campo.append('\r');
+                    case '0' -> nulo = true;
+                    default -> campo.append(linea.charAt(i));
+                }
+            } else {
+                campo.append(c);
+            }
+        }
+        campos.add(nulo ? null : campo.toString());
+        return campos.toArray(new String[0]);
+    }
+
+    public static String[] filaComic(Comic comic) {
+        return new String[]{comic.getId(), comic.getTitulo(), comic.getAutor(), String.valueOf(comic.getEstado()), comic.getAsignadoA()};
+    }
+
+    /**
+     * Crea un cómic desde los campos de {@link #filaComic}, empezando en la posición indicada.
+     */
+    public static Comic comicDesdeFila(String[] fila, int desde) {
+        return new Comic(fila[desde], fila[desde + 1], fila[desde + 2], Boolean.parseBoolean(fila[desde + 3]), fila[desde + 4]);
+    }
+
+    public static String[] filaUsuario(Usuario usuario) {
+        return new String[]{usuario.getId(), usuario.getNombre(), usuario.getApellido(), usuario.getEmail(), usuario.getTelefono()};
+    }
+
+    public static Usuario usuarioDesdeFila(String[] fila) {
+        return new Usuario(fila[0], fila[1], fila[2], fila[3], fila[4]);
+    }
+
+    public static String[] filaResultado(ResultadoOperacion resultado) {
+        return new String[]{resultado.clave(), String.valueOf(resultado.exito()), resultado.mensaje()};
+    }
+
+    public static ResultadoOperacion resultadoDesdeFila(String[] fila) {
+        return new ResultadoOperacion(fila[0], Boolean.parseBoolean(fila[1]), fila[2]);
+    }
+}
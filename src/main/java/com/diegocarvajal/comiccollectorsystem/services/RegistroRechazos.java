@@ -0,0 +1,69 @@
+package com.diegocarvajal.comiccollectorsystem.services;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+
+/**
+ * Archivo donde se anotan las filas rechazadas al importar o validar un CSV, para poder corregirlas y volver a cargarlas.
+ * Cada rechazo es una línea "linea|motivo|fila original". El archivo recién se crea con el primer rechazo,
+ * así una importación sin errores no deja archivos vacíos.
+ */
+public class RegistroRechazos implements Closeable {
+    private final Path ruta;
+    private final String origen;
+    private final boolean agregar;
+    private BufferedWriter salida;
+    private long cantidad;
+
+    /**
+     * @param origen  archivo que se está leyendo, se anota al inicio de cada tanda de rechazos
+     * @param agregar si es true se agrega al final del archivo; si no, se reemplaza su contenido
+     */
+    public RegistroRechazos(Path ruta, String origen, boolean agregar) {
+        this.ruta = ruta;
+        this.origen = origen;
+        this.agregar = agregar;
+    }
+
+    /**
+     * Anota una fila rechazada con su número de línea (contando la cabecera) y el motivo.
+     */
+    public void rechazar(long linea, String motivo, CharSequence[] campos, int cantidadCampos) throws IOException {
+        if (salida == null) {
+            salida = Files.newBufferedWriter(ruta, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    agregar ? StandardOpenOption.APPEND : StandardOpenOption.TRUNCATE_EXISTING);
+            salida.write("# Filas rechazadas de " + origen + " (" + LocalDateTime.now().withNano(0) + ")");
+            salida.newLine();
+        }
+        salida.write(Long.toString(linea));
+        salida.write('|');
+        salida.write(motivo);
+        for (int i = 0; i < cantidadCampos; i++) {
+            salida.write('|');
+            salida.append(campos[i]);
+        }
+        salida.newLine();
+        cantidad++;
+    }
+
+    public long getCantidad() {
+        return cantidad;
+    }
+
+    public Path getRuta() {
+        return ruta;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (salida != null) {
+            salida.close();
+        }
+    }
+}
@@ -1,12 +1,16 @@
 package com.diegocarvajal.comiccollectorsystem.services;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.List;
 import java.io.BufferedWriter;
+import java.io.FileInputStream;
 import java.io.FileWriter;
 import java.io.File;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 
 /**
  * Servicio para leer y escribir archivos CSV de usuarios.
@@ -18,10 +22,10 @@ public class UsuariosServicio {
     private static final String ENCABEZADO = "id|nombre|apellido|email|telefono";
 
     /**
-     * Lee la lista de usuarios desde un archivo CSV, devolviendo cada fila como un arreglo de Strings.
+     * Lee los usuarios desde un archivo CSV fila por fila, sin cargar el archivo completo en memoria.
+     * Cada fila (sin la cabecera) se entrega al procesador apenas se lee.
      */
-    public List<String[]> leerUsuariosCSV(String rutaArchivo) {
-        List<String[]> datos = new ArrayList<>();
+    public void leerUsuariosCSV(String rutaArchivo, ProcesadorFila procesador) {
         File archivo = new File(rutaArchivo);
         if (!archivo.exists()) {
             try (BufferedWriter writer = new BufferedWriter(new FileWriter(rutaArchivo))) {
@@ -30,44 +34,40 @@ public class UsuariosServicio {
             } catch (IOException e) {
                 System.err.println("Error al crear el archivo CSV: " + e.getMessage());
             }
-            return datos;
+            return;
         }
-        try (BufferedReader reader = new BufferedReader(new java.io.FileReader(rutaArchivo))) {
-            String linea;
-            while ((linea = reader.readLine()) != null) {
-                String[] fila = linea.split("\\|");
-                datos.add(fila);
-            }
+        try (Reader reader = new InputStreamReader(new FileInputStream(archivo), StandardCharsets.UTF_8)) {
+            boolean[] esPrimera = {true};
+            new LectorCSV().leer(reader, (campos, cantidad) -> {
+                if (esPrimera[0]) { esPrimera[0] = false; return; } // Saltar cabecera
+                procesador.procesar(campos, cantidad);
+            });
             System.out.println("Usuarios leídos correctamente desde el archivo CSV " + rutaArchivo);
         } catch (IOException e) {
             System.err.println("Error al leer el archivo CSV: " + e.getMessage());
         }
-        return datos;
     }
 
     /**
      * Escribe la lista de usuarios en un archivo CSV, agregando el encabezado y separando los campos por '|'.
+     * La escritura es atómica: si falla, el archivo anterior queda intacto. Devuelve false si no se pudo escribir.
      */
-    public void escribirUsuariosCSV(String rutaArchivo, List<String[]> datos) {
-        File archivo = new File(rutaArchivo);
-        if (!archivo.exists()) {
-            try (BufferedWriter writer = new BufferedWriter(new FileWriter(rutaArchivo))) {
+    public boolean escribirUsuariosCSV(String rutaArchivo, List<String[]> datos) {
+        try {
+            EscrituraAtomica.escribir(Path.of(rutaArchivo), salida -> {
+                BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(salida, StandardCharsets.UTF_8));
                 writer.write(ENCABEZADO);
                 writer.newLine();
-            } catch (IOException e) {
-                System.err.println("Error al crear el archivo CSV: " + e.getMessage());
-            }
-        }
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(rutaArchivo))) {
-            writer.write(ENCABEZADO);
-            writer.newLine();
-            for (String[] fila : datos) {
-                writer.write(String.join("|", fila));
-                writer.newLine();
-            }
-            System.out.println("Usuarios escritos correctamente en formato CSV en " + rutaArchivo);
+                for (String[] fila : datos) {
+                    writer.write(String.join("|", fila));
+                    writer.newLine();
+                }
+                writer.flush();
+            });
+            return true;
         } catch (IOException e) {
             System.err.println("Error al escribir en el archivo CSV: " + e.getMessage());
+            return false;
         }
     }
 
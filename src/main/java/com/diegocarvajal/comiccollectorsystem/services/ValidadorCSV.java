@@ -0,0 +1,193 @@
+package com.diegocarvajal.comiccollectorsystem.services;
+
+import com.diegocarvajal.comiccollectorsystem.utils.Validaciones;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Valida un CSV de cómics o usuarios completo, sin cargarlo en la tienda, y anota las filas rechazadas en otro archivo.
+ * Los campos no se copian a Strings: cada uno es una vista sobre el buffer de la línea que se reutiliza entre filas,
+ * así validar millones de filas casi no crea objetos (solo al rechazar una fila o si aparece una línea más larga).
+ * Uso: ValidadorCSV comics|usuarios archivo [archivoDeRechazos]
+ */
+public class ValidadorCSV {
+    private static final int TAMANO_BUFFER = 64 * 1024;
+    private static final char SEPARADOR = '|';
+
+    /**
+     * Cantidad de filas de datos revisadas (sin cabecera ni líneas vacías) y cuántas se rechazaron.
+     */
+    public record Resultado(long filas, long rechazadas) {}
+
+    /**
+     * Regla que se aplica a cada fila: devuelve el motivo del rechazo, o null si es válida.
+     */
+    @FunctionalInterface
+    public interface ReglaFila {
+        String validar(CharSequence[] campos, int cantidad);
+    }
+
+    /**
+     * Vista de solo lectura sobre un tramo del buffer de la línea actual.
+     */
+    private static final class Tramo implements CharSequence {
+        private char[] buffer;
+        private int desde;
+        private int largo;
+
+        void apuntar(char[] buffer, int desde, int hasta) {
+            this.buffer = buffer;
+            this.desde = desde;
+            this.largo = hasta - desde;
+        }
+
+        @Override
+        public int length() {
+            return largo;
+        }
+
+        @Override
+        public char charAt(int indice) {
+            return buffer[desde + indice];
+        }
+
+        @Override
+        public CharSequence subSequence(int inicio, int fin) {
+            return new String(buffer, desde + inicio, fin - inicio);
+        }
+
+        @Override
+        public String toString() {
+            return new String(buffer, desde, largo);
+        }
+    }
+
+    private char[] linea = new char[256];
+    private int largoLinea;
+    private Tramo[] campos = nuevosTramos(8);
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2 || !(args[0].equals("comics") || args[0].equals("usuarios"))) {
+            System.err.println("Uso: ValidadorCSV comics|usuarios archivo [archivoDeRechazos]");
+            System.exit(1);
+        }
+        Path archivo = Path.of(args[1]);
+        Path rechazos = Path.of(args.length > 2 ? args[2] : args[1] + ".rechazados");
+        ReglaFila regla = args[0].equals("comics") ? Validaciones::errorFilaComic : Validaciones::errorFilaUsuario;
+        long inicio = System.nanoTime();
+        Resultado resultado;
+        try (RegistroRechazos registro = new RegistroRechazos(rechazos, archivo.toString(), false)) {
+            resultado = new ValidadorCSV().validar(archivo, regla, registro);
+        }
+        System.out.printf("%d filas revisadas en %d ms, %d rechazadas%s%n", resultado.filas(), (System.nanoTime() - inicio) / 1_000_000,
+                resultado.rechazadas(), resultado.rechazadas() > 0 ? " (detalle en " + rechazos + ")" : "");
+    }
+
+    /**
+     * Revisa todas las filas del archivo (salvo la cabecera) con la regla indicada y anota las rechazadas en el registro.
+     */
+    public Resultado validar(Path archivo, ReglaFila regla, RegistroRechazos registro) throws IOException {
+        try (Reader reader = Files.newBufferedReader(archivo, StandardCharsets.UTF_8)) {
+            return validar(reader, regla, registro);
+        }
+    }
+
+    /**
+     * Igual que {@link #validar(Path, ReglaFila, RegistroRechazos)}, leyendo desde un Reader.
+     */
+    public Resultado validar(Reader reader, ReglaFila regla, RegistroRechazos registro) throws IOException {
+        char[] buffer = new char[TAMANO_BUFFER];
+        long numeroLinea = 0;
+        long filas = 0;
+        long rechazadas = 0;
+        boolean ultimoFueRetorno = false;
+        boolean lineaPendiente = false;
+        largoLinea = 0;
+        int leidos;
+        while ((leidos = reader.read(buffer)) != -1) {
+            for (int i = 0; i < leidos; i++) {
+                char c = buffer[i];
+                if (c == '\n' && ultimoFueRetorno) {
+                    // "\r\n" ya se trató como fin de línea en el '\r'
+                    ultimoFueRetorno = false;
+                    continue;
+                }
+                ultimoFueRetorno = c == '\r';
+                if (c != '\n' && c != '\r') {
+                    agregar(c);
+                    lineaPendiente = true;
+                    continue;
+                }
+                lineaPendiente = false;
+                numeroLinea++;
+                if (numeroLinea > 1 && largoLinea > 0) {
+                    filas++;
+                    if (revisar(numeroLinea, regla, registro)) {
+                        rechazadas++;
+                    }
+                }
+                largoLinea = 0;
+            }
+        }
+        if (lineaPendiente) {
+            numeroLinea++;
+            if (numeroLinea > 1) {
+                filas++;
+                if (revisar(numeroLinea, regla, registro)) {
+                    rechazadas++;
+                }
+            }
+        }
+        return new Resultado(filas, rechazadas);
+    }
+
+    private void agregar(char c) {
+        if (largoLinea == linea.length) {
+            linea = Arrays.copyOf(linea, largoLinea * 2);
+        }
+        linea[largoLinea++] = c;
+    }
+
+    /**
+     * Separa la línea actual en campos y aplica la regla. Devuelve true si la fila se rechazó.
+     * Igual que {@link LectorCSV}, los campos vacíos al final de la fila no se cuentan.
+     */
+    private boolean revisar(long numeroLinea, ReglaFila regla, RegistroRechazos registro) throws IOException {
+        int cantidad = 0;
+        int inicioCampo = 0;
+        for (int i = 0; i <= largoLinea; i++) {
+            if (i < largoLinea && linea[i] != SEPARADOR) {
+                continue;
+            }
+            if (cantidad == campos.length) {
+                Tramo[] mas = nuevosTramos(cantidad * 2);
+                System.arraycopy(campos, 0, mas, 0, cantidad);
+                campos = mas;
+            }
+            campos[cantidad++].apuntar(linea, inicioCampo, i);
+            inicioCampo = i + 1;
+        }
+        while (cantidad > 1 && campos[cantidad - 1].length() == 0) {
+            cantidad--;
+        }
+        String motivo = regla.validar(campos, cantidad);
+        if (motivo == null) {
+            return false;
+        }
+        registro.rechazar(numeroLinea, motivo, campos, cantidad);
+        return true;
+    }
+
+    private static Tramo[] nuevosTramos(int cantidad) {
+        Tramo[] tramos = new Tramo[cantidad];
+        for (int i = 0; i < cantidad; i++) {
+            tramos[i] = new Tramo();
+        }
+        return tramos;
+    }
+}
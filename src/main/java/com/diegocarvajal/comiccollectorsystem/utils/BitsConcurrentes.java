@@ -0,0 +1,118 @@
+package com.diegocarvajal.comiccollectorsystem.utils;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Conjunto de bits que se pueden activar y desactivar desde varios hilos sin bloquearse.
+ * Los bits se guardan en bloques de tamaño fijo que nunca se copian, así crecer no pierde cambios hechos en paralelo.
+ * Lleva la cuenta de bits activos, por lo que contarlos es inmediato; los recorridos avanzan de a 64 bits por palabra.
+ * Solo un hilo a la vez puede hacerlo crecer (quien lo llama debe sincronizarlo).
+ */
+public class BitsConcurrentes {
+    private static final int BITS_BLOQUE = 16; // 65.536 bits por bloque
+    private static final int MASCARA_BLOQUE = (1 << BITS_BLOQUE) - 1;
+
+    private volatile AtomicLongArray[] bloques = new AtomicLongArray[0];
+    private final AtomicInteger activos = new AtomicInteger();
+
+    /**
+     * Asegura que existan al menos la cantidad de bits indicada. Solo puede llamarse desde un hilo a la vez.
+     */
+    public void asegurarCapacidad(int bits) {
+        AtomicLongArray[] actuales = bloques;
+        int necesarios = (int) (((long) bits + MASCARA_BLOQUE) >>> BITS_BLOQUE);
+        if (necesarios > actuales.length) {
+            AtomicLongArray[] nuevos = Arrays.copyOf(actuales, Math.max(necesarios, actuales.length * 2));
+            for (int i = actuales.length; i < nuevos.length; i++) {
+                nuevos[i] = new AtomicLongArray(1 << (BITS_BLOQUE - 6));
+            }
+            bloques = nuevos;
+        }
+    }
+
+    /**
+     * Activa el bit. Devuelve false si ya estaba activo.
+     */
+    public boolean activar(int indice) {
+        AtomicLongArray bloque = bloques[indice >>> BITS_BLOQUE];
+        int palabra = (indice & MASCARA_BLOQUE) >>> 6;
+        long mascara = 1L << indice;
+        long actual;
+        do {
+            actual = bloque.get(palabra);
+            if ((actual & mascara) != 0) {
+                return false;
+            }
+        } while (!bloque.compareAndSet(palabra, actual, actual | mascara));
+        activos.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * Desactiva el bit. Devuelve false si ya estaba inactivo.
+     */
+    public boolean desactivar(int indice) {
+        AtomicLongArray bloque = bloques[indice >>> BITS_BLOQUE];
+        int palabra = (indice & MASCARA_BLOQUE) >>> 6;
+        long mascara = 1L << indice;
+        long actual;
+        do {
+            actual = bloque.get(palabra);
+            if ((actual & mascara) == 0) {
+                return false;
+            }
+        } while (!bloque.compareAndSet(palabra, actual, actual & ~mascara));
+        activos.decrementAndGet();
+        return true;
+    }
+
+    public boolean contiene(int indice) {
+        AtomicLongArray[] actuales = bloques;
+        if (indice < 0 || (indice >>> BITS_BLOQUE) >= actuales.length) {
+            return false;
+        }
+        return (actuales[indice >>> BITS_BLOQUE].get((indice & MASCARA_BLOQUE) >>> 6) & (1L << indice)) != 0;
+    }
+
+    /**
+     * Cantidad de bits activos.
+     */
+    public int cantidadActivos() {
+        return activos.get();
+    }
+
+    /**
+     * Devuelve el primer bit activo en [desde, limite), o -1 si no hay.
+     */
+    public int siguienteActivo(int desde, int limite) {
+        return siguiente(desde, limite, false);
+    }
+
+    /**
+     * Devuelve el primer bit inactivo en [desde, limite), o -1 si no hay.
+     */
+    public int siguienteInactivo(int desde, int limite) {
+        return siguiente(desde, limite, true);
+    }
+
+    private int siguiente(int desde, int limite, boolean invertir) {
+        AtomicLongArray[] actuales = bloques;
+        long fin = Math.min(limite, (long) actuales.length << BITS_BLOQUE);
+        long i = Math.max(0, desde);
+        while (i < fin) {
+            long palabra = actuales[(int) (i >>> BITS_BLOQUE)].get((int) ((i & MASCARA_BLOQUE) >>> 6));
+            if (invertir) {
+                palabra = ~palabra;
+            }
+            palabra &= -1L << i;
+            if (palabra != 0) {
+                long encontrado = (i & ~63L) + Long.numberOfTrailingZeros(palabra);
+                return encontrado < fin ? (int) encontrado : -1;
+            }
+            i = (i & ~63L) + 64;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,108 @@
+package com.diegocarvajal.comiccollectorsystem.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Predicate;
+
+/**
+ * Recorre una {@link ListaSoloAgregar} aplicando un filtro, en paralelo sobre un ForkJoinPool cuando la lista es grande.
+ * La lista se divide en segmentos contiguos del arreglo interno (cada tarea lee memoria seguida) y los resultados
+ * se devuelven en el orden de la lista. Por debajo del umbral se recorre en el mismo hilo, sin costo de coordinación.
+ */
+public class BusquedaParalela {
+    // Cantidad de elementos desde la que conviene repartir el recorrido entre varios hilos
+    public static final int UMBRAL_PARALELO = 50_000;
+    // Elementos que recorre cada tarea sin dividirse más
+    private static final int SEGMENTO = 16_384;
+
+    private static final BusquedaParalela COMUN = new BusquedaParalela(ForkJoinPool.commonPool(), UMBRAL_PARALELO);
+
+    private final ForkJoinPool hilos;
+    private final int umbral;
+
+    /**
+     * Crea un motor que usa el pool indicado (por ejemplo, uno dedicado con menos hilos) y el umbral dado.
+     */
+    public BusquedaParalela(ForkJoinPool hilos, int umbral) {
+        this.hilos = hilos;
+        this.umbral = umbral;
+    }
+
+    /**
+     * Motor compartido sobre el pool común de fork-join.
+     */
+    public static BusquedaParalela comun() {
+        return COMUN;
+    }
+
+    private boolean conviene(int tamano) {
+        return tamano >= umbral && hilos.getParallelism() > 1;
+    }
+
+    /**
+     * Devuelve, en el orden de la lista, los elementos que cumplen el filtro.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> List<T> filtrar(ListaSoloAgregar<T> lista, Predicate<? super T> filtro) {
+        int n = lista.tamano();
+        Object[] elementos = lista.arreglo();
+        if (!conviene(n)) {
+            return (List<T>) filtrarRango(elementos, 0, n, filtro);
+        }
+        return (List<T>) hilos.invoke(new Filtrado(elementos, 0, n, filtro));
+    }
+
+    private static List<Object> filtrarRango(Object[] elementos, int desde, int hasta, Predicate<?> filtro) {
+        @SuppressWarnings("unchecked")
+        Predicate<Object> prueba = (Predicate<Object>) filtro;
+        List<Object> resultado = new ArrayList<>();
+        for (int i = desde; i < hasta; i++) {
+            if (prueba.test(elementos[i])) {
+                resultado.add(elementos[i]);
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Filtra un rango dividiéndolo a la mitad (en límites de segmento) hasta llegar a un segmento.
+     */
+    private static final class Filtrado extends RecursiveTask<List<Object>> {
+        private final Object[] elementos;
+        private final int desde;
+        private final int hasta;
+        private final Predicate<?> filtro;
+
+        Filtrado(Object[] elementos, int desde, int hasta, Predicate<?> filtro) {
+            this.elementos = elementos;
+            this.desde = desde;
+            this.hasta = hasta;
+            this.filtro = filtro;
+        }
+
+        @Override
+        protected List<Object> compute() {
+            if (hasta - desde <= SEGMENTO) {
+                return filtrarRango(elementos, desde, hasta, filtro);
+            }
+            int medio = mitad(desde, hasta);
+            Filtrado izquierda = new Filtrado(elementos, desde, medio, filtro);
+            izquierda.fork();
+            List<Object> derecha = new Filtrado(elementos, medio, hasta, filtro).compute();
+            List<Object> resultado = izquierda.join();
+            resultado.addAll(derecha);
+            return resultado;
+        }
+    }
+
+    /**
+     * Punto medio del rango redondeado a un límite de segmento, para que las tareas no compartan segmentos.
+     */
+    private static int mitad(int desde, int hasta) {
+        int medio = desde + (hasta - desde) / 2;
+        int alineado = medio - (medio % SEGMENTO);
+        return alineado > desde ? alineado : medio;
+    }
+}
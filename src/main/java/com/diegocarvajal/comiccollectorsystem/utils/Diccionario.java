@@ -0,0 +1,34 @@
+package com.diegocarvajal.comiccollectorsystem.utils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * Diccionario de textos repetidos: a cada texto distinto le asigna un número y guarda una sola copia.
+ * Se usa para codificar autores y emails, que se repiten en miles de cómics.
+ */
+public class Diccionario {
+    private final HashMap<String, Integer> codigos = new HashMap<>();
+    private final ArrayList<String> textos = new ArrayList<>();
+
+    /**
+     * Devuelve el código del texto, agregándolo si todavía no existe.
+     */
+    public int codificar(String texto) {
+        Integer codigo = codigos.get(texto);
+        if (codigo == null) {
+            codigo = textos.size();
+            codigos.put(texto, codigo);
+            textos.add(texto);
+        }
+        return codigo;
+    }
+
+    public String texto(int codigo) {
+        return textos.get(codigo);
+    }
+
+    public int tamano() {
+        return textos.size();
+    }
+}
@@ -0,0 +1,40 @@
+package com.diegocarvajal.comiccollectorsystem.utils;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Generador de ids numéricos incrementales y seguro para uso concurrente.
+ * Se alimenta con los ids existentes al cargar los datos y luego entrega el siguiente id libre sin recorrer la colección.
+ */
+public class GeneradorIds {
+    // Mayor id numérico visto hasta ahora
+    private final AtomicInteger ultimoId = new AtomicInteger(0);
+
+    /**
+     * Registra un id existente para que los ids generados sean siempre mayores.
+     * Los ids no numéricos se ignoran.
+     */
+    public void observar(String id) {
+        if (id == null) return;
+        try {
+            int valor = Integer.parseInt(id.trim());
+            ultimoId.accumulateAndGet(valor, Math::max);
+        } catch (NumberFormatException e) {
+            // Ignorar ids no numéricos
+        }
+    }
+
+    /**
+     * Devuelve el mayor id numérico visto o generado hasta ahora (0 si no hay ninguno).
+     */
+    public int ultimo() {
+        return ultimoId.get();
+    }
+
+    /**
+     * Devuelve el siguiente id disponible como String.
+     */
+    public String siguiente() {
+        return String.valueOf(ultimoId.incrementAndGet());
+    }
+}
@@ -0,0 +1,88 @@
+package com.diegocarvajal.comiccollectorsystem.utils;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histograma de latencias en nanosegundos con cubetas log-lineales (al estilo de HdrHistogram):
+ * cada potencia de dos se divide en 32 cubetas iguales, así el error relativo de los percentiles es menor al 3,2%
+ * con una cantidad fija de memoria. Registrar no usa candados y puede hacerse desde muchos hilos a la vez.
+ */
+public class HistogramaLatencias {
+    private static final int BITS_SUBCUBETA = 5;
+    private static final int SUBCUBETAS = 1 << BITS_SUBCUBETA;
+
+    private final AtomicLongArray cubetas = new AtomicLongArray((64 - BITS_SUBCUBETA) * SUBCUBETAS);
+    private final LongAdder cantidad = new LongAdder();
+    private final LongAdder total = new LongAdder();
+    private final AtomicLong maximo = new AtomicLong();
+
+    /**
+     * Registra una medición. Los valores negativos se cuentan como cero.
+     */
+    public void registrar(long nanos) {
+        long valor = Math.max(0, nanos);
+        cubetas.incrementAndGet(indice(valor));
+        cantidad.increment();
+        total.add(valor);
+        if (valor > maximo.get()) {
+            maximo.accumulateAndGet(valor, Math::max);
+        }
+    }
+
+    public long cantidad() {
+        return cantidad.sum();
+    }
+
+    public double media() {
+        long n = cantidad.sum();
+        return n == 0 ? 0 : (double) total.sum() / n;
+    }
+
+    public long maximo() {
+        return maximo.get();
+    }
+
+    /**
+     * Devuelve el valor bajo el cual está la fracción {@code p} (entre 0 y 1) de las mediciones, o 0 si no hay.
+     * Mientras otros hilos registran, el resultado puede no incluir las mediciones más recientes.
+     */
+    public long percentil(double p) {
+        long n = 0;
+        for (int i = 0; i < cubetas.length(); i++) {
+            n += cubetas.get(i);
+        }
+        if (n == 0) return 0;
+        long objetivo = Math.max(1, (long) Math.ceil(p * n));
+        long acumulado = 0;
+        for (int i = 0; i < cubetas.length(); i++) {
+            acumulado += cubetas.get(i);
+            if (acumulado >= objetivo) {
+                // Límite superior de la cubeta, sin pasar del máximo registrado
+                return Math.min(limiteInferior(i + 1) - 1, maximo.get());
+            }
+        }
+        return maximo.get();
+    }
+
+    private static int indice(long valor) {
+        if (valor < SUBCUBETAS) {
+            return (int) valor;
+        }
+        int potencia = 63 - Long.numberOfLeadingZeros(valor);
+        int subcubeta = (int) (valor >>> (potencia - BITS_SUBCUBETA)) & (SUBCUBETAS - 1);
+        return (potencia - BITS_SUBCUBETA + 1) * SUBCUBETAS + subcubeta;
+    }
+
+    private static long limiteInferior(int indice) {
+        if (indice < SUBCUBETAS) {
+            return indice;
+        }
+        int potencia = indice / SUBCUBETAS + BITS_SUBCUBETA - 1;
+        if (potencia >= 63) {
+            return Long.MAX_VALUE;
+        }
+        return (1L << potencia) + ((long) (indice % SUBCUBETAS) << (potencia - BITS_SUBCUBETA));
+    }
+}
@@ -0,0 +1,33 @@
+package com.diegocarvajal.comiccollectorsystem.utils;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Escribe muchas líneas en la consola a través de un único buffer grande.
+ * Evita pasar cada línea por System.out.println, que sincroniza y vacía el buffer en cada llamada.
+ */
+public class ImpresorMasivo {
+    private static final int TAMANO_BUFFER = 1 << 16;
+
+    /**
+     * Escribe cada elemento (con su toString) en una línea de la salida estándar y vacía el buffer al terminar.
+     */
+    public static void imprimir(Iterable<?> elementos) {
+        PrintStream salida = System.out;
+        BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(salida, salida.charset()), TAMANO_BUFFER);
+        try {
+            for (Object elemento : elementos) {
+                writer.write(String.valueOf(elemento));
+                writer.newLine();
+            }
+            // Solo se vacía el buffer: cerrar el writer cerraría también System.out
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.diegocarvajal.comiccollectorsystem.utils;
+
+import java.util.Arrays;
+
+/**
+ * Mapa de int a int con direccionamiento abierto, sin objetos por entrada.
+ * Se usa para ubicar la posición de un cómic a partir de su id numérico.
+ */
+public class IndiceEntero {
+    private static final int VACIO = Integer.MIN_VALUE;
+
+    private int[] claves;
+    private int[] valores;
+    private int cantidad;
+
+    public IndiceEntero(int capacidadInicial) {
+        int capacidad = Integer.highestOneBit(Math.max(16, capacidadInicial * 2 - 1)) << 1;
+        claves = new int[capacidad];
+        valores = new int[capacidad];
+        Arrays.fill(claves, VACIO);
+    }
+
+    /**
+     * Asocia el valor a la clave, reemplazando el anterior si existía. La clave no puede ser Integer.MIN_VALUE.
+     */
+    public void poner(int clave, int valor) {
+        if (clave == VACIO) {
+            throw new IllegalArgumentException("Clave no soportada: " + clave);
+        }
+        if ((cantidad + 1) * 2 > claves.length) {
+            crecer();
+        }
+        int i = posicion(clave);
+        if (claves[i] == VACIO) {
+            claves[i] = clave;
+            cantidad++;
+        }
+        valores[i] = valor;
+    }
+
+    /**
+     * Devuelve el valor asociado a la clave, o -1 si no existe.
+     */
+    public int obtener(int clave) {
+        int i = posicion(clave);
+        return claves[i] == clave ? valores[i] : -1;
+    }
+
+    /**
+     * Quita la clave si existe. Las claves que venían después en el mismo tramo se vuelven a ubicar,
+     * para que la búsqueda lineal no se corte en el hueco que queda.
+     */
+    public void quitar(int clave) {
+        int i = posicion(clave);
+        if (claves[i] != clave) {
+            return;
+        }
+        int mascara = claves.length - 1;
+        claves[i] = VACIO;
+        cantidad--;
+        for (int j = (i + 1) & mascara; claves[j] != VACIO; j = (j + 1) & mascara) {
+            int siguiente = claves[j];
+            claves[j] = VACIO;
+            cantidad--;
+            poner(siguiente, valores[j]);
+        }
+    }
+
+    public int tamano() {
+        return cantidad;
+    }
+
+    /**
+     * Bytes ocupados por los arreglos del índice.
+     */
+    public long bytes() {
+        return 2L * claves.length * Integer.BYTES;
+    }
+
+    private int posicion(int clave) {
+        int mascara = claves.length - 1;
+        int hash = clave * 0x9E3779B9;
+        int i = (hash ^ (hash >>> 16)) & mascara;
+        while (claves[i] != VACIO && claves[i] != clave) {
+            i = (i + 1) & mascara;
+        }
+        return i;
+    }
+
+    private void crecer() {
+        int[] clavesAnteriores = claves;
+        int[] valoresAnteriores = valores;
+        claves = new int[clavesAnteriores.length * 2];
+        valores = new int[valoresAnteriores.length * 2];
+        Arrays.fill(claves, VACIO);
+        cantidad = 0;
+        for (int i = 0; i < clavesAnteriores.length; i++) {
+            if (clavesAnteriores[i] != VACIO) {
+                poner(clavesAnteriores[i], valoresAnteriores[i]);
+            }
+        }
+    }
+}
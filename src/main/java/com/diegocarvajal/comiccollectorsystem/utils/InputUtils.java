@@ -5,7 +5,8 @@ import java.util.Scanner;
 
 /**
  * Clase de utilidades para validación y entrada de datos por consola.
- * Contiene métodos estáticos para pedir y validar campos como nombre, email, teléfono y opciones de menú.
+ * Contiene métodos estáticos para pedir y validar campos como nombre, email, teléfono y opciones de menú;
+ * las reglas de validación están en {@link Validaciones}.
  */
 public class InputUtils {
     /**
@@ -14,15 +15,15 @@ public class InputUtils {
      */
     public static String pedirCampoNoVacio(Scanner scanner, String campo) {
         String valor;
+        String error;
         do {
             System.out.print(campo + ": ");
             valor = scanner.nextLine().trim();
-            if (valor.isEmpty()) {
-                System.out.println("Error: El " + campo.toLowerCase() + " no puede estar vacío.");
-            } else if (valor.contains("|")) {
-                System.out.println("Error: El " + campo.toLowerCase() + " no puede contener el carácter '|'.");
+            error = Validaciones.errorCampo(campo.toLowerCase(), valor);
+            if (error != null) {
+                System.out.println("Error: " + error);
             }
-        } while (valor.isEmpty() || valor.contains("|"));
+        } while (error != null);
         return valor;
     }
 
@@ -32,15 +33,15 @@ public class InputUtils {
      */
     public static String pedirEmail(Scanner scanner) {
         String email;
+        boolean valido;
         do {
             System.out.print("Email: ");
             email = scanner.nextLine().trim();
-            if (!email.matches("^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+$")) {
+            valido = Validaciones.emailValido(email);
+            if (!valido) {
                 System.out.println("Error: Email no válido.");
-            } else if (email.contains("|")) {
-                System.out.println("Error: El email no puede contener el carácter '|'.");
             }
-        } while (!email.matches("^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+$") || email.contains("|"));
+        } while (!valido);
         return email;
     }
 
@@ -50,15 +51,15 @@ public class InputUtils {
      */
     public static String pedirTelefono(Scanner scanner) {
         String telefono;
+        boolean valido;
         do {
             System.out.print("Teléfono: ");
             telefono = scanner.nextLine().trim();
-            if (!telefono.matches("\\d{7,}")) {
-                System.out.println("Error: El teléfono debe contener al menos 7 dígitos y solo números.");
-            } else if (telefono.contains("|")) {
-                System.out.println("Error: El teléfono no puede contener el carácter '|'.");
+            valido = Validaciones.telefonoValido(telefono);
+            if (!valido) {
+                System.out.println("Error: El teléfono debe contener al menos " + Validaciones.DIGITOS_TELEFONO + " dígitos y solo números.");
             }
-        } while (!telefono.matches("\\d{7,}") || telefono.contains("|"));
+        } while (!valido);
         return telefono;
     }
 
@@ -0,0 +1,168 @@
+package com.diegocarvajal.comiccollectorsystem.utils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Utilidades mínimas de JSON para la API HTTP, sin dependencias externas.
+ * Escribe textos escapados y lee objetos planos (sin objetos ni arreglos anidados);
+ * los números, true, false y null se leen como texto, y null queda como null.
+ */
+public class Json {
+
+    /**
+     * Agrega el texto entre comillas y escapado; null se escribe como null.
+     */
+    public static StringBuilder texto(StringBuilder destino, String texto) {
+        if (texto == null) {
+            return destino.append("null");
+        }
+        destino.append('"');
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            switch (c) {
+                case '"' -> destino.append("\\\"");
+                case '\\' -> destino.append("\\\\");
+                case '\n' -> destino.append("\\n");
+                case '\r' -> destino.append("\\r");
+                case '\t' -> destino.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        destino.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        destino.append(c);
+                    }
+                }
+            }
+        }
+        return destino.append('"');
+    }
+
+    /**
+     * Lee un objeto JSON plano. Lanza IllegalArgumentException si el texto no es un objeto válido.
+     */
+    public static Map<String, String> leerObjeto(String json) {
+        Lector lector = new Lector(json);
+        Map<String, String> resultado = new LinkedHashMap<>();
+        lector.esperar('{');
+        if (!lector.consumir('}')) {
+            do {
+                String clave = lector.leerTexto();
+                lector.esperar(':');
+                resultado.put(clave, lector.leerValor());
+            } while (lector.consumir(','));
+            lector.esperar('}');
+        }
+        lector.saltarEspacios();
+        if (!lector.terminado()) {
+            throw lector.error("contenido después del objeto");
+        }
+        return resultado;
+    }
+
+    /**
+     * Recorre el texto de entrada carácter por carácter.
+     */
+    private static final class Lector {
+        private final String json;
+        private int posicion;
+
+        Lector(String json) {
+            this.json = json == null ? "" : json;
+        }
+
+        boolean terminado() {
+            return posicion >= json.length();
+        }
+
+        void saltarEspacios() {
+            while (!terminado() && Character.isWhitespace(json.charAt(posicion))) {
+                posicion++;
+            }
+        }
+
+        boolean consumir(char esperado) {
+            saltarEspacios();
+            if (!terminado() && json.charAt(posicion) == esperado) {
+                posicion++;
+                return true;
+            }
+            return false;
+        }
+
+        void esperar(char esperado) {
+            if (!consumir(esperado)) {
+                throw error("se esperaba '" + esperado + "'");
+            }
+        }
+
+        String leerValor() {
+            saltarEspacios();
+            if (terminado()) {
+                throw error("falta un valor");
+            }
+            char c = json.charAt(posicion);
+            if (c == '"') {
+                return leerTexto();
+            }
+            if (c == '{' || c == '[') {
+                throw error("no se admiten objetos ni arreglos anidados");
+            }
+            int inicio = posicion;
+            while (!terminado() && ",}".indexOf(json.charAt(posicion)) < 0 && !Character.isWhitespace(json.charAt(posicion))) {
+                posicion++;
+            }
+            String literal = json.substring(inicio, posicion);
+            if (literal.isEmpty()) {
+                throw error("falta un valor");
+            }
+            return literal.equals("null") ? null : literal;
+        }
+
+        String leerTexto() {
+            esperar('"');
+            StringBuilder texto = new StringBuilder();
+            while (true) {
+                if (terminado()) {
+                    throw error("texto sin cerrar");
+                }
+                char c = json.charAt(posicion++);
+                if (c == '"') {
+                    return texto.toString();
+                }
+                if (c != '\\') {
+                    texto.append(c);
+                    continue;
+                }
+                if (terminado()) {
+                    throw error("escape incompleto");
+                }
+                char escape = json.charAt(posicion++);
+                switch (escape) {
+                    case '"', '\\', '/' -> texto.append(escape);
+                    case 'b' -> texto.append('\b');
+                    case 'f' -> texto.append('\f');
+                    case 'n' -> texto.append('\n');
+                    case 'r' -> texto.append('\r');
+                    case 't' -> texto.append('\t');
+                    case 'u' -> {
+                        if (posicion + 4 > json.length()) {
+                            throw error("escape unicode incompleto");
+                        }
+                        try {
+                            texto.append((char) Integer.parseInt(json.substring(posicion, posicion + 4), 16));
+                        } catch (NumberFormatException e) {
+                            throw error("escape unicode no válido");
+                        }
+                        posicion += 4;
+                    }
+                    default -> throw error("escape no válido: \\" + escape);
+                }
+            }
+        }
+
+        IllegalArgumentException error(String detalle) {
+            return new IllegalArgumentException("JSON no válido en la posición " + posicion + ": " + detalle);
+        }
+    }
+}
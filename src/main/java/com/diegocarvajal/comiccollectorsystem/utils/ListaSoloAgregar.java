@@ -0,0 +1,99 @@
+package com.diegocarvajal.comiccollectorsystem.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Lista a la que solo se pueden agregar elementos, pensada para un escritor y muchos lectores.
+ * Los lectores nunca se bloquean: leen el tamaño publicado y recorren solo esos elementos.
+ * Las escrituras deben hacerse desde un solo hilo a la vez (el que las llama debe sincronizarlas).
+ */
+public class ListaSoloAgregar<T> implements Iterable<T> {
+    private volatile Object[] elementos;
+    private volatile int tamano;
+
+    public ListaSoloAgregar() {
+        this(8);
+    }
+
+    public ListaSoloAgregar(int capacidadInicial) {
+        elementos = new Object[Math.max(1, capacidadInicial)];
+    }
+
+    /**
+     * Agrega un elemento al final. Solo puede llamarse desde un escritor a la vez.
+     */
+    public void agregar(T elemento) {
+        Object[] actual = elementos;
+        int n = tamano;
+        if (n == actual.length) {
+            actual = Arrays.copyOf(actual, n * 2);
+            elementos = actual;
+        }
+        actual[n] = elemento;
+        // La escritura volátil del tamaño publica el elemento a los lectores
+        tamano = n + 1;
+    }
+
+    public int tamano() {
+        return tamano;
+    }
+
+    @SuppressWarnings("unchecked")
+    public T obtener(int indice) {
+        int n = tamano;
+        if (indice < 0 || indice >= n) {
+            throw new IndexOutOfBoundsException(indice);
+        }
+        return (T) elementos[indice];
+    }
+
+    /**
+     * Devuelve una copia con los elementos publicados hasta ahora.
+     */
+    @SuppressWarnings("unchecked")
+    public List<T> copia() {
+        int n = tamano;
+        Object[] actual = elementos;
+        List<T> resultado = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            resultado.add((T) actual[i]);
+        }
+        return resultado;
+    }
+
+    /**
+     * Arreglo interno, para recorrerlo por rangos sin copiarlo. Solo son válidos los primeros {@link #tamano()}
+     * elementos leídos antes de llamar a este método.
+     */
+    Object[] arreglo() {
+        return elementos;
+    }
+
+    /**
+     * Recorre los elementos publicados al momento de crear el iterador.
+     */
+    @Override
+    public Iterator<T> iterator() {
+        int n = tamano;
+        Object[] actual = elementos;
+        return new Iterator<>() {
+            private int indice = 0;
+
+            @Override
+            public boolean hasNext() {
+                return indice < n;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public T next() {
+                if (indice >= n) throw new NoSuchElementException();
+                return (T) actual[indice++];
+            }
+        };
+    }
+}
@@ -0,0 +1,90 @@
+package com.diegocarvajal.comiccollectorsystem.utils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Registro de métricas: un histograma de latencias por operación e indicadores (valores que se leen al consultarlos,
+ * como el tamaño del catálogo). Registrar una medición no usa candados.
+ */
+public class Metricas {
+    private final ConcurrentHashMap<String, HistogramaLatencias> operaciones = new ConcurrentHashMap<>();
+    private final Map<String, LongSupplier> indicadores = new LinkedHashMap<>();
+
+    /**
+     * Empieza a medir una operación; la duración se registra al cerrar la medición, así que se usa con
+     * try-with-resources: {@code try (Metricas.Medicion medicion = metricas.medir("op")) { ... }}.
+     * Se mide aunque la operación termine con una excepción.
+     */
+    public Medicion medir(String operacion) {
+        return new Medicion(histograma(operacion), System.nanoTime());
+    }
+
+    public HistogramaLatencias histograma(String operacion) {
+        HistogramaLatencias histograma = operaciones.get(operacion);
+        return histograma != null ? histograma : operaciones.computeIfAbsent(operacion, k -> new HistogramaLatencias());
+    }
+
+    /**
+     * Agrega un indicador que se calcula cada vez que se muestran las métricas.
+     */
+    public synchronized void registrarIndicador(String nombre, LongSupplier valor) {
+        indicadores.put(nombre, valor);
+    }
+
+    /**
+     * Texto con las operaciones (cantidad y latencias en microsegundos) y los indicadores.
+     */
+    public String resumen() {
+        StringBuilder texto = new StringBuilder(2048);
+        texto.append("# Métricas al ").append(LocalDateTime.now().withNano(0)).append('\n');
+        texto.append(String.format("%-28s %10s %10s %10s %10s %10s%n", "operación", "cantidad", "media µs", "p50 µs", "p99 µs", "máx µs"));
+        for (Map.Entry<String, HistogramaLatencias> entrada : new TreeMap<>(operaciones).entrySet()) {
+            HistogramaLatencias h = entrada.getValue();
+            texto.append(String.format("%-28s %10d %10.1f %10.1f %10.1f %10.1f%n", entrada.getKey(), h.cantidad(),
+                    h.media() / 1e3, h.percentil(0.50) / 1e3, h.percentil(0.99) / 1e3, h.maximo() / 1e3));
+        }
+        synchronized (this) {
+            for (Map.Entry<String, LongSupplier> entrada : indicadores.entrySet()) {
+                texto.append(String.format("%-28s %10d%n", entrada.getKey(), entrada.getValue().getAsLong()));
+            }
+        }
+        return texto.toString();
+    }
+
+    /**
+     * Escribe el resumen en el archivo indicado, reemplazándolo de una vez para que nunca quede a medio escribir.
+     */
+    public void volcar(Path ruta) throws IOException {
+        Path temporal = ruta.resolveSibling(ruta.getFileName() + ".tmp");
+        Files.writeString(temporal, resumen(), StandardCharsets.UTF_8);
+        Files.move(temporal, ruta, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Medición en curso de una operación. Cerrarla registra el tiempo transcurrido desde que se creó.
+     */
+    public static final class Medicion implements AutoCloseable {
+        private final HistogramaLatencias histograma;
+        private final long inicio;
+
+        private Medicion(HistogramaLatencias histograma, long inicio) {
+            this.histograma = histograma;
+            this.inicio = inicio;
+        }
+
+        @Override
+        public void close() {
+            histograma.registrar(System.nanoTime() - inicio);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.diegocarvajal.comiccollectorsystem.utils;
+
+import java.text.Normalizer;
+import java.util.Locale;
+
+/**
+ * Normaliza títulos y autores para buscarlos y ordenarlos sin distinguir mayúsculas, minúsculas ni acentos:
+ * "Máfalda", "MAFALDA" y " mafalda " dan la misma clave. Los cómics calculan su clave una sola vez al crearse,
+ * así las búsquedas y los ordenamientos comparan claves ya normalizadas en vez de convertir cada texto en cada consulta.
+ */
+public final class Normalizacion {
+
+    private Normalizacion() {
+    }
+
+    /**
+     * Devuelve la clave del texto: sin espacios al inicio o al final, descompuesto (NFD), sin marcas diacríticas
+     * (tildes, diéresis, la virgulilla de la ñ) y en minúsculas. Un texto null da la clave vacía.
+     * Los textos solo ASCII, que son la mayoría, se resuelven sin descomponer y, si ya están en minúsculas,
+     * sin crear otro String.
+     */
+    public static String clave(String texto) {
+        if (texto == null) {
+            return "";
+        }
+        String recortado = texto.trim();
+        if (soloAscii(recortado)) {
+            return recortado.toLowerCase(Locale.ROOT);
+        }
+        String descompuesto = Normalizer.normalize(recortado, Normalizer.Form.NFD);
+        StringBuilder sinMarcas = new StringBuilder(descompuesto.length());
+        for (int i = 0; i < descompuesto.length(); i++) {
+            char c = descompuesto.charAt(i);
+            if (Character.getType(c) != Character.NON_SPACING_MARK) {
+                sinMarcas.append(c);
+            }
+        }
+        // Pasar por mayúsculas pliega también las letras sin minúscula simple (por ejemplo "ß" queda "ss")
+        return sinMarcas.toString().toUpperCase(Locale.ROOT).toLowerCase(Locale.ROOT);
+    }
+
+    private static boolean soloAscii(String texto) {
+        for (int i = 0; i < texto.length(); i++) {
+            if (texto.charAt(i) > 0x7F) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
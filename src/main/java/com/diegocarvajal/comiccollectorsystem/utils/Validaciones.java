@@ -0,0 +1,189 @@
+package com.diegocarvajal.comiccollectorsystem.utils;
+
+/**
+ * Reglas de validación de los datos de cómics y usuarios, compartidas por la consola, la API y la carga de CSV.
+ * Se recorren los caracteres a mano en vez de usar expresiones regulares, así validar no crea objetos:
+ * los métodos aceptan cualquier CharSequence (incluidas vistas reutilizables sobre un buffer) y solo arman
+ * el mensaje de error cuando el dato no es válido.
+ */
+public final class Validaciones {
+    // Largo mínimo de un teléfono
+    public static final int DIGITOS_TELEFONO = 7;
+
+    private Validaciones() {
+    }
+
+    /**
+     * Email con el formato usuario@dominio: ambas partes no vacías, con letras ASCII, dígitos y '.', '-'
+     * (más '+' y '_' en el usuario). Equivale a la expresión ^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+$.
+     */
+    public static boolean emailValido(CharSequence email) {
+        if (email == null) {
+            return false;
+        }
+        int largo = email.length();
+        int arroba = -1;
+        for (int i = 0; i < largo; i++) {
+            char c = email.charAt(i);
+            if (c == '@') {
+                if (arroba >= 0 || i == 0) {
+                    return false;
+                }
+                arroba = i;
+            } else if (!alfanumerico(c) && c != '.' && c != '-' && (arroba >= 0 || (c != '+' && c != '_'))) {
+                return false;
+            }
+        }
+        return arroba > 0 && arroba < largo - 1;
+    }
+
+    /**
+     * Teléfono de solo dígitos (0-9), con al menos {@link #DIGITOS_TELEFONO}.
+     */
+    public static boolean telefonoValido(CharSequence telefono) {
+        if (telefono == null || telefono.length() < DIGITOS_TELEFONO) {
+            return false;
+        }
+        for (int i = 0; i < telefono.length(); i++) {
+            char c = telefono.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Indica si el texto no contiene '|' (el separador de los CSV y del diario) ni saltos de línea.
+     */
+    public static boolean sinSeparador(CharSequence texto) {
+        if (texto == null) {
+            return true;
+        }
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            if (c == '|' || c == '\n' || c == '\r') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Indica si el texto es null, vacío o solo tiene espacios.
+     */
+    public static boolean vacio(CharSequence texto) {
+        if (texto == null) {
+            return true;
+        }
+        for (int i = 0; i < texto.length(); i++) {
+            if (!Character.isWhitespace(texto.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Valida un campo obligatorio de texto libre. Devuelve el mensaje de error, o null si es válido.
+     * El nombre del campo va en minúsculas y con artículo masculino ("título", "email").
+     */
+    public static String errorCampo(String campo, CharSequence valor) {
+        if (vacio(valor)) {
+            return "El " + campo + " no puede estar vacío.";
+        }
+        return errorSeparador(campo, valor);
+    }
+
+    /**
+     * Valida un campo opcional: solo se exige que no tenga el separador. Devuelve el mensaje de error, o null.
+     */
+    public static String errorSeparador(String campo, CharSequence valor) {
+        return sinSeparador(valor) ? null : "El " + campo + " no puede contener el carácter '|' ni saltos de línea.";
+    }
+
+    /**
+     * Valida los datos de un cómic nuevo: título obligatorio, autor presente (puede ser vacío) y sin separador,
+     * y asignadoA vacío o un email válido. Devuelve el mensaje de error, o null si es válido.
+     */
+    public static String errorComic(CharSequence titulo, CharSequence autor, CharSequence asignadoA) {
+        String error = errorCampo("título", titulo);
+        if (error == null && autor == null) {
+            // Un autor null se escribiría como el texto "null" en el diario y los CSV
+            error = "Falta el autor.";
+        }
+        if (error == null) {
+            error = errorSeparador("autor", autor);
+        }
+        if (error == null && asignadoA != null && asignadoA.length() > 0 && !emailValido(asignadoA)) {
+            error = "El email asignado no es válido: " + asignadoA;
+        }
+        return error;
+    }
+
+    /**
+     * Valida los datos de un usuario: nombre y apellido obligatorios, email y teléfono con formato válido.
+     * Devuelve el mensaje de error, o null si es válido.
+     */
+    public static String errorUsuario(CharSequence nombre, CharSequence apellido, CharSequence email, CharSequence telefono) {
+        String error = errorCampo("nombre", nombre);
+        if (error == null) {
+            error = errorCampo("apellido", apellido);
+        }
+        if (error == null && !emailValido(email)) {
+            error = "Email no válido.";
+        }
+        if (error == null && !telefonoValido(telefono)) {
+            error = "El teléfono debe contener al menos " + DIGITOS_TELEFONO + " dígitos y solo números.";
+        }
+        return error;
+    }
+
+    /**
+     * Valida una fila de comics.csv (id|titulo|autor|estado|asignadoA). Devuelve el mensaje de error, o null.
+     */
+    public static String errorFilaComic(CharSequence[] campos, int cantidad) {
+        if (cantidad < 4) {
+            return "Faltan columnas: se esperaban al menos 4 y hay " + cantidad + ".";
+        }
+        if (cantidad > 5) {
+            return "Sobran columnas: se esperaban 5 y hay " + cantidad + ".";
+        }
+        if (vacio(campos[0])) {
+            return "El id no puede estar vacío.";
+        }
+        if (!igualSinMayusculas(campos[3], "true") && !igualSinMayusculas(campos[3], "false")) {
+            return "El estado debe ser true o false: " + campos[3];
+        }
+        return errorComic(campos[1], campos[2], cantidad > 4 ? campos[4] : null);
+    }
+
+    /**
+     * Valida una fila de usuarios.csv (id|nombre|apellido|email|telefono). Devuelve el mensaje de error, o null.
+     */
+    public static String errorFilaUsuario(CharSequence[] campos, int cantidad) {
+        if (cantidad != 5) {
+            return "Se esperaban 5 columnas y hay " + cantidad + ".";
+        }
+        if (vacio(campos[0])) {
+            return "El id no puede estar vacío.";
+        }
+        return errorUsuario(campos[1], campos[2], campos[3], campos[4]);
+    }
+
+    private static boolean alfanumerico(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9');
+    }
+
+    private static boolean igualSinMayusculas(CharSequence texto, String palabra) {
+        if (texto.length() != palabra.length()) {
+            return false;
+        }
+        for (int i = 0; i < palabra.length(); i++) {
+            if (Character.toLowerCase(texto.charAt(i)) != palabra.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,163 @@
+package com.diegocarvajal.comiccollectorsystem.utils;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Vista ordenada que se mantiene al día a medida que se agregan elementos (skip list concurrente).
+ * Recorrerla es O(n) sin volver a ordenar, y los elementos que empatan según el comparador no se pierden:
+ * se desempatan por orden de llegada.
+ */
+public class VistaOrdenada<T> implements Iterable<T> {
+
+    /**
+     * Elemento de la vista junto con su número de llegada, usado como desempate.
+     */
+    private record Nodo<T>(T valor, long secuencia) {}
+
+    /**
+     * Marca de continuación opaca: indica desde dónde sigue la próxima página de esta vista.
+     */
+    public static final class Cursor {
+        private final VistaOrdenada<?> vista;
+        private final Nodo<?> ultimo;
+
+        private Cursor(VistaOrdenada<?> vista, Nodo<?> ultimo) {
+            this.vista = vista;
+            this.ultimo = ultimo;
+        }
+    }
+
+    /**
+     * Página de resultados y cursor para pedir la siguiente (null si no hay más).
+     */
+    public record Pagina<T>(List<T> elementos, Cursor siguiente) {
+        public boolean hayMas() {
+            return siguiente != null;
+        }
+    }
+
+    /**
+     * Elemento de una página junto con el cursor que continúa justo después de él.
+     * Sirve para mezclar páginas de varias vistas y seguir cada una desde el último elemento usado.
+     */
+    public record Posicion<T>(T valor, Cursor cursor) {}
+
+    private final ConcurrentSkipListSet<Nodo<T>> nodos;
+    private final AtomicLong secuencia = new AtomicLong();
+
+    public VistaOrdenada(Comparator<? super T> comparador) {
+        Comparator<Nodo<T>> porValor = (a, b) -> comparador.compare(a.valor(), b.valor());
+        this.nodos = new ConcurrentSkipListSet<>(porValor.thenComparingLong(Nodo::secuencia));
+    }
+
+    /**
+     * Agrega un elemento en su posición, en O(log n).
+     */
+    public void agregar(T valor) {
+        nodos.add(new Nodo<>(valor, secuencia.getAndIncrement()));
+    }
+
+    public int tamano() {
+        return nodos.size();
+    }
+
+    /**
+     * Devuelve hasta {@code tamano} elementos a continuación del cursor (o desde el inicio si es null).
+     * El costo depende del tamaño de la página, no de la cantidad total de elementos.
+     */
+    public Pagina<T> pagina(Cursor desde, int tamano) {
+        Iterator<Nodo<T>> iterador = recorrerDesde(desde, tamano);
+        List<T> elementos = new ArrayList<>(tamano);
+        Nodo<T> ultimo = null;
+        while (elementos.size() < tamano && iterador.hasNext()) {
+            ultimo = iterador.next();
+            elementos.add(ultimo.valor());
+        }
+        Cursor siguiente = (ultimo != null && iterador.hasNext()) ? new Cursor(this, ultimo) : null;
+        return new Pagina<>(elementos, siguiente);
+    }
+
+    /**
+     * Igual que {@link #pagina}, pero devuelve cada elemento con su propio cursor.
+     */
+    public List<Posicion<T>> posiciones(Cursor desde, int tamano) {
+        Iterator<Nodo<T>> iterador = recorrerDesde(desde, tamano);
+        List<Posicion<T>> posiciones = new ArrayList<>(tamano);
+        while (posiciones.size() < tamano && iterador.hasNext()) {
+            Nodo<T> nodo = iterador.next();
+            posiciones.add(new Posicion<>(nodo.valor(), new Cursor(this, nodo)));
+        }
+        return posiciones;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Iterator<Nodo<T>> recorrerDesde(Cursor desde, int tamano) {
+        if (tamano <= 0) {
+            throw new IllegalArgumentException("El tamaño de página debe ser positivo: " + tamano);
+        }
+        if (desde == null) {
+            return nodos.iterator();
+        }
+        if (desde.vista != this) {
+            throw new IllegalArgumentException("El cursor pertenece a otra vista ordenada.");
+        }
+        return nodos.tailSet((Nodo<T>) desde.ultimo, false).iterator();
+    }
+
+    /**
+     * Convierte el cursor en texto para enviarlo fuera del proceso (por ejemplo, en una respuesta HTTP).
+     * El texto lleva el número de llegada del último elemento de la página y la clave que da {@code clave},
+     * que debe incluir todos los campos que usa el comparador.
+     */
+    @SuppressWarnings("unchecked")
+    public String cursorComoTexto(Cursor cursor, Function<? super T, String> clave) {
+        if (cursor.vista != this) {
+            throw new IllegalArgumentException("El cursor pertenece a otra vista ordenada.");
+        }
+        Nodo<T> ultimo = (Nodo<T>) cursor.ultimo;
+        return ultimo.secuencia() + ":" + clave.apply(ultimo.valor());
+    }
+
+    /**
+     * Reconstruye un cursor a partir del texto de {@link #cursorComoTexto}, usando {@code reconstruir} para obtener
+     * desde la clave un elemento que el comparador ordene igual que el original (no tiene que ser el mismo objeto
+     * ni seguir en la vista). Lanza IllegalArgumentException si el texto no es válido.
+     */
+    public Cursor cursorDesdeTexto(String texto, Function<String, ? extends T> reconstruir) {
+        int separador = texto.indexOf(':');
+        T valor = separador > 0 ? reconstruir.apply(texto.substring(separador + 1)) : null;
+        if (valor == null) {
+            throw new IllegalArgumentException("Cursor no válido: " + texto);
+        }
+        try {
+            return new Cursor(this, new Nodo<>(valor, Long.parseLong(texto.substring(0, separador))));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Cursor no válido: " + texto);
+        }
+    }
+
+    /**
+     * Recorre los elementos en orden; no se bloquea aunque se agreguen elementos al mismo tiempo.
+     */
+    @Override
+    public Iterator<T> iterator() {
+        Iterator<Nodo<T>> iterador = nodos.iterator();
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return iterador.hasNext();
+            }
+
+            @Override
+            public T next() {
+                return iterador.next().valor();
+            }
+        };
+    }
+}